@@ -0,0 +1,99 @@
+package com.estonnaicker.tasks.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.estonnaicker.tasks.Application;
+import com.estonnaicker.tasks.task.TaskService;
+import com.estonnaicker.tasks.task.dto.TaskBatchResultDto;
+import com.estonnaicker.tasks.task.dto.TaskCreateDto;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+
+/**
+ * Inserts the same tasks through one createTasks call, a single transaction whose inserts go
+ * out as JDBC batches with ids drawn from the pooled sequence, and through one createTask call
+ * per task, a transaction and an INSERT each. Scores are rows per second. The table is emptied
+ * before every iteration so both start from the same size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchInsertBenchmark {
+    private static final int ROWS = 500;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private JdbcTemplate jdbcTemplate;
+    private List<TaskCreateDto> tasks;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Passed as arguments so they win over the PostgreSQL settings in application.properties
+        this.context = new SpringApplicationBuilder(Application.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--tasks.stats.reconcile-interval=PT24H",
+                "--logging.level.root=WARN"
+            );
+        this.taskService = this.context.getBean(TaskService.class);
+        this.jdbcTemplate = this.context.getBean(JdbcTemplate.class);
+
+        LocalDate dueDate = LocalDate.now().plusDays(7);
+        this.tasks = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            this.tasks.add(new TaskCreateDto("Task " + i, "Description " + i, dueDate, TaskStatus.TODO.toString()));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTable() {
+        this.jdbcTemplate.execute("TRUNCATE TABLE task");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public TaskBatchResultDto createTasks() {
+        return this.taskService.createTasks(this.tasks);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void createTaskEach(Blackhole blackhole) {
+        for (TaskCreateDto task : this.tasks) {
+            blackhole.consume(this.taskService.createTask(task));
+        }
+    }
+}
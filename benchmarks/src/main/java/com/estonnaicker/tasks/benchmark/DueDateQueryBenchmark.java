@@ -0,0 +1,122 @@
+package com.estonnaicker.tasks.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.estonnaicker.tasks.Application;
+import com.estonnaicker.tasks.task.TaskFilter;
+import com.estonnaicker.tasks.task.TaskService;
+import com.estonnaicker.tasks.task.dto.TaskDto;
+
+/**
+ * Runs the dueFrom/dueTo and overdue listings against an H2 table of a few million tasks,
+ * with and without the (archived, due_date, status) index. Due dates are spread over three
+ * years starting a month ago, so a one week range or the overdue filter match well under
+ * one percent of the rows. The setup prints the plan H2 picks for both filters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class DueDateQueryBenchmark {
+    private static final String INDEX = "idx_task_archived_due_date_status";
+    private static final int DAYS = 1095;
+
+    // Every tenth task is archived, statuses rotate and due dates are scattered over the days
+    private static final String SEED =
+        "INSERT INTO task (id, archived, title, description, due_date, status, version) "
+        + "SELECT x, MOD(x, 10) = 0, CONCAT('Task ', x), NULL, DATEADD('DAY', MOD(x * 7919, " + DAYS + "), ?), "
+        + "CASE MOD(x, 3) WHEN 0 THEN 'TODO' WHEN 1 THEN 'IN_PROGRESS' ELSE 'DONE' END, 0 "
+        + "FROM SYSTEM_RANGE(1, ?)";
+
+    @Param({ "2000000" })
+    private int rows;
+
+    @Param({ "true", "false" })
+    private boolean indexed;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskFilter nextWeek;
+    private TaskFilter overdue;
+    private Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Passed as arguments so they win over the PostgreSQL settings in application.properties.
+        // H2 would otherwise hand back the cached result of a repeated query on an unchanged table
+        this.context = new SpringApplicationBuilder(Application.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=0",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--tasks.stats.reconcile-interval=PT24H",
+                "--logging.level.root=WARN"
+            );
+        this.taskService = this.context.getBean(TaskService.class);
+        JdbcTemplate jdbcTemplate = this.context.getBean(JdbcTemplate.class);
+
+        LocalDate today = LocalDate.now();
+        jdbcTemplate.update(SEED, today.minusDays(30), this.rows);
+        if (!this.indexed) {
+            jdbcTemplate.execute("DROP INDEX " + INDEX);
+        }
+        jdbcTemplate.execute("ANALYZE");
+
+        this.nextWeek = new TaskFilter(null, null, today.plusDays(7), today.plusDays(13), false, null);
+        this.overdue = new TaskFilter(null, null, null, null, true, null);
+        this.pageable = PageRequest.of(0, 20);
+
+        printPlan(jdbcTemplate, "due range",
+            "SELECT id FROM task WHERE archived = false AND due_date >= ? AND due_date <= ?", today.plusDays(7), today.plusDays(13));
+        printPlan(jdbcTemplate, "overdue",
+            "SELECT id FROM task WHERE archived = false AND due_date < ? AND status <> 'DONE'", today);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.context.close();
+    }
+
+    // Page of 20 plus the COUNT of the whole range
+    @Benchmark
+    public Page<TaskDto> dueRange() {
+        return this.taskService.getAllTasks(this.nextWeek, this.pageable);
+    }
+
+    @Benchmark
+    public Page<TaskDto> overdue() {
+        return this.taskService.getAllTasks(this.overdue, this.pageable);
+    }
+
+    private void printPlan(JdbcTemplate jdbcTemplate, String name, String sql, Object... args) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args);
+        System.out.println("Plan for " + name + " (indexed=" + this.indexed + "): " + String.join(" ", plan).replaceAll("\\s+", " "));
+    }
+}
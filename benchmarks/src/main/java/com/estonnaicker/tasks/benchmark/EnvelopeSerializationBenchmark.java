@@ -0,0 +1,66 @@
+package com.estonnaicker.tasks.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.estonnaicker.tasks.exception.ErrorResponse;
+import com.estonnaicker.tasks.exception.GlobalExceptionHandler;
+import com.estonnaicker.tasks.exception.ResourceNotFoundException;
+import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.utils.ApiResponse;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Serializes the single task ApiResponse of a lookup and the ErrorResponse of a 404 to a
+ * discarding stream. ResponseSerializationBenchmark covers PagedApiResponse pages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnvelopeSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<TaskDto> task;
+    private ErrorResponse notFound;
+
+    @Setup
+    public void setup() {
+        // Matches the date handling Spring Boot configures for the application's mapper
+        this.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                                              .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.task = new ApiResponse<>(
+            new TaskDto(1L, "Task 1", "Description of task 1", LocalDate.of(2026, 1, 2), TaskStatus.TODO.toString(), 3L)
+        );
+        this.notFound = new GlobalExceptionHandler().handleResourceNotFoundException(new ResourceNotFoundException("Task", "id", 42L))
+                                                    .getBody();
+    }
+
+    @Benchmark
+    public void apiResponse() throws IOException {
+        this.objectMapper.writeValue(OutputStream.nullOutputStream(), this.task);
+    }
+
+    @Benchmark
+    public void errorResponse() throws IOException {
+        this.objectMapper.writeValue(OutputStream.nullOutputStream(), this.notFound);
+    }
+}
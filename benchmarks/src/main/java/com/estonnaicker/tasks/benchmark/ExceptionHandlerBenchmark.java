@@ -0,0 +1,77 @@
+package com.estonnaicker.tasks.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import com.estonnaicker.tasks.exception.ErrorResponse;
+import com.estonnaicker.tasks.exception.GlobalExceptionHandler;
+import com.estonnaicker.tasks.exception.ResourceNotFoundException;
+import com.estonnaicker.tasks.task.TaskController;
+import com.estonnaicker.tasks.task.dto.TaskCreateDto;
+
+/**
+ * Builds the ErrorResponse of the most common client errors through GlobalExceptionHandler.
+ * "notFound" and "invalidArguments" start from a prepared exception, "notFoundThrown" also
+ * creates the exception each time the way a failed lookup does, stack trace included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private ResourceNotFoundException notFound;
+    private MethodArgumentNotValidException invalidArguments;
+    private IllegalArgumentException illegalArgument;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        this.handler = new GlobalExceptionHandler();
+        this.notFound = new ResourceNotFoundException("Task", "id", 42L);
+        this.illegalArgument = new IllegalArgumentException("dueFrom must not be after dueTo");
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new TaskCreateDto(), "taskCreateDto");
+        bindingResult.addError(new FieldError("taskCreateDto", "title", "Title must be at least 5 characters"));
+        bindingResult.addError(new FieldError("taskCreateDto", "dueDate", "Due date must be in the future"));
+        MethodParameter parameter = new MethodParameter(TaskController.class.getMethod("createTask", TaskCreateDto.class), 0);
+        this.invalidArguments = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> notFound() {
+        return this.handler.handleResourceNotFoundException(this.notFound);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> notFoundThrown() {
+        return this.handler.handleResourceNotFoundException(new ResourceNotFoundException("Task", "id", 42L));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> invalidArguments() {
+        return this.handler.handleMethodArgumentNotValidException(this.invalidArguments);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> illegalArgument() {
+        return this.handler.handleIllegalArgumentException(this.illegalArgument);
+    }
+}
@@ -0,0 +1,167 @@
+package com.estonnaicker.tasks.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs the hot path benchmarks with the gc profiler and compares throughput and bytes allocated
+ * per operation with the baseline stored in baseline/hot-paths.json. Every benchmark whose
+ * throughput dropped, or whose allocation grew, by more than the threshold is reported and the
+ * process exits with 1, so a regression shows up as a diff against the stored numbers.
+ *
+ * From the benchmarks directory:
+ * java -cp target/benchmarks.jar com.estonnaicker.tasks.benchmark.HotPathBaseline [--update] [--threshold 0.1] [--result file]
+ * --update stores the run as the new baseline, --result compares an existing JMH JSON result instead of running.
+ */
+public final class HotPathBaseline {
+    private static final Path BASELINE = Path.of("baseline", "hot-paths.json");
+    private static final Path RESULT = Path.of("target", "hot-paths.json");
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    // Allocation differences below this many bytes per operation are noise from the profiler
+    private static final double ALLOCATION_SLACK = 16;
+
+    private static final Class<?>[] HOT_PATHS = {
+        TaskMapperBenchmark.class,
+        SortValidationBenchmark.class,
+        TaskSpecificationBenchmark.class,
+        ResponseSerializationBenchmark.class,
+        EnvelopeSerializationBenchmark.class,
+        ExceptionHandlerBenchmark.class
+    };
+
+    private HotPathBaseline() {
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        boolean update = false;
+        double threshold = 0.1;
+        Path result = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--update":
+                    update = true;
+                    break;
+                case "--threshold":
+                    threshold = Double.parseDouble(args[++i]);
+                    break;
+                case "--result":
+                    result = Path.of(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+
+        if (result == null) {
+            result = RESULT;
+            run(result);
+        }
+
+        if (update) {
+            Files.createDirectories(BASELINE.getParent());
+            Files.copy(result, BASELINE, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Stored " + result + " as " + BASELINE);
+            return;
+        }
+        if (!Files.exists(BASELINE)) {
+            System.out.println("No baseline at " + BASELINE + ", store one with --update");
+            return;
+        }
+
+        int regressions = compare(read(BASELINE), read(result), threshold);
+        System.out.println(regressions == 0 ? "No regressions" : regressions + " regression(s) beyond " + Math.round(threshold * 100) + "%");
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    private static void run(Path result) throws IOException, RunnerException {
+        Files.createDirectories(result.getParent());
+        ChainedOptionsBuilder options = new OptionsBuilder().addProfiler(GCProfiler.class)
+                                                            .resultFormat(ResultFormatType.JSON)
+                                                            .result(result.toString());
+        for (Class<?> benchmark : HOT_PATHS) {
+            options.include("\\." + benchmark.getSimpleName() + "\\.");
+        }
+        new Runner(options.build()).run();
+    }
+
+    private static int compare(Map<String, Measurement> baseline, Map<String, Measurement> current, double threshold) {
+        int regressions = 0;
+        System.out.printf("%n%-75s %14s %14s %8s %12s %12s %8s%n", "Benchmark", "base ops/s", "ops/s", "diff", "base B/op", "B/op", "diff");
+
+        for (Map.Entry<String, Measurement> entry : current.entrySet()) {
+            Measurement now = entry.getValue();
+            Measurement before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-75s %14s %14.0f%n", entry.getKey(), "new", now.score);
+                continue;
+            }
+
+            double scoreDiff = (now.score - before.score) / before.score;
+            double allocationDiff = before.allocation > 0 ? (now.allocation - before.allocation) / before.allocation : 0;
+            boolean slower = scoreDiff < -threshold;
+            boolean allocates = allocationDiff > threshold && now.allocation - before.allocation > ALLOCATION_SLACK;
+
+            System.out.printf(
+                "%-75s %14.0f %14.0f %+7.1f%% %12.1f %12.1f %+7.1f%%%s%n",
+                entry.getKey(),
+                before.score,
+                now.score,
+                scoreDiff * 100,
+                before.allocation,
+                now.allocation,
+                allocationDiff * 100,
+                slower || allocates ? "  <- REGRESSION" : ""
+            );
+            if (slower || allocates) {
+                regressions++;
+            }
+        }
+        return regressions;
+    }
+
+    // Benchmark name with its parameters, to primary score and allocation per operation
+    private static Map<String, Measurement> read(Path file) throws IOException {
+        Map<String, Measurement> measurements = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(run.get("benchmark").asText().replace("com.estonnaicker.tasks.benchmark.", ""));
+            if (run.has("params")) {
+                run.get("params").fields().forEachRemaining(param -> key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            }
+
+            double allocation = 0;
+            JsonNode secondary = run.path("secondaryMetrics");
+            for (var metrics = secondary.fields(); metrics.hasNext();) {
+                Map.Entry<String, JsonNode> metric = metrics.next();
+                if (metric.getKey().endsWith(ALLOCATION)) {
+                    allocation = metric.getValue().get("score").asDouble();
+                }
+            }
+            measurements.put(key.toString(), new Measurement(run.get("primaryMetric").get("score").asDouble(), allocation));
+        }
+        return measurements;
+    }
+
+    private static class Measurement {
+        private final double score;
+        private final double allocation;
+
+        private Measurement(double score, double allocation) {
+            this.score = score;
+            this.allocation = allocation;
+        }
+    }
+}
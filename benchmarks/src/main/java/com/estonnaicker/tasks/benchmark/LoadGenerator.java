@@ -0,0 +1,336 @@
+package com.estonnaicker.tasks.benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.estonnaicker.tasks.Application;
+import com.estonnaicker.tasks.task.Task;
+import com.estonnaicker.tasks.task.TaskStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Open model load against /api/v1/tasks. Starts the application with the h2 profile, seeds
+ * --tasks rows and sends a mix of creates, lookups, listings, patches and deletes at a fixed
+ * --rate per second, whether or not earlier requests have been answered. Latency is measured
+ * from the time a request was due to be sent rather than when it was, so a stalled server or
+ * a late generator thread shows up in the percentiles instead of being hidden by coordinated
+ * omission. Prints HdrHistogram percentiles per endpoint and writes each endpoint's full
+ * distribution to --report-dir as .hgrm files for plotting and comparing runs.
+ *
+ * java -cp target/benchmarks.jar com.estonnaicker.tasks.benchmark.LoadGenerator
+ *     [--rate=200] [--duration=60s] [--warmup=10s] [--tasks=10000]
+ *     [--mix=get:50,list:20,create:10,patch:15,delete:5] [--report-dir=target/loadtest]
+ * Any other --name=value argument is passed on to the application, e.g. --tasks.threads.virtual=true,
+ * so the same load can be run with and without a feature.
+ */
+public final class LoadGenerator {
+    private static final String SEED =
+        "INSERT INTO task (id, archived, title, description, due_date, status, version) "
+        + "SELECT x, false, CONCAT('Task ', x), 'Seeded', DATEADD('DAY', MOD(x, 365), ?), "
+        + "CASE MOD(x, 3) WHEN 0 THEN 'TODO' WHEN 1 THEN 'IN_PROGRESS' ELSE 'DONE' END, 0 "
+        + "FROM SYSTEM_RANGE(1, ?)";
+    private static final String[] STATUSES = { "TODO", "IN_PROGRESS", "DONE" };
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+    // Requests beyond this many unanswered ones are counted as errors instead of piling up in the client
+    private static final int MAX_IN_FLIGHT = 10_000;
+
+    private enum Operation {
+        CREATE("POST /api/v1/tasks"),
+        GET("GET /api/v1/tasks/{id}"),
+        LIST("GET /api/v1/tasks"),
+        PATCH("PATCH /api/v1/tasks/{id}"),
+        DELETE("DELETE /api/v1/tasks/{id}");
+
+        private final String endpoint;
+
+        Operation(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    private final String baseUrl;
+    private final int seededTasks;
+    private final Operation[] mix;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, Endpoint> endpoints = new EnumMap<>(Operation.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Tasks created by the load, deletes take from here so seeded tasks stay available to lookups and patches
+    private final ConcurrentLinkedQueue<Long> created = new ConcurrentLinkedQueue<>();
+
+    private LoadGenerator(String baseUrl, int seededTasks, Operation[] mix, ExecutorService executor) {
+        this.baseUrl = baseUrl;
+        this.seededTasks = seededTasks;
+        this.mix = mix;
+        this.client = HttpClient.newBuilder()
+                                .version(HttpClient.Version.HTTP_1_1)
+                                .executor(executor)
+                                .connectTimeout(Duration.ofSeconds(10))
+                                .build();
+        for (Operation operation : Operation.values()) {
+            this.endpoints.put(operation, new Endpoint());
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        double rate = 200;
+        Duration duration = Duration.ofSeconds(60);
+        Duration warmup = Duration.ofSeconds(10);
+        int tasks = 10_000;
+        String mix = "get:50,list:20,create:10,patch:15,delete:5";
+        Path reportDir = Path.of("target", "loadtest");
+        List<String> applicationArgs = new ArrayList<>(List.of("--server.port=0"));
+
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            String value = option.length > 1 ? option[1] : "";
+            switch (option[0]) {
+                case "--rate":
+                    rate = Double.parseDouble(value);
+                    break;
+                case "--duration":
+                    duration = DurationStyle.detectAndParse(value);
+                    break;
+                case "--warmup":
+                    warmup = DurationStyle.detectAndParse(value);
+                    break;
+                case "--tasks":
+                    tasks = Integer.parseInt(value);
+                    break;
+                case "--mix":
+                    mix = value;
+                    break;
+                case "--report-dir":
+                    reportDir = Path.of(value);
+                    break;
+                default:
+                    applicationArgs.add(arg);
+            }
+        }
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+            .profiles("h2")
+            .run(applicationArgs.toArray(new String[0]));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            seed(context, tasks);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadGenerator generator = new LoadGenerator("http://localhost:" + port + "/api/v1/tasks", tasks, parseMix(mix), executor);
+
+            System.out.printf("Warming up at %.0f requests/s for %s%n", rate, warmup);
+            generator.drive(rate, warmup);
+            generator.reset();
+
+            System.out.printf("Measuring at %.0f requests/s for %s%n", rate, duration);
+            long start = System.nanoTime();
+            generator.drive(rate, duration);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%nOpen model at %.0f requests/s, %d seeded tasks, mix %s%n", rate, tasks, mix);
+            generator.report(System.out, seconds);
+            generator.writeHistograms(reportDir);
+        } finally {
+            executor.shutdownNow();
+            context.close();
+        }
+    }
+
+    // Seeded rows take ids 1..tasks, the sequence moves past them so created tasks don't collide
+    private static void seed(ConfigurableApplicationContext context, int tasks) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update(SEED, LocalDate.now().plusDays(1), tasks);
+        long restart = ((long) tasks / Task.ID_ALLOCATION_SIZE + 2) * Task.ID_ALLOCATION_SIZE;
+        jdbcTemplate.execute("ALTER SEQUENCE task_sequence RESTART WITH " + restart);
+        context.getBean(TaskStats.class).reconcile();
+    }
+
+    // e.g. get:50,list:20 into 70 slots picked from at random
+    private static Operation[] parseMix(String mix) {
+        List<Operation> slots = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] weight = part.trim().split(":");
+            Operation operation = Operation.valueOf(weight[0].toUpperCase(Locale.ROOT));
+            for (int i = Integer.parseInt(weight[1]); i > 0; i--) {
+                slots.add(operation);
+            }
+        }
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("--mix needs at least one operation with a weight above 0");
+        }
+        return slots.toArray(new Operation[0]);
+    }
+
+    // Sends one request every 1/rate seconds on a fixed schedule, then waits for the stragglers
+    private void drive(double rate, Duration duration) throws InterruptedException {
+        double interval = 1e9 / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * interval);
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            this.send(this.mix[ThreadLocalRandom.current().nextInt(this.mix.length)], intended);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (this.inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void send(Operation scheduled, long intended) {
+        Long deleteId = scheduled == Operation.DELETE ? this.created.poll() : null;
+        // Nothing created yet, deleting a seeded task would leave lookups hitting 404s, so the slot creates one instead
+        Operation operation = scheduled == Operation.DELETE && deleteId == null ? Operation.CREATE : scheduled;
+        Endpoint endpoint = this.endpoints.get(operation);
+        if (this.inFlight.incrementAndGet() > MAX_IN_FLIGHT) {
+            this.inFlight.decrementAndGet();
+            endpoint.errors.increment();
+            return;
+        }
+
+        this.client.sendAsync(this.request(operation, deleteId), HttpResponse.BodyHandlers.ofString()).whenComplete((response, ex) -> {
+            endpoint.record(System.nanoTime() - intended, ex == null && response.statusCode() < 400);
+            if (operation == Operation.CREATE && ex == null && response.statusCode() == 201) {
+                this.created.add(this.createdId(response.body()));
+            }
+            this.inFlight.decrementAndGet();
+        });
+    }
+
+    private HttpRequest request(Operation operation, Long deleteId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long seededId = 1 + random.nextInt(this.seededTasks);
+
+        switch (operation) {
+            case GET:
+                return HttpRequest.newBuilder(URI.create(this.baseUrl + "/" + seededId)).build();
+            case LIST:
+                return HttpRequest.newBuilder(URI.create(
+                    this.baseUrl + "?status=" + STATUSES[random.nextInt(STATUSES.length)] + "&page=" + random.nextInt(50) + "&size=20"
+                )).build();
+            case PATCH:
+                return json(this.baseUrl + "/" + seededId, "PATCH", "{\"status\":\"" + STATUSES[random.nextInt(STATUSES.length)] + "\"}");
+            case DELETE:
+                return HttpRequest.newBuilder(URI.create(this.baseUrl + "/" + deleteId)).DELETE().build();
+            default:
+                return json(this.baseUrl, "POST", String.format(
+                    "{\"title\":\"Load task %d\",\"description\":\"Created by LoadGenerator\",\"dueDate\":\"%s\",\"status\":\"TODO\"}",
+                    random.nextInt(1_000_000),
+                    LocalDate.now().plusDays(1 + random.nextInt(365))
+                ));
+        }
+    }
+
+    private static HttpRequest json(String uri, String method, String body) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                          .header("Content-Type", "application/json")
+                          .method(method, HttpRequest.BodyPublishers.ofString(body))
+                          .build();
+    }
+
+    private long createdId(String body) {
+        try {
+            return this.objectMapper.readTree(body).path("data").path("id").asLong();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unexpected create response " + body, ex);
+        }
+    }
+
+    private void reset() {
+        this.endpoints.values().forEach(Endpoint::reset);
+    }
+
+    private void report(PrintStream out, double seconds) {
+        out.printf("%-26s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                   "Endpoint", "Requests", "Errors", "Rate/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+        long allErrors = 0;
+        for (Operation operation : Operation.values()) {
+            Endpoint endpoint = this.endpoints.get(operation);
+            all.add(endpoint.latency);
+            allErrors += endpoint.errors.sum();
+            row(out, operation.endpoint, endpoint.latency, endpoint.errors.sum(), seconds);
+        }
+        row(out, "All", all, allErrors, seconds);
+    }
+
+    private static void row(PrintStream out, String name, Histogram latency, long errors, double seconds) {
+        out.printf(
+            "%-26s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+            name,
+            latency.getTotalCount(),
+            errors,
+            latency.getTotalCount() / seconds,
+            latency.getValueAtPercentile(50) / 1000.0,
+            latency.getValueAtPercentile(90) / 1000.0,
+            latency.getValueAtPercentile(99) / 1000.0,
+            latency.getValueAtPercentile(99.9) / 1000.0,
+            latency.getMaxValue() / 1000.0
+        );
+    }
+
+    private void writeHistograms(Path reportDir) throws IOException {
+        Files.createDirectories(reportDir);
+        for (Operation operation : Operation.values()) {
+            Path file = reportDir.resolve(operation.name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                this.endpoints.get(operation).latency.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println("Latency distributions in milliseconds written to " + reportDir);
+    }
+
+    // Latency in microseconds of every answered request, failed ones included
+    private static class Endpoint {
+        private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+
+        private void record(long nanos, boolean ok) {
+            this.latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_LATENCY_MICROS));
+            if (!ok) {
+                this.errors.increment();
+            }
+        }
+
+        private void reset() {
+            this.latency.reset();
+            this.errors.reset();
+        }
+    }
+}
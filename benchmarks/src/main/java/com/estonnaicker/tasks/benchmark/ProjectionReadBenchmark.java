@@ -0,0 +1,118 @@
+package com.estonnaicker.tasks.benchmark;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.estonnaicker.tasks.Application;
+import com.estonnaicker.tasks.task.Task;
+import com.estonnaicker.tasks.task.TaskMapper;
+import com.estonnaicker.tasks.task.TaskRepository;
+import com.estonnaicker.tasks.task.dto.TaskDto;
+
+/**
+ * Reads a page of tasks and a task by id straight into TaskDto, the way the service reads them,
+ * and the way it read them before, as managed Task entities converted by TaskMapper. The pages
+ * are unfiltered and ordered by id, so H2 walks the primary key and answers the COUNT from its
+ * row count, which leaves the cost of turning rows into dtos rather than that of the query.
+ * Run it with -prof gc to see the bytes allocated per read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionReadBenchmark {
+    private static final String SEED =
+        "INSERT INTO task (id, archived, title, description, due_date, status, version) "
+        + "SELECT x, false, CONCAT('Task ', x), CONCAT('Description of task ', x), DATEADD('DAY', MOD(x, 365), ?), "
+        + "CASE MOD(x, 3) WHEN 0 THEN 'TODO' WHEN 1 THEN 'IN_PROGRESS' ELSE 'DONE' END, 0 "
+        + "FROM SYSTEM_RANGE(1, ?)";
+
+    @Param({ "10000" })
+    private int rows;
+
+    @Param({ "20", "100" })
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private TaskMapper taskMapper;
+    private Specification<Task> spec;
+    private Pageable pageable;
+    private Long id;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Passed as arguments so they win over the PostgreSQL settings in application.properties.
+        // H2 would otherwise hand back the cached result of a repeated query on an unchanged table
+        this.context = new SpringApplicationBuilder(Application.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=0",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--tasks.stats.reconcile-interval=PT24H",
+                "--logging.level.root=WARN"
+            );
+        this.taskRepository = this.context.getBean(TaskRepository.class);
+        this.taskMapper = this.context.getBean(TaskMapper.class);
+        JdbcTemplate jdbcTemplate = this.context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update(SEED, LocalDate.now(), this.rows);
+        jdbcTemplate.execute("ANALYZE");
+
+        this.spec = Specification.where(null);
+        this.pageable = PageRequest.of(0, this.pageSize, Sort.by("id"));
+        this.id = (long) this.rows / 2;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public Page<TaskDto> pageProjection() {
+        return this.taskRepository.findDtoPage(this.spec, this.pageable);
+    }
+
+    @Benchmark
+    public Page<TaskDto> pageEntityMapper() {
+        return this.taskMapper.toDtoPaged(this.taskRepository.findAll(this.spec, this.pageable));
+    }
+
+    @Benchmark
+    public Optional<TaskDto> byIdProjection() {
+        return this.taskRepository.findDtoById(this.id);
+    }
+
+    @Benchmark
+    public Optional<TaskDto> byIdEntityMapper() {
+        return this.taskRepository.findByIdAndArchivedFalse(this.id).map(this.taskMapper::toDto);
+    }
+}
@@ -0,0 +1,81 @@
+package com.estonnaicker.tasks.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.utils.PagedApiResponse;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Serializes one PagedApiResponse page to a discarding stream. "direct" uses the envelope,
+ * metadata and TaskDto serializers, "reflective" ignores them to get Jackson's bean serializers,
+ * which is how responses were written before. Run with -prof gc for bytes allocated per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int pageSize;
+
+    private ObjectMapper direct;
+    private ObjectMapper reflective;
+    private PagedApiResponse<TaskDto> response;
+
+    @Setup
+    public void setup() {
+        this.direct = mapper();
+        this.reflective = mapper().disable(MapperFeature.USE_ANNOTATIONS);
+
+        List<TaskDto> tasks = new ArrayList<>(this.pageSize);
+        for (long i = 1; i <= this.pageSize; i++) {
+            tasks.add(new TaskDto(i, "Task " + i, "Description of task " + i, LocalDate.of(2026, 1, 1).plusDays(i),
+                                  TaskStatus.values()[(int) (i % 3)].toString(), i % 5));
+        }
+        PageImpl<TaskDto> page = new PageImpl<>(tasks, PageRequest.of(3, this.pageSize), 50_000);
+        this.response = new PagedApiResponse<>(page.getContent(), page);
+    }
+
+    @Benchmark
+    public void direct() throws IOException {
+        this.direct.writeValue(OutputStream.nullOutputStream(), this.response);
+    }
+
+    @Benchmark
+    public void reflective() throws IOException {
+        this.reflective.writeValue(OutputStream.nullOutputStream(), this.response);
+    }
+
+    // Matches the date handling Spring Boot configures for the application's mapper
+    private static ObjectMapper mapper() {
+        return new ObjectMapper().registerModule(new JavaTimeModule())
+                                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
@@ -0,0 +1,79 @@
+package com.estonnaicker.tasks.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.estonnaicker.tasks.task.impl.SimpleTaskService;
+
+/**
+ * SimpleTaskService.validateSort, run before every listing, on the default single id order, a
+ * three property order and a rejected property. validateSort is private and uses none of the
+ * service's collaborators, so it is called through a method handle on a service without any.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortValidationBenchmark {
+    private static final MethodHandle VALIDATE_SORT = validateSort();
+
+    private SimpleTaskService taskService;
+    private Pageable byId;
+    private Pageable byThree;
+    private Pageable invalid;
+
+    @Setup
+    public void setup() {
+        this.taskService = new SimpleTaskService(null, null, null, null, null, null, null, null, null);
+        this.byId = PageRequest.of(0, 10, Sort.by("id"));
+        this.byThree = PageRequest.of(0, 10, Sort.by(Sort.Order.asc("status"), Sort.Order.desc("dueDate"), Sort.Order.asc("title")));
+        this.invalid = PageRequest.of(0, 10, Sort.by("archived"));
+    }
+
+    @Benchmark
+    public void singleOrder() throws Throwable {
+        VALIDATE_SORT.invokeExact(this.taskService, this.byId);
+    }
+
+    @Benchmark
+    public void threeOrders() throws Throwable {
+        VALIDATE_SORT.invokeExact(this.taskService, this.byThree);
+    }
+
+    @Benchmark
+    public void rejected(Blackhole blackhole) throws Throwable {
+        try {
+            VALIDATE_SORT.invokeExact(this.taskService, this.invalid);
+        } catch (IllegalArgumentException ex) {
+            blackhole.consume(ex);
+        }
+    }
+
+    private static MethodHandle validateSort() {
+        try {
+            return MethodHandles.privateLookupIn(SimpleTaskService.class, MethodHandles.lookup())
+                                .findVirtual(SimpleTaskService.class, "validateSort", MethodType.methodType(void.class, Pageable.class));
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.estonnaicker.tasks.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.estonnaicker.tasks.Application;
+import com.estonnaicker.tasks.task.TaskCache;
+
+/**
+ * Servlet stack against the reactive profile under load. Each invocation keeps CONCURRENCY
+ * requests in flight at once over HTTP, a mix of uncached task lookups and filtered listing
+ * pages, and the score is requests per second. Both stacks run on the same embedded H2
+ * database, JDBC with Hikari for the servlet stack and the R2DBC H2 driver with r2dbc-pool for
+ * the reactive one, both pools at their default of 10 connections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StackLoadBenchmark {
+    private static final int CONCURRENCY = 512;
+    private static final int ROWS = 10_000;
+
+    private static final String SEED =
+        "INSERT INTO task (id, archived, title, description, due_date, status, version) "
+        + "SELECT x, false, CONCAT('Task ', x), 'Seeded', DATEADD('DAY', MOD(x, 365), ?), "
+        + "CASE MOD(x, 3) WHEN 0 THEN 'TODO' WHEN 1 THEN 'IN_PROGRESS' ELSE 'DONE' END, 0 "
+        + "FROM SYSTEM_RANGE(1, ?)";
+
+    @Param({ "servlet", "reactive" })
+    private String stack;
+
+    private ConfigurableApplicationContext context;
+    private TaskCache taskCache;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Passed as arguments so they win over the PostgreSQL settings in the properties files
+        this.context = new SpringApplicationBuilder(Application.class)
+            .profiles(this.stack.equals("reactive") ? new String[] { "reactive" } : new String[0])
+            .run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.r2dbc.url=r2dbc:h2:mem:///load?options=DB_CLOSE_DELAY=-1",
+                "--spring.r2dbc.username=sa",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--tasks.stats.reconcile-interval=PT24H",
+                "--logging.level.root=WARN"
+            );
+        this.context.getBean(JdbcTemplate.class).update(SEED, LocalDate.now().plusDays(1), ROWS);
+        this.taskCache = this.context.getBean(TaskCache.class);
+
+        int port = ((WebServerApplicationContext) this.context).getWebServer().getPort();
+        this.baseUrl = "http://localhost:" + port + "/api/v1/tasks";
+        this.clientExecutor = Executors.newFixedThreadPool(4);
+        this.client = HttpClient.newBuilder()
+                                .executor(this.clientExecutor)
+                                .connectTimeout(Duration.ofSeconds(10))
+                                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.context.close();
+        this.clientExecutor.shutdownNow();
+    }
+
+    // Every other request is a lookup that misses the cache, the rest are listing pages with a COUNT
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENCY)
+    public int mixedLoad() {
+        this.taskCache.invalidateAll();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        CompletableFuture<?>[] inFlight = new CompletableFuture<?>[CONCURRENCY];
+
+        for (int i = 0; i < CONCURRENCY; i++) {
+            String uri = i % 2 == 0
+                ? this.baseUrl + "/" + (1 + random.nextInt(ROWS))
+                : this.baseUrl + "?status=TODO&page=" + random.nextInt(100) + "&size=20";
+            inFlight[i] = this.client.sendAsync(HttpRequest.newBuilder(URI.create(uri)).build(), HttpResponse.BodyHandlers.ofByteArray())
+                                     .thenApply(StackLoadBenchmark::checkOk);
+        }
+        CompletableFuture.allOf(inFlight).join();
+        return inFlight.length;
+    }
+
+    private static int checkOk(HttpResponse<byte[]> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Request to " + response.uri() + " failed with " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
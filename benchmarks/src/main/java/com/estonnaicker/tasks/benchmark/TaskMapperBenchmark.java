@@ -0,0 +1,104 @@
+package com.estonnaicker.tasks.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.estonnaicker.tasks.exception.InvalidTaskFieldException;
+import com.estonnaicker.tasks.task.Task;
+import com.estonnaicker.tasks.task.TaskMapper;
+import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.task.dto.TaskUpdateDto;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+
+/**
+ * The MapStruct mappings every read and update goes through. stringToStatus is measured on a
+ * valid status and on an invalid one, which builds an InvalidTaskFieldException with its stack trace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskMapperBenchmark {
+
+    private TaskMapper taskMapper;
+    private Task task;
+    private TaskUpdateDto update;
+
+    // Only toDtoList runs once per list size
+    @State(Scope.Benchmark)
+    public static class Tasks {
+        @Param({ "10", "100" })
+        private int listSize;
+
+        private List<Task> tasks;
+
+        @Setup
+        public void setup() {
+            this.tasks = new ArrayList<>(this.listSize);
+            for (long i = 1; i <= this.listSize; i++) {
+                this.tasks.add(task(i));
+            }
+        }
+    }
+
+    @Setup
+    public void setup() {
+        this.taskMapper = TaskMapper.INSTANCE;
+        this.task = task(1);
+        this.update = new TaskUpdateDto("Updated title", null, LocalDate.of(2026, 6, 1), "in_progress");
+    }
+
+    @Benchmark
+    public TaskDto toDto() {
+        return this.taskMapper.toDto(this.task);
+    }
+
+    @Benchmark
+    public List<TaskDto> toDtoList(Tasks tasks) {
+        return this.taskMapper.toDtoList(tasks.tasks);
+    }
+
+    // Maps onto a fresh entity so every invocation applies the same changes
+    @Benchmark
+    public Task updateTaskFromDto() {
+        Task target = new Task(1L, false, "Task 1", "Description of task 1", LocalDate.of(2026, 1, 2), TaskStatus.TODO, 0L);
+        this.taskMapper.updateTaskFromDto(this.update, target);
+        return target;
+    }
+
+    @Benchmark
+    public TaskStatus stringToStatus() {
+        return this.taskMapper.stringToStatus("in_progress");
+    }
+
+    @Benchmark
+    public void stringToStatusInvalid(Blackhole blackhole) {
+        try {
+            blackhole.consume(this.taskMapper.stringToStatus("someday"));
+        } catch (InvalidTaskFieldException ex) {
+            blackhole.consume(ex);
+        }
+    }
+
+    private static Task task(long id) {
+        return new Task(id, false, "Task " + id, "Description of task " + id, LocalDate.of(2026, 1, 1).plusDays(id),
+                        TaskStatus.values()[(int) (id % 3)], id % 5);
+    }
+}
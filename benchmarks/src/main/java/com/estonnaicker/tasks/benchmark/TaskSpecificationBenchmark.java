@@ -0,0 +1,116 @@
+package com.estonnaicker.tasks.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.estonnaicker.tasks.Application;
+import com.estonnaicker.tasks.task.Task;
+import com.estonnaicker.tasks.task.TaskFilter;
+import com.estonnaicker.tasks.task.TaskSpecification;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+
+/**
+ * Composes the Specification SimpleTaskService builds for a listing filter, and turns it into
+ * criteria predicates the way every listing query does. "status" filters on one column, "range"
+ * adds a due date range and overdue, "search" adds the ranked full text predicate.
+ * Hibernate's CriteriaBuilder comes from the application started on H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSpecificationBenchmark {
+
+    @Param({ "status", "range", "search" })
+    private String filter;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private CriteriaBuilder criteriaBuilder;
+    private TaskFilter taskFilter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Passed as arguments so they win over the PostgreSQL settings in application.properties
+        this.context = new SpringApplicationBuilder(Application.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=jdbc:h2:mem:specification;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--tasks.stats.reconcile-interval=PT24H",
+                "--logging.level.root=WARN"
+            );
+        this.entityManager = this.context.getBean(EntityManagerFactory.class).createEntityManager();
+        this.criteriaBuilder = this.entityManager.getCriteriaBuilder();
+
+        LocalDate today = LocalDate.of(2026, 1, 1);
+        switch (this.filter) {
+            case "range":
+                this.taskFilter = new TaskFilter(TaskStatus.TODO, null, today, today.plusDays(13), true, null);
+                break;
+            case "search":
+                this.taskFilter = new TaskFilter(TaskStatus.TODO, null, null, null, false, "quarterly report");
+                break;
+            default:
+                this.taskFilter = new TaskFilter(TaskStatus.TODO, null, null, null, false, null);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.entityManager.close();
+        this.context.close();
+    }
+
+    @Benchmark
+    public Specification<Task> compose() {
+        return filterSpec(this.taskFilter);
+    }
+
+    @Benchmark
+    public Predicate toPredicate() {
+        CriteriaQuery<Task> query = this.criteriaBuilder.createQuery(Task.class);
+        Root<Task> root = query.from(Task.class);
+        return filterSpec(this.taskFilter).toPredicate(root, query, this.criteriaBuilder);
+    }
+
+    // Same composition as SimpleTaskService.filterSpec
+    private static Specification<Task> filterSpec(TaskFilter filter) {
+        return Specification.where(TaskSpecification.isNotArchived())
+                            .and(TaskSpecification.hasStatus(filter.getStatus()))
+                            .and(TaskSpecification.hasDueDate(filter.getDueDate()))
+                            .and(TaskSpecification.isDueOnOrAfter(filter.getDueFrom()))
+                            .and(TaskSpecification.isDueOnOrBefore(filter.getDueTo()))
+                            .and(TaskSpecification.isOverdue(filter.isOverdue() ? filter.getDueFrom() : null))
+                            .and(TaskSpecification.matches(filter.getQ()));
+    }
+}
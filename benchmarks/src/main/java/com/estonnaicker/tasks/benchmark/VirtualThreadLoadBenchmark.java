@@ -0,0 +1,133 @@
+package com.estonnaicker.tasks.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.estonnaicker.tasks.Application;
+
+/**
+ * Tomcat's fixed pool of 200 platform threads against tasks.threads.virtual under CLIENTS
+ * concurrent clients, each sending its next request as soon as the last one is answered.
+ * Requests are task lookups with the cache turned off, so every one of them blocks on a JDBC
+ * SELECT against the embedded H2 database. JMH reports the latency distribution, p99 included.
+ *
+ * Throughput is printed after each iteration from the number of requests answered. JMH's own
+ * throughput mode sums per thread rates, which isn't reliable with this many threads on few cores.
+ *
+ * Needs Java 21 to run the virtual mode, the jar is still built for 11:
+ * java -jar target/benchmarks.jar VirtualThreadLoadBenchmark with a JDK 21 java.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(VirtualThreadLoadBenchmark.CLIENTS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2g", "-Djdk.httpclient.connectionPoolSize=" + VirtualThreadLoadBenchmark.CLIENTS })
+public class VirtualThreadLoadBenchmark {
+    static final int CLIENTS = 1024;
+    private static final int ROWS = 10_000;
+
+    private static final String SEED =
+        "INSERT INTO task (id, archived, title, description, due_date, status, version) "
+        + "SELECT x, false, CONCAT('Task ', x), 'Seeded', DATEADD('DAY', MOD(x, 365), ?), "
+        + "CASE MOD(x, 3) WHEN 0 THEN 'TODO' WHEN 1 THEN 'IN_PROGRESS' ELSE 'DONE' END, 0 "
+        + "FROM SYSTEM_RANGE(1, ?)";
+
+    @Param({ "platform", "virtual" })
+    private String threads;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private String baseUrl;
+    private final AtomicLong answered = new AtomicLong();
+    private long iterationStart;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Passed as arguments so they win over the PostgreSQL settings in the properties files
+        this.context = new SpringApplicationBuilder(Application.class).run(
+            "--server.port=0",
+            "--server.tomcat.threads.max=200",
+            "--tasks.threads.virtual=" + this.threads.equals("virtual"),
+            "--spring.datasource.url=jdbc:h2:mem:threads;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.driverClassName=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--spring.jpa.show-sql=false",
+            "--tasks.cache.max-size=0",
+            "--tasks.stats.reconcile-interval=PT24H",
+            "--logging.level.root=WARN",
+            "--logging.level.com.estonnaicker.tasks.config=WARN"
+        );
+        this.context.getBean(JdbcTemplate.class).update(SEED, LocalDate.now().plusDays(1), ROWS);
+
+        int port = ((WebServerApplicationContext) this.context).getWebServer().getPort();
+        this.baseUrl = "http://localhost:" + port + "/api/v1/tasks";
+        this.clientExecutor = Executors.newFixedThreadPool(4);
+        this.client = HttpClient.newBuilder()
+                                .executor(this.clientExecutor)
+                                .connectTimeout(Duration.ofSeconds(30))
+                                .build();
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        this.answered.set(0);
+        this.iterationStart = System.nanoTime();
+    }
+
+    @TearDown(Level.Iteration)
+    public void endIteration() {
+        double seconds = (System.nanoTime() - this.iterationStart) / 1e9;
+        System.out.printf("%n%d requests in %.1f s, %.1f requests/s%n", this.answered.get(), seconds, this.answered.get() / seconds);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.context.close();
+        this.clientExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int getTask() throws Exception {
+        URI uri = URI.create(this.baseUrl + "/" + (1 + ThreadLocalRandom.current().nextInt(ROWS)));
+        HttpResponse<byte[]> response = this.client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Request to " + uri + " failed with " + response.statusCode());
+        }
+        this.answered.incrementAndGet();
+        return response.body().length;
+    }
+}
@@ -0,0 +1,153 @@
+package com.estonnaicker.tasks.admin;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.estonnaicker.tasks.task.TaskBulkheads;
+import com.estonnaicker.tasks.task.TaskCache;
+import com.estonnaicker.tasks.task.dto.TaskCacheStatsDto;
+import com.estonnaicker.tasks.utils.ApiResponse;
+import com.estonnaicker.tasks.utils.AsyncLog;
+import com.estonnaicker.tasks.utils.AsyncLogStatsDto;
+import com.estonnaicker.tasks.utils.BulkheadStatsDto;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+
+@RestController
+@RequestMapping(path = "/api/v1/admin")
+@Api(tags = {"Admin"})
+public class AdminController {
+
+    private final TaskCache taskCache;
+    private final TaskBulkheads taskBulkheads;
+    private final List<AsyncLog> asyncLogs;
+    private final FlightRecorder flightRecorder;
+
+    public AdminController(
+        TaskCache taskCache,
+        TaskBulkheads taskBulkheads,
+        List<AsyncLog> asyncLogs,
+        FlightRecorder flightRecorder
+    ) {
+        this.taskCache = taskCache;
+        this.taskBulkheads = taskBulkheads;
+        this.asyncLogs = asyncLogs;
+        this.flightRecorder = flightRecorder;
+    }
+
+    @GetMapping("cache/tasks")
+    @ApiOperation(
+        value = "Task cache statistics",
+        notes = "Hit, miss and eviction counts for the task by id cache",
+        response = TaskCacheStatsDto.class
+    )
+    public ApiResponse<TaskCacheStatsDto> getTaskCacheStats() {
+        return new ApiResponse<TaskCacheStatsDto>(this.taskCache.stats());
+    }
+
+    @GetMapping("bulkheads")
+    @ApiOperation(
+        value = "Bulkhead statistics",
+        notes = "Queue depth, active threads, rejections and timeouts of each bulkhead behind /api/v1/async/tasks",
+        response = BulkheadStatsDto.class,
+        responseContainer = "List"
+    )
+    public ApiResponse<List<BulkheadStatsDto>> getBulkheadStats() {
+        return new ApiResponse<List<BulkheadStatsDto>>(this.taskBulkheads.stats());
+    }
+
+    @GetMapping("logs")
+    @ApiOperation(
+        value = "Async log statistics",
+        notes = "Buffer depth, written and dropped entries of the sampled SQL and access logs",
+        response = AsyncLogStatsDto.class,
+        responseContainer = "List"
+    )
+    public ApiResponse<List<AsyncLogStatsDto>> getAsyncLogStats() {
+        return new ApiResponse<List<AsyncLogStatsDto>>(
+            this.asyncLogs.stream().map(AsyncLog::stats).collect(Collectors.toList())
+        );
+    }
+
+    @PostMapping("jfr")
+    @ApiOperation(
+        value = "Start a flight recording",
+        notes = "Starts a Java Flight Recorder recording with the JDK's default or profile settings. "
+            + "It stops by itself after the duration, fetch it with POST /api/v1/admin/jfr/{id}/stop",
+        response = FlightRecordingDto.class
+    )
+    public ResponseEntity<ApiResponse<FlightRecordingDto>> startRecording(
+        @ApiParam(
+            value = "JFR settings, default has about 1% overhead, profile records more detail at a higher cost",
+            required = false,
+            allowableValues = "default, profile"
+        )
+        @RequestParam(defaultValue = "default") String profile,
+        @ApiParam(
+            value = "How long to record for, e.g. 30s or 5m, capped by tasks.jfr.max-duration",
+            required = false
+        )
+        @RequestParam(defaultValue = "60s") String duration
+    ) throws IOException {
+        FlightRecordingDto recording = this.flightRecorder.start(
+            profile,
+            DurationStyle.detectAndParse(duration, ChronoUnit.SECONDS)
+        );
+
+        return new ResponseEntity<ApiResponse<FlightRecordingDto>>(
+            new ApiResponse<FlightRecordingDto>(recording),
+            HttpStatus.CREATED
+        );
+    }
+
+    @GetMapping("jfr")
+    @ApiOperation(
+        value = "Flight recordings",
+        notes = "Recordings that are running or finished and not fetched yet",
+        response = FlightRecordingDto.class,
+        responseContainer = "List"
+    )
+    public ApiResponse<List<FlightRecordingDto>> getRecordings() {
+        return new ApiResponse<List<FlightRecordingDto>>(this.flightRecorder.list());
+    }
+
+    @PostMapping("jfr/{id}/stop")
+    @ApiOperation(
+        value = "Stop and download a flight recording",
+        notes = "Stops the recording if it's still running and returns it as a .jfr file for JDK Mission Control or the jfr tool"
+    )
+    public ResponseEntity<StreamingResponseBody> stopRecording(@PathVariable long id) throws IOException {
+        Path file = this.flightRecorder.stop(id);
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+
+        return ResponseEntity.ok()
+                             .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                             .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=recording-" + id + ".jfr")
+                             .body(body);
+    }
+}
@@ -0,0 +1,113 @@
+package com.estonnaicker.tasks.admin;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.estonnaicker.tasks.exception.ResourceNotFoundException;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Starts Flight Recorder recordings on demand, with one of the JDK's settings profiles, and hands
+ * them back as .jfr files. One recording runs at a time, a recording left to reach its duration
+ * is kept until it's fetched, up to a few of them.
+ */
+@Component
+public class FlightRecorder implements DisposableBean {
+    private static final int KEPT_RECORDINGS = 5;
+
+    private final Duration maxDuration;
+    private final Map<Long, Recording> recordings = new ConcurrentSkipListMap<>();
+
+    public FlightRecorder(@Value("${tasks.jfr.max-duration:10m}") Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    public synchronized FlightRecordingDto start(String profile, Duration duration) throws IOException {
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(this.maxDuration) > 0) {
+            throw new IllegalArgumentException("duration must be between 1s and " + this.maxDuration.getSeconds() + "s");
+        }
+        if (this.recordings.values().stream().anyMatch(recording -> recording.getState() == RecordingState.RUNNING)) {
+            throw new IllegalArgumentException("A recording is already running");
+        }
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(profile);
+        } catch (IOException | ParseException ex) {
+            throw new IllegalArgumentException("Unknown profile " + profile + ", expected one of "
+                + Configuration.getConfigurations().stream().map(Configuration::getName).collect(Collectors.toList()));
+        }
+
+        this.closeOldest();
+        Recording recording = new Recording(configuration);
+        recording.setName("tasks-" + profile);
+        recording.setDuration(duration);
+        recording.setToDisk(true);
+        recording.start();
+        this.recordings.put(recording.getId(), recording);
+        return this.toDto(recording);
+    }
+
+    /**
+     * Stops the recording if it's still running and dumps it to a temporary file, which the
+     * caller deletes once it's been sent.
+     */
+    public synchronized Path stop(long id) throws IOException {
+        Recording recording = this.recordings.remove(id);
+        if (recording == null) {
+            throw new ResourceNotFoundException("Recording", "id", id);
+        }
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            Path file = Files.createTempFile("recording-" + id + "-", ".jfr");
+            recording.dump(file);
+            return file;
+        } finally {
+            recording.close();
+        }
+    }
+
+    public List<FlightRecordingDto> list() {
+        return this.recordings.values().stream().map(this::toDto).collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized void destroy() {
+        this.recordings.values().forEach(Recording::close);
+        this.recordings.clear();
+    }
+
+    // Finished recordings nobody fetched hold on to their disk space until closed
+    private void closeOldest() {
+        while (this.recordings.size() >= KEPT_RECORDINGS) {
+            Long oldest = this.recordings.keySet().iterator().next();
+            this.recordings.remove(oldest).close();
+        }
+    }
+
+    private FlightRecordingDto toDto(Recording recording) {
+        return new FlightRecordingDto(
+            recording.getId(),
+            recording.getName(),
+            recording.getState().name(),
+            recording.getStartTime() == null ? null : recording.getStartTime().toString(),
+            recording.getDuration() == null ? 0 : recording.getDuration().getSeconds()
+        );
+    }
+}
@@ -0,0 +1,26 @@
+package com.estonnaicker.tasks.admin;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+public class FlightRecordingDto {
+    @ApiModelProperty(value = "Id to stop and download the recording with", example = "1")
+    private long id;
+
+    @ApiModelProperty(value = "Name of the recording, after its profile", example = "tasks-profile")
+    private String name;
+
+    @ApiModelProperty(value = "RUNNING until stopped or its duration is up, then STOPPED", example = "RUNNING")
+    private String state;
+
+    @ApiModelProperty(value = "When the recording started", example = "2020-10-20T10:15:30Z")
+    private String startTime;
+
+    @ApiModelProperty(value = "How long the recording runs for, in seconds", example = "60")
+    private long durationSeconds;
+}
@@ -0,0 +1,96 @@
+package com.estonnaicker.tasks.config;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.estonnaicker.tasks.utils.AsyncLog;
+import com.estonnaicker.tasks.utils.SqlStatements;
+
+/**
+ * Logs a sample of the requests, and every one that took at least the slow threshold or failed
+ * with a 5xx, to the tasks.access logger through an AsyncLog. Runs outside SqlStatementsFilter,
+ * so the line carries the request's statement count too.
+ */
+public class AccessLogFilter extends OncePerRequestFilter implements Ordered {
+
+    private final AsyncLog accessLog;
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public AccessLogFilter(AsyncLog accessLog, double sampleRate, long slowThresholdNanos) {
+        this.accessLog = accessLog;
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThresholdNanos;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 20;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long duration = System.nanoTime() - start;
+            boolean slow = duration >= this.slowThresholdNanos;
+            int status = response.getStatus();
+            if ((slow || status >= 500 || (this.sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < this.sampleRate))
+                && this.accessLog.isEnabled()) {
+                this.accessLog.log(new Entry(
+                    System.currentTimeMillis(),
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    status,
+                    TimeUnit.NANOSECONDS.toMicros(duration),
+                    slow,
+                    SqlStatements.current().getStatements()
+                ));
+            }
+        }
+    }
+
+    private static class Entry implements AsyncLog.Entry {
+        private final long completedAt;
+        private final String method;
+        private final String uri;
+        private final int status;
+        private final long durationMicros;
+        private final boolean slow;
+        private final int statements;
+
+        private Entry(long completedAt, String method, String uri, int status, long durationMicros, boolean slow, int statements) {
+            this.completedAt = completedAt;
+            this.method = method;
+            this.uri = uri;
+            this.status = status;
+            this.durationMicros = durationMicros;
+            this.slow = slow;
+            this.statements = statements;
+        }
+
+        @Override
+        public void appendTo(StringBuilder line) {
+            line.append("completedAt=").append(Instant.ofEpochMilli(this.completedAt))
+                .append(" method=").append(this.method)
+                .append(" uri=").append(this.uri)
+                .append(" status=").append(this.status)
+                .append(" durationMicros=").append(this.durationMicros)
+                .append(" slow=").append(this.slow)
+                .append(" statements=").append(this.statements);
+        }
+    }
+}
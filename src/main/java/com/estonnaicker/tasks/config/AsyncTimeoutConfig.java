@@ -0,0 +1,73 @@
+package com.estonnaicker.tasks.config;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Gives streamed exports and the async bulk jobs their own async timeout. They run as async
+ * requests, and the default timeout of those, 30 seconds in Tomcat, would end a large export part
+ * way through its body, or answer a bulk job with 503 while its chunks keep committing. The
+ * timeout is replaced just before the request goes async, other async requests keep the default.
+ */
+@Configuration
+public class AsyncTimeoutConfig implements WebMvcConfigurer {
+    private static final String EXPORT_PATH = "/tasks/export";
+    private static final String BULK_PATH = "/async/tasks/bulk/";
+
+    private final long exportTimeoutMillis;
+    private final long bulkTimeoutMillis;
+
+    public AsyncTimeoutConfig(
+        @Value("${tasks.export.timeout:1h}") Duration exportTimeout,
+        @Value("${tasks.bulk.timeout:1h}") Duration bulkTimeout
+    ) {
+        this.exportTimeoutMillis = exportTimeout.toMillis();
+        this.bulkTimeoutMillis = bulkTimeout.toMillis();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        LongRequestTimeout timeout = new LongRequestTimeout();
+        // StreamingResponseBody runs as a Callable, the async controller's CompletableFuture as a DeferredResult
+        configurer.registerCallableInterceptors(timeout);
+        configurer.registerDeferredResultInterceptors(timeout);
+    }
+
+    private class LongRequestTimeout implements CallableProcessingInterceptor, DeferredResultProcessingInterceptor {
+
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            this.apply(request);
+        }
+
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, DeferredResult<T> deferredResult) {
+            this.apply(request);
+        }
+
+        private void apply(NativeWebRequest request) {
+            HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+            if (!(request instanceof AsyncWebRequest) || servletRequest == null) {
+                return;
+            }
+            String uri = servletRequest.getRequestURI();
+            if (uri.endsWith(EXPORT_PATH)) {
+                ((AsyncWebRequest) request).setTimeout(AsyncTimeoutConfig.this.exportTimeoutMillis);
+            } else if (uri.contains(BULK_PATH)) {
+                ((AsyncWebRequest) request).setTimeout(AsyncTimeoutConfig.this.bulkTimeoutMillis);
+            }
+        }
+    }
+}
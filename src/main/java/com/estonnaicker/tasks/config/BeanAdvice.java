@@ -0,0 +1,27 @@
+package com.estonnaicker.tasks.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+
+/**
+ * Puts an interceptor in front of a bean's methods. Beans that are already proxies, for
+ * transactions or Spring Data repositories, get it added before their existing advice, so it
+ * sees the commit. Others are wrapped in a class based proxy.
+ */
+final class BeanAdvice {
+
+    private BeanAdvice() {
+    }
+
+    static Object addFirst(Object bean, MethodInterceptor interceptor) {
+        if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            ((Advised) bean).addAdvice(0, interceptor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+}
@@ -0,0 +1,103 @@
+package com.estonnaicker.tasks.config;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.estonnaicker.tasks.utils.SqlStatements;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wraps the DataSource in a datasource-proxy that counts each statement, the rows it wrote, the
+ * rows it read when tasks.sql.count-rows-read is on, and its time into SqlStatements of the
+ * calling thread. QueryExecutionListener beans, such
+ * as SqlLogListener, are called after each statement as well.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(
+        ObjectProvider<QueryExecutionListener> listeners,
+        Environment environment
+    ) {
+        // Proxying result sets puts every getter of every row through a listener, so rows read are only counted on request
+        boolean countRowsRead = environment.getProperty("tasks.sql.count-rows-read", Boolean.class, false);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                CountingListener counter = new CountingListener();
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(beanName, (DataSource) bean).listener(counter);
+                if (countRowsRead) {
+                    builder.proxyResultSet().methodListener(counter);
+                }
+                listeners.orderedStream().forEach(builder::listener);
+                return builder.build();
+            }
+        };
+    }
+
+    private static class CountingListener implements QueryExecutionListener, MethodExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            SqlStatements.current().beforeStatement();
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            SqlStatements statements = SqlStatements.current();
+            if (statements.isActive()) {
+                statements.afterStatement(queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery(), rowsWritten(execInfo.getResult()));
+            }
+        }
+
+        @Override
+        public void beforeMethod(MethodExecutionContext executionContext) {
+        }
+
+        // Rows read are counted as the result set moves forward, selects themselves count none
+        @Override
+        public void afterMethod(MethodExecutionContext executionContext) {
+            if (executionContext.getTarget() instanceof ResultSet
+                && Boolean.TRUE.equals(executionContext.getResult())
+                && "next".equals(executionContext.getMethod().getName())) {
+                SqlStatements.current().rowRead();
+            }
+        }
+
+        private static long rowsWritten(Object result) {
+            if (result instanceof Integer || result instanceof Long) {
+                return Math.max(((Number) result).longValue(), 0);
+            }
+            long rows = 0;
+            if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    rows += Math.max(count, 0);
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    rows += Math.max(count, 0);
+                }
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.estonnaicker.tasks.config;
+
+import java.sql.DatabaseMetaData;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+// Tells PostgreSQL-only fast paths apart from the H2 fallbacks used in tests
+@Component
+public class DatabasePlatform {
+
+    private final DataSource dataSource;
+    private volatile String productName;
+
+    public DatabasePlatform(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public boolean isPostgres() {
+        return "PostgreSQL".equalsIgnoreCase(this.getProductName());
+    }
+
+    public String getProductName() {
+        if (this.productName == null) {
+            try {
+                this.productName = JdbcUtils.extractDatabaseMetaData(this.dataSource, DatabaseMetaData::getDatabaseProductName);
+            } catch (MetaDataAccessException ex) {
+                throw new IllegalStateException("Could not read the database product name", ex);
+            }
+        }
+        return this.productName;
+    }
+}
@@ -0,0 +1,49 @@
+package com.estonnaicker.tasks.config;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * The exporter used when no SpanExporter bean is defined. Logs one key=value line per span to the
+ * tasks.trace logger, from the span processor's thread.
+ */
+public class LogSpanExporter implements SpanExporter {
+    private static final Logger log = LoggerFactory.getLogger("tasks.trace");
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        if (!log.isInfoEnabled()) {
+            return CompletableResultCode.ofSuccess();
+        }
+        StringBuilder line = new StringBuilder(256);
+        for (SpanData span : spans) {
+            line.setLength(0);
+            line.append("trace=").append(span.getTraceId())
+                .append(" span=").append(span.getSpanId())
+                .append(" parent=").append(span.getParentSpanId())
+                .append(" name=\"").append(span.getName()).append('"')
+                .append(" durationMicros=").append(TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()))
+                .append(" status=").append(span.getStatus().getStatusCode());
+            span.getAttributes().forEach((key, value) -> line.append(' ').append(key.getKey()).append("=\"").append(value).append('"'));
+            log.info(line.toString());
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
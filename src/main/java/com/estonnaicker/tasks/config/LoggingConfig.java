@@ -0,0 +1,51 @@
+package com.estonnaicker.tasks.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.estonnaicker.tasks.utils.AsyncLog;
+
+/**
+ * Sampled statement and request logs, written off the request thread. Replaces Hibernate's
+ * show-sql, which printed every statement to stdout on the thread that ran it.
+ */
+@Configuration
+public class LoggingConfig {
+
+    @Bean(destroyMethod = "close")
+    public AsyncLog sqlLog(
+        @Value("${tasks.log.buffer-size:8192}") int bufferSize,
+        @Value("${tasks.log.drop-policy:NEWEST}") AsyncLog.DropPolicy dropPolicy
+    ) {
+        return new AsyncLog("sql", bufferSize, dropPolicy);
+    }
+
+    @Bean(destroyMethod = "close")
+    public AsyncLog accessLog(
+        @Value("${tasks.log.buffer-size:8192}") int bufferSize,
+        @Value("${tasks.log.drop-policy:NEWEST}") AsyncLog.DropPolicy dropPolicy
+    ) {
+        return new AsyncLog("access", bufferSize, dropPolicy);
+    }
+
+    @Bean
+    public SqlLogListener sqlLogListener(
+        AsyncLog sqlLog,
+        @Value("${tasks.log.sql.sample-rate:0.01}") double sampleRate,
+        @Value("${tasks.log.sql.slow-threshold:200ms}") Duration slowThreshold
+    ) {
+        return new SqlLogListener(sqlLog, sampleRate, slowThreshold.toMillis());
+    }
+
+    @Bean
+    public AccessLogFilter accessLogFilter(
+        AsyncLog accessLog,
+        @Value("${tasks.log.access.sample-rate:0.01}") double sampleRate,
+        @Value("${tasks.log.access.slow-threshold:1s}") Duration slowThreshold
+    ) {
+        return new AccessLogFilter(accessLog, sampleRate, slowThreshold.toNanos());
+    }
+}
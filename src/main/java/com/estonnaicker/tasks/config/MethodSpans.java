@@ -0,0 +1,90 @@
+package com.estonnaicker.tasks.config;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.ClassUtils;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+
+/**
+ * Traces every public method of the beans of the given types as a child span of the current
+ * one, named after the type and method, e.g. TaskService.getTaskById. Calls are only traced
+ * inside a sampled trace, started by TracingFilter, anything else costs a thread local read.
+ */
+public class MethodSpans implements BeanPostProcessor, SmartInitializingSingleton {
+    private final ObjectProvider<Tracer> tracerProvider;
+    private final Map<Class<?>, String> tracedTypes;
+    private volatile Tracer tracer;
+
+    // The tracer is looked up late so that post processing doesn't create the exporter early
+    public MethodSpans(ObjectProvider<Tracer> tracerProvider, Map<Class<?>, String> tracedTypes) {
+        this.tracerProvider = tracerProvider;
+        this.tracedTypes = tracedTypes;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        for (Map.Entry<Class<?>, String> tracedType : this.tracedTypes.entrySet()) {
+            if (tracedType.getKey().isInstance(bean)) {
+                return BeanAdvice.addFirst(
+                    bean,
+                    new TracingInterceptor(tracedType.getValue(), tracedType.getKey(), AopUtils.getTargetClass(bean))
+                );
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        this.tracer = this.tracerProvider.getIfAvailable();
+    }
+
+    private class TracingInterceptor implements MethodInterceptor {
+        private final Map<Method, String> spanNames = new HashMap<>();
+
+        // Keyed by both the declared and the implementing method, class based proxies invoke the latter
+        private TracingInterceptor(String name, Class<?> type, Class<?> targetClass) {
+            for (Method method : type.getMethods()) {
+                if (method.getDeclaringClass() == Object.class || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                String spanName = name + "." + method.getName();
+                this.spanNames.put(method, spanName);
+                this.spanNames.put(ClassUtils.getMostSpecificMethod(method, targetClass), spanName);
+            }
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Tracer tracer = MethodSpans.this.tracer;
+            String spanName = this.spanNames.get(invocation.getMethod());
+            if (tracer == null || spanName == null || !Span.current().getSpanContext().isSampled()) {
+                return invocation.proceed();
+            }
+
+            Span span = tracer.spanBuilder(spanName).startSpan();
+            try (Scope scope = span.makeCurrent()) {
+                return invocation.proceed();
+            } catch (Throwable ex) {
+                span.recordException(ex);
+                span.setStatus(StatusCode.ERROR);
+                throw ex;
+            } finally {
+                span.end();
+            }
+        }
+    }
+}
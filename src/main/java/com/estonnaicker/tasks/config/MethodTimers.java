@@ -0,0 +1,118 @@
+package com.estonnaicker.tasks.config;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.ClassUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every public method of the beans of the given types, one timer per method and outcome
+ * named after the type, e.g. tasks.service{method="getTaskById",outcome="success"}. The timing
+ * advice goes in front of any existing advice, see BeanAdvice, so the time includes the commit.
+ *
+ * The timers are registered once the registry is ready, so recording a call is a map lookup by
+ * Method and doesn't build tags or ids. Calls made before then, during startup, aren't timed.
+ */
+public class MethodTimers implements BeanPostProcessor, SmartInitializingSingleton {
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<Class<?>, String> timedTypes;
+    private final List<TimingInterceptor> interceptors = new ArrayList<>();
+    private MeterRegistry registry;
+
+    // The registry is looked up late so that it is still configured by Boot's own post processors
+    public MethodTimers(ObjectProvider<MeterRegistry> meterRegistry, Map<Class<?>, String> timedTypes) {
+        this.meterRegistry = meterRegistry;
+        this.timedTypes = timedTypes;
+    }
+
+    @Override
+    public synchronized Object postProcessAfterInitialization(Object bean, String beanName) {
+        for (Map.Entry<Class<?>, String> timedType : this.timedTypes.entrySet()) {
+            if (!timedType.getKey().isInstance(bean)) {
+                continue;
+            }
+            TimingInterceptor interceptor = new TimingInterceptor(timedType.getValue(), timedType.getKey(), AopUtils.getTargetClass(bean));
+            this.interceptors.add(interceptor);
+            // Spring Data repositories bootstrap deferred, after the other singletons
+            if (this.registry != null) {
+                interceptor.bind(this.registry);
+            }
+            return BeanAdvice.addFirst(bean, interceptor);
+        }
+        return bean;
+    }
+
+    @Override
+    public synchronized void afterSingletonsInstantiated() {
+        this.registry = this.meterRegistry.getIfAvailable();
+        if (this.registry != null) {
+            this.interceptors.forEach(interceptor -> interceptor.bind(this.registry));
+        }
+    }
+
+    private static class TimingInterceptor implements MethodInterceptor {
+        private static final int SUCCESS = 0;
+        private static final int ERROR = 1;
+
+        private final String name;
+        private final Class<?> type;
+        private final Class<?> targetClass;
+        private volatile Map<Method, Timer[]> timers = Collections.emptyMap();
+
+        private TimingInterceptor(String name, Class<?> type, Class<?> targetClass) {
+            this.name = name;
+            this.type = type;
+            this.targetClass = targetClass;
+        }
+
+        // Keyed by both the declared and the implementing method, class based proxies invoke the latter
+        private void bind(MeterRegistry registry) {
+            Map<Method, Timer[]> timers = new HashMap<>();
+            for (Method method : this.type.getMethods()) {
+                if (method.getDeclaringClass() == Object.class || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                Timer[] outcomes = {
+                    Timer.builder(this.name).tag("method", method.getName()).tag("outcome", "success").register(registry),
+                    Timer.builder(this.name).tag("method", method.getName()).tag("outcome", "error").register(registry)
+                };
+                timers.put(method, outcomes);
+                timers.put(ClassUtils.getMostSpecificMethod(method, this.targetClass), outcomes);
+            }
+            this.timers = timers;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Timer[] outcomes = this.timers.get(invocation.getMethod());
+            if (outcomes == null) {
+                return invocation.proceed();
+            }
+
+            long start = System.nanoTime();
+            try {
+                Object result = invocation.proceed();
+                outcomes[SUCCESS].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return result;
+            } catch (Throwable ex) {
+                outcomes[ERROR].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw ex;
+            }
+        }
+    }
+}
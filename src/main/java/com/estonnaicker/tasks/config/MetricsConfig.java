@@ -0,0 +1,31 @@
+package com.estonnaicker.tasks.config;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.estonnaicker.tasks.task.TaskController;
+import com.estonnaicker.tasks.task.TaskRepository;
+import com.estonnaicker.tasks.task.TaskService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per method timers of the task endpoints, service and queries. Hibernate statistics and the
+ * Hikari pool gauges come from Boot's actuator, everything is scraped from /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // Static so the post processor doesn't pull this configuration in early
+    @Bean
+    public static MethodTimers taskMethodTimers(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new MethodTimers(meterRegistry, Map.of(
+            TaskController.class, "tasks.controller",
+            TaskService.class, "tasks.service",
+            TaskRepository.class, "tasks.repository"
+        ));
+    }
+}
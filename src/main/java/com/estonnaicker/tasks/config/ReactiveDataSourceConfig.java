@@ -0,0 +1,33 @@
+package com.estonnaicker.tasks.config;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Boot backs off its DataSource once an R2DBC ConnectionFactory exists, but JPA still creates
+ * the schema and serves the bulk jobs, stats and imports under the reactive profile. This
+ * declares the same pool from the spring.datasource properties.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveDataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.estonnaicker.tasks.config;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.estonnaicker.tasks.utils.AsyncLog;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Logs a sample of the statements run through the DataSource, and every one that took at least
+ * the slow threshold, to the tasks.sql logger through an AsyncLog. A statement that is neither
+ * sampled nor slow costs a random number and allocates nothing. Bind parameters aren't logged.
+ */
+public class SqlLogListener implements QueryExecutionListener {
+
+    private final AsyncLog sqlLog;
+    private final double sampleRate;
+    private final long slowThresholdMillis;
+
+    public SqlLogListener(AsyncLog sqlLog, double sampleRate, long slowThresholdMillis) {
+        this.sqlLog = sqlLog;
+        this.sampleRate = sampleRate;
+        this.slowThresholdMillis = slowThresholdMillis;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        boolean slow = execInfo.getElapsedTime() >= this.slowThresholdMillis;
+        if (!slow && (this.sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= this.sampleRate)) {
+            return;
+        }
+        if (!this.sqlLog.isEnabled()) {
+            return;
+        }
+        this.sqlLog.log(new Entry(
+            System.currentTimeMillis(),
+            Thread.currentThread().getName(),
+            execInfo.getElapsedTime(),
+            slow,
+            execInfo.isSuccess(),
+            execInfo.isBatch() ? execInfo.getBatchSize() : 0,
+            queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery()
+        ));
+    }
+
+    private static class Entry implements AsyncLog.Entry {
+        private final long executedAt;
+        private final String thread;
+        private final long durationMillis;
+        private final boolean slow;
+        private final boolean success;
+        private final int batchSize;
+        private final String sql;
+
+        private Entry(long executedAt, String thread, long durationMillis, boolean slow, boolean success, int batchSize, String sql) {
+            this.executedAt = executedAt;
+            this.thread = thread;
+            this.durationMillis = durationMillis;
+            this.slow = slow;
+            this.success = success;
+            this.batchSize = batchSize;
+            this.sql = sql;
+        }
+
+        @Override
+        public void appendTo(StringBuilder line) {
+            line.append("executedAt=").append(Instant.ofEpochMilli(this.executedAt))
+                .append(" thread=").append(this.thread)
+                .append(" durationMs=").append(this.durationMillis)
+                .append(" slow=").append(this.slow)
+                .append(" success=").append(this.success)
+                .append(" batchSize=").append(this.batchSize)
+                .append(" sql=\"").append(this.sql.replace("\"", "\\\"")).append('"');
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.estonnaicker.tasks.config;
+
+import java.util.List;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Traces each JDBC statement run inside a sampled trace as a span named after its operation,
+ * e.g. SELECT, with the statement as Hibernate wrote it. Bind parameters aren't recorded.
+ */
+public class SqlSpanListener implements QueryExecutionListener {
+    private static final String SPAN = SqlSpanListener.class.getName();
+    private static final AttributeKey<String> STATEMENT = AttributeKey.stringKey("db.statement");
+    private static final AttributeKey<Long> BATCH_SIZE = AttributeKey.longKey("db.batch_size");
+
+    private final Tracer tracer;
+
+    public SqlSpanListener(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!Span.current().getSpanContext().isSampled()) {
+            return;
+        }
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        Span span = this.tracer.spanBuilder(operation(sql))
+                               .setSpanKind(SpanKind.CLIENT)
+                               .setAttribute(STATEMENT, sql)
+                               .startSpan();
+        execInfo.addCustomValue(SPAN, span);
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Span span = execInfo.getCustomValue(SPAN, Span.class);
+        if (span == null) {
+            return;
+        }
+        if (execInfo.isBatch()) {
+            span.setAttribute(BATCH_SIZE, (long) execInfo.getBatchSize());
+        }
+        if (!execInfo.isSuccess()) {
+            span.recordException(execInfo.getThrowable());
+            span.setStatus(StatusCode.ERROR);
+        }
+        span.end();
+    }
+
+    private static String operation(String sql) {
+        String trimmed = sql.trim();
+        int end = trimmed.indexOf(' ');
+        return (end < 0 ? trimmed : trimmed.substring(0, end)).toUpperCase();
+    }
+}
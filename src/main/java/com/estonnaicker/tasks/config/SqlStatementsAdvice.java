@@ -0,0 +1,45 @@
+package com.estonnaicker.tasks.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.estonnaicker.tasks.utils.SqlStatements;
+
+// Headers have to go out before the body, by then the handler has run all of its statements. Off unless
+// tasks.sql.response-headers is on, they tell every client how the request hit the database
+@ControllerAdvice
+@ConditionalOnProperty(name = "tasks.sql.response-headers", havingValue = "true")
+public class SqlStatementsAdvice implements ResponseBodyAdvice<Object> {
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String ROWS_HEADER = "X-Sql-Rows";
+    public static final String TIME_HEADER = "X-Sql-Time-Micros";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+        Object body,
+        MethodParameter returnType,
+        MediaType selectedContentType,
+        Class<? extends HttpMessageConverter<?>> selectedConverterType,
+        ServerHttpRequest request,
+        ServerHttpResponse response
+    ) {
+        SqlStatements statements = SqlStatements.current();
+        if (statements.isActive()) {
+            response.getHeaders().set(STATEMENTS_HEADER, Integer.toString(statements.getStatements()));
+            response.getHeaders().set(ROWS_HEADER, Long.toString(statements.getRows()));
+            response.getHeaders().set(TIME_HEADER, Long.toString(statements.getJdbcMicros()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,69 @@
+package com.estonnaicker.tasks.config;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.estonnaicker.tasks.utils.SqlStatements;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Counts the statements each request runs on its own thread and logs them at DEBUG, or at WARN
+ * when a request runs more than tasks.sql.statement-warn-threshold statements or the same SQL at
+ * least tasks.sql.repeated-statement-threshold times. With tasks.sql.response-headers on,
+ * SqlStatementsAdvice also adds the counts to response bodies as headers. Work handed to other
+ * threads, e.g. by the async endpoints, isn't counted.
+ */
+@Slf4j
+@Component
+public class SqlStatementsFilter extends OncePerRequestFilter {
+
+    private final int statementWarnThreshold;
+    private final int repeatedStatementThreshold;
+
+    public SqlStatementsFilter(
+        @Value("${tasks.sql.statement-warn-threshold:20}") int statementWarnThreshold,
+        @Value("${tasks.sql.repeated-statement-threshold:5}") int repeatedStatementThreshold
+    ) {
+        this.statementWarnThreshold = statementWarnThreshold;
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        SqlStatements.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatements statements = SqlStatements.stop();
+            if (statements.getMostRepeatedCount() >= this.repeatedStatementThreshold) {
+                log.warn(
+                    "{} {} ran the same statement {} times, likely an N+1: {}",
+                    request.getMethod(), request.getRequestURI(), statements.getMostRepeatedCount(), statements.getMostRepeated()
+                );
+            }
+            if (statements.getStatements() > this.statementWarnThreshold) {
+                log.warn(
+                    "{} {} ran {} statements over the budget of {}, rows={} jdbcMicros={}",
+                    request.getMethod(), request.getRequestURI(), statements.getStatements(), this.statementWarnThreshold,
+                    statements.getRows(), statements.getJdbcMicros()
+                );
+            } else if (log.isDebugEnabled()) {
+                log.debug(
+                    "{} {} status={} statements={} rows={} jdbcMicros={}",
+                    request.getMethod(), request.getRequestURI(), response.getStatus(), statements.getStatements(),
+                    statements.getRows(), statements.getJdbcMicros()
+                );
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.estonnaicker.tasks.config;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.estonnaicker.tasks.task.TaskController;
+import com.estonnaicker.tasks.task.TaskMapper;
+import com.estonnaicker.tasks.task.TaskService;
+
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+
+/**
+ * Request traces of the /api endpoints: a server span per request with the controller, service
+ * and mapper calls and each SQL statement below it. Traces are sampled when the request comes in,
+ * a tasks.tracing.sample-rate share of new traces and every trace the caller's traceparent marks
+ * as sampled. Finished spans are queued, up to a bound, and handed to the SpanExporter bean in
+ * batches off the request thread, or logged when there is none.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean(destroyMethod = "close")
+    public SdkTracerProvider tracerProvider(
+        ObjectProvider<SpanExporter> spanExporter,
+        @Value("${tasks.tracing.sample-rate:0.01}") double sampleRate
+    ) {
+        return SdkTracerProvider.builder()
+                                .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(sampleRate)))
+                                .addSpanProcessor(BatchSpanProcessor.builder(spanExporter.getIfAvailable(LogSpanExporter::new)).build())
+                                .build();
+    }
+
+    @Bean
+    public Tracer tracer(SdkTracerProvider tracerProvider) {
+        return tracerProvider.get("com.estonnaicker.tasks");
+    }
+
+    // Static so the post processor doesn't pull this configuration in early
+    @Bean
+    public static MethodSpans taskMethodSpans(ObjectProvider<Tracer> tracer) {
+        return new MethodSpans(tracer, Map.of(
+            TaskController.class, "TaskController",
+            TaskService.class, "TaskService",
+            TaskMapper.class, "TaskMapper"
+        ));
+    }
+
+    @Bean
+    public TracingFilter tracingFilter(Tracer tracer) {
+        return new TracingFilter(tracer, W3CTraceContextPropagator.getInstance());
+    }
+
+    @Bean
+    public SqlSpanListener sqlSpanListener(Tracer tracer) {
+        return new SqlSpanListener(tracer);
+    }
+}
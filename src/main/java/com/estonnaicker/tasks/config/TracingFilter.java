@@ -0,0 +1,98 @@
+package com.estonnaicker.tasks.config;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+
+/**
+ * Starts the server span of each /api request, continuing the trace of an incoming traceparent
+ * header if there is one. Whether the trace is recorded is decided here, once, by the sampler,
+ * the controller, service, mapper and SQL spans below it only follow that decision.
+ */
+public class TracingFilter extends OncePerRequestFilter implements Ordered {
+    private static final AttributeKey<String> METHOD = AttributeKey.stringKey("http.request.method");
+    private static final AttributeKey<String> PATH = AttributeKey.stringKey("url.path");
+    private static final AttributeKey<String> ROUTE = AttributeKey.stringKey("http.route");
+    private static final AttributeKey<Long> STATUS = AttributeKey.longKey("http.response.status_code");
+
+    private static final TextMapGetter<HttpServletRequest> HEADERS = new TextMapGetter<HttpServletRequest>() {
+        @Override
+        public Iterable<String> keys(HttpServletRequest request) {
+            return Collections.list(request.getHeaderNames());
+        }
+
+        @Override
+        public String get(HttpServletRequest request, String key) {
+            return request == null ? null : request.getHeader(key);
+        }
+    };
+
+    private final Tracer tracer;
+    private final TextMapPropagator propagator;
+
+    public TracingFilter(Tracer tracer, TextMapPropagator propagator) {
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        Context parent = this.propagator.extract(Context.root(), request, HEADERS);
+        Span span = this.tracer.spanBuilder(request.getMethod())
+                               .setParent(parent)
+                               .setSpanKind(SpanKind.SERVER)
+                               .setAttribute(METHOD, request.getMethod())
+                               .setAttribute(PATH, request.getRequestURI())
+                               .startSpan();
+
+        try (Scope scope = span.makeCurrent()) {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException ex) {
+            span.recordException(ex);
+            span.setStatus(StatusCode.ERROR);
+            throw ex;
+        } finally {
+            if (span.isRecording()) {
+                Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                if (route != null) {
+                    span.updateName(request.getMethod() + " " + route);
+                    span.setAttribute(ROUTE, route.toString());
+                }
+                span.setAttribute(STATUS, (long) response.getStatus());
+                if (response.getStatus() >= 500) {
+                    span.setStatus(StatusCode.ERROR);
+                }
+            }
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.estonnaicker.tasks.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reports where virtual threads get pinned to their carrier, typically a synchronized block in a
+ * JDBC driver or pool that then blocks on I/O. Records the JDK's jdk.VirtualThreadPinned JFR event
+ * and, every report interval, rotates the recording, counts the events per call site and logs the
+ * sites with the stack of the first occurrence.
+ *
+ * A call site is the innermost frame outside the JDK, e.g. org.postgresql.core.v3.QueryExecutorImpl.execute.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "tasks.threads.virtual", havingValue = "true")
+public class VirtualThreadPinningMonitor implements DisposableBean {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final Duration threshold;
+    private final AtomicReference<Recording> recording = new AtomicReference<>();
+    private final Map<String, Long> pinnedSites = new ConcurrentHashMap<>();
+    private Instant lastEnd = Instant.MIN;
+
+    public VirtualThreadPinningMonitor(@Value("${tasks.threads.pinning-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+        this.recording.set(this.startRecording());
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.threads.pinning-report-interval:PT1M}")
+    public void report() throws IOException {
+        // The next recording starts first so no pinning goes unrecorded between the two
+        Recording finished = this.recording.getAndSet(this.startRecording());
+        Path file = Files.createTempFile("pinning", ".jfr");
+        try {
+            finished.stop();
+            finished.dump(file);
+            Instant lastEnd = this.lastEnd;
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                // The recordings overlap, events up to the end of the last one read were counted from it
+                if (PINNED_EVENT.equals(event.getEventType().getName()) && event.getEndTime().isAfter(this.lastEnd)) {
+                    this.record(event);
+                    if (event.getEndTime().isAfter(lastEnd)) {
+                        lastEnd = event.getEndTime();
+                    }
+                }
+            }
+            this.lastEnd = lastEnd;
+        } finally {
+            finished.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Number of pinned events per call site since startup
+    public Map<String, Long> getPinnedSites() {
+        return new TreeMap<>(this.pinnedSites);
+    }
+
+    @Override
+    public void destroy() {
+        this.recording.get().close();
+    }
+
+    private Recording startRecording() {
+        Recording next = new Recording();
+        next.setName("virtual-thread-pinning");
+        next.enable(PINNED_EVENT).withThreshold(this.threshold).withStackTrace();
+        next.start();
+        return next;
+    }
+
+    private void record(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String site = frames.stream()
+                            .map(VirtualThreadPinningMonitor::describe)
+                            .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk.") && !frame.startsWith("sun."))
+                            .findFirst()
+                            .orElse("unknown");
+
+        if (this.pinnedSites.merge(site, 1L, Long::sum) == 1L) {
+            log.warn(
+                "Virtual thread pinned for {} ms at {}:\n\t{}",
+                event.getDuration().toMillis(),
+                site,
+                frames.stream().limit(LOGGED_FRAMES).map(VirtualThreadPinningMonitor::describe).collect(Collectors.joining("\n\t"))
+            );
+        } else {
+            log.debug("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), site);
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,60 @@
+package com.estonnaicker.tasks.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs Tomcat's request processing and the application's async work, such as streamed exports,
+ * on virtual threads when tasks.threads.virtual is set. A request blocked on JDBC then parks its
+ * virtual thread instead of holding one of a fixed pool of platform threads, so concurrency is
+ * bounded by the connection pool rather than server.tomcat.threads.max.
+ *
+ * Virtual threads need Java 21 while the app still builds for 11, so the executor is looked up
+ * reflectively and startup fails when the running JVM doesn't have it.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "tasks.threads.virtual", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        log.info("Serving requests on virtual threads");
+        return executor;
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    // Picked up by Spring MVC for async requests in place of Boot's bounded pool
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException(
+                "tasks.threads.virtual needs Java 21 or newer, running on " + System.getProperty("java.version")
+            );
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Could not create a virtual thread executor", ex);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.estonnaicker.tasks.exception;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An error response in a flight recording, so failed requests can be found next to the
+ * TaskOperation events that threw them. The stack is left out, it's the handler's, not the
+ * one that threw.
+ */
+@Name("com.estonnaicker.tasks.ApiError")
+@Label("API Error")
+@Category("Tasks")
+@Description("An exception turned into an error response by GlobalExceptionHandler")
+@StackTrace(false)
+class ApiErrorEvent extends Event {
+
+    @Label("Status")
+    int status;
+
+    @Label("Exception")
+    String exception;
+
+    @Label("Message")
+    String message;
+}
@@ -0,0 +1,18 @@
+package com.estonnaicker.tasks.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import lombok.Getter;
+
+@Getter
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+public class BulkheadFullException extends RuntimeException {
+
+    private final String bulkhead;
+
+    public BulkheadFullException(String bulkhead) {
+        super(String.format("Too many %s requests in progress, try again later", bulkhead));
+        this.bulkhead = bulkhead;
+    }
+}
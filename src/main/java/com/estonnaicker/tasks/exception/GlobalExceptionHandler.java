@@ -3,6 +3,7 @@ package com.estonnaicker.tasks.exception;
 import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 import org.springframework.data.mapping.PropertyReferenceException;
 import org.springframework.http.HttpStatus;
@@ -30,7 +31,7 @@ public class GlobalExceptionHandler {
             errorResponse.addError("date", "Invalid date format supplied, expected yyyy-MM-dd HH:mm:ss");
         }
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respond(errorResponse, HttpStatus.BAD_REQUEST, ex);
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
@@ -40,7 +41,7 @@ public class GlobalExceptionHandler {
         errorResponse.setMessage(ex.getMessage());
         errorResponse.setTimeStamp(System.currentTimeMillis());
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respond(errorResponse, HttpStatus.BAD_REQUEST, ex);
     }
 
     @ExceptionHandler(ResourceNotFoundException.class)
@@ -49,7 +50,46 @@ public class GlobalExceptionHandler {
         errorResponse.setStatus(HttpStatus.NOT_FOUND.value());
         errorResponse.setMessage(ex.getMessage());
         errorResponse.setTimeStamp(System.currentTimeMillis());
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        return respond(errorResponse, HttpStatus.NOT_FOUND, ex);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(PreconditionFailedException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setStatus(HttpStatus.PRECONDITION_FAILED.value());
+        errorResponse.setMessage(ex.getMessage());
+        errorResponse.setTimeStamp(System.currentTimeMillis());
+        return respond(errorResponse, HttpStatus.PRECONDITION_FAILED, ex);
+    }
+
+    @ExceptionHandler(ImportFailedException.class)
+    public ResponseEntity<ErrorResponse> handleImportFailedException(ImportFailedException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setStatus(HttpStatus.BAD_REQUEST.value());
+        errorResponse.setMessage(ex.getMessage());
+        errorResponse.setTimeStamp(System.currentTimeMillis());
+        errorResponse.addError("line", Long.toString(ex.getLine()));
+        errorResponse.addError("imported", Long.toString(ex.getImported()));
+        return respond(errorResponse, HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ErrorResponse> handleBulkheadFullException(BulkheadFullException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorResponse.setMessage(ex.getMessage());
+        errorResponse.setTimeStamp(System.currentTimeMillis());
+        return respond(errorResponse, HttpStatus.SERVICE_UNAVAILABLE, ex);
+    }
+
+    // Async work that outlived its bulkhead's timeout
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleTimeoutException(TimeoutException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorResponse.setMessage("Request timed out, try again later");
+        errorResponse.setTimeStamp(System.currentTimeMillis());
+        return respond(errorResponse, HttpStatus.SERVICE_UNAVAILABLE, ex);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -75,7 +115,7 @@ public class GlobalExceptionHandler {
             errorMap
         );
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respond(errorResponse, HttpStatus.BAD_REQUEST, e);
     }
 
     @ExceptionHandler({ MethodArgumentTypeMismatchException.class })
@@ -86,7 +126,7 @@ public class GlobalExceptionHandler {
         errorResponse.setTimeStamp(System.currentTimeMillis());
         errorResponse.addError(ex.getName(), "Expected type " + ex.getRequiredType().getSimpleName());
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respond(errorResponse, HttpStatus.BAD_REQUEST, ex);
     }
 
     @ExceptionHandler({ PropertyReferenceException.class })
@@ -97,7 +137,7 @@ public class GlobalExceptionHandler {
         errorResponse.setTimeStamp(System.currentTimeMillis());
         errorResponse.addError("property", ex.getPropertyName());
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return respond(errorResponse, HttpStatus.BAD_REQUEST, ex);
     }
 
     // Global catch all
@@ -108,6 +148,18 @@ public class GlobalExceptionHandler {
         errorResponse.setMessage("Something Went Wrong!.");
         errorResponse.setTimeStamp(System.currentTimeMillis());
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        return respond(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR, ex);
+    }
+
+    // Every error response also goes to any flight recording running, controller local handlers answer through here too
+    public static ResponseEntity<ErrorResponse> respond(ErrorResponse errorResponse, HttpStatus status, Exception ex) {
+        ApiErrorEvent event = new ApiErrorEvent();
+        if (event.shouldCommit()) {
+            event.status = status.value();
+            event.exception = ex.getClass().getName();
+            event.message = ex.getMessage();
+            event.commit();
+        }
+        return new ResponseEntity<>(errorResponse, status);
     }
 }
@@ -0,0 +1,21 @@
+package com.estonnaicker.tasks.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import lombok.Getter;
+
+// Imports commit chunk by chunk, so a failure part way through leaves the earlier chunks in place
+@Getter
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class ImportFailedException extends RuntimeException {
+
+    private final long line;
+    private final long imported;
+
+    public ImportFailedException(String message, long line, long imported) {
+        super(String.format("%s, %d tasks from earlier lines were imported", message, imported));
+        this.line = line;
+        this.imported = imported;
+    }
+}
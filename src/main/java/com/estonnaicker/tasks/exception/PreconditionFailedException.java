@@ -0,0 +1,22 @@
+package com.estonnaicker.tasks.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import lombok.Getter;
+
+@Getter
+@ResponseStatus(value = HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+
+    private final String resourceName;
+    private final Long id;
+    private final Long expectedVersion;
+
+    public PreconditionFailedException(String resourceName, Long id, Long expectedVersion) {
+        super(String.format("%s with id : %s is no longer at version %s", resourceName, id, expectedVersion));
+        this.resourceName = resourceName;
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+    }
+}
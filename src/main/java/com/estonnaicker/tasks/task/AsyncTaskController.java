@@ -0,0 +1,234 @@
+package com.estonnaicker.tasks.task;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.estonnaicker.tasks.exception.ErrorResponse;
+import com.estonnaicker.tasks.task.dto.TaskBulkActionDto;
+import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.utils.ApiResponse;
+import com.estonnaicker.tasks.utils.PagedApiResponse;
+import com.estonnaicker.tasks.utils.enums.ExportFormat;
+import com.estonnaicker.tasks.utils.enums.PagingMode;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+import com.estonnaicker.tasks.utils.enums.TotalsMode;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+
+/**
+ * TaskController's reads, export and bulk operations run on TaskBulkheads instead of the
+ * request thread. Lookups by id have a bulkhead of their own, everything that scans or counts
+ * shares the heavy one. A full bulkhead answers 503 right away and work past its bulkhead's
+ * timeout answers 503 as well, except exports and bulk jobs, which are never interrupted.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping(path = "/api/v1/async/tasks")
+@Api(tags = {"Tasks (async)"})
+public class AsyncTaskController {
+
+    private final TaskService taskService;
+    private final TaskBulkheads bulkheads;
+
+    public AsyncTaskController(TaskService taskService, TaskBulkheads bulkheads) {
+        this.taskService = taskService;
+        this.bulkheads = bulkheads;
+    }
+
+    @GetMapping("{id}")
+    @ApiOperation(
+        value = "Retrieve Task by ID",
+        notes = "Fetches a task based on the provided ID on the reads bulkhead",
+        response = TaskDto.class
+    )
+    public DeferredResult<ResponseEntity<ApiResponse<TaskDto>>> getTask(
+        @ApiParam(
+            value = "Unique identifier (number) of the task",
+            required = true,
+            example = "E.g 1"
+        )
+        @PathVariable("id") Long taskId
+    ) {
+        // If-None-Match is checked against the ETag once the result is written
+        return this.bulkheads.reads().defer(() -> {
+            TaskDto taskDto = this.taskService.getTaskById(taskId);
+            return ResponseEntity.ok()
+                                 .eTag(TaskETags.of(taskDto))
+                                 .body(new ApiResponse<TaskDto>(taskDto));
+        });
+    }
+
+    @GetMapping
+    @ApiOperation(
+        value = "Retrieve Tasks",
+        notes = "Same filters, search and paging modes as GET /api/v1/tasks, run on the heavy bulkhead",
+        response = PagedApiResponse.class
+    )
+    public CompletableFuture<ResponseEntity<PagedApiResponse<TaskDto>>> getTasks(
+        @ApiParam(
+            value = "Filter tasks by status",
+            required = false,
+            allowableValues = "TODO, IN_PROGRESS, DONE"
+        )
+        @RequestParam(required = false) TaskStatus status,
+        @ApiParam(
+            value = "Filter tasks by due date",
+            required = false,
+            type = "string",
+            format = "date"
+        )
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDate,
+        @ApiParam(
+            value = "Only tasks due on or after this date",
+            required = false,
+            type = "string",
+            format = "date"
+        )
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+        @ApiParam(
+            value = "Only tasks due on or before this date",
+            required = false,
+            type = "string",
+            format = "date"
+        )
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+        @ApiParam(
+            value = "Only tasks that are not done and were due before today",
+            required = false
+        )
+        @RequestParam(defaultValue = "false") boolean overdue,
+        @ApiParam(
+            value = "Full text search on title and description, best matches first. Not available with KEYSET paging",
+            required = false
+        )
+        @RequestParam(required = false) String q,
+        @ApiParam(
+            value = "Pagination and sorting parameters (e.g., page=0, size=10, sort=id,asc)",
+            required = false
+        )
+        @PageableDefault(size = 10, sort = "id", direction = Sort.Direction.ASC) Pageable pageable,
+        @ApiParam(
+            value = "Pagination mode",
+            required = false,
+            allowableValues = "OFFSET, KEYSET, SLICE"
+        )
+        @RequestParam(defaultValue = "OFFSET") PagingMode paging,
+        @ApiParam(
+            value = "Opaque cursor from a previous KEYSET page, implies KEYSET paging",
+            required = false
+        )
+        @RequestParam(required = false) String cursor,
+        @ApiParam(
+            value = "Whether OFFSET paging may use a cached or estimated total",
+            required = false,
+            allowableValues = "EXACT, APPROXIMATE"
+        )
+        @RequestParam(defaultValue = "EXACT") TotalsMode totals
+    ) {
+        TaskFilter filter = new TaskFilter(status, dueDate, dueFrom, dueTo, overdue, q == null || q.isBlank() ? null : q.strip());
+
+        return this.bulkheads.heavy().submit(() -> {
+            PagedApiResponse<TaskDto> response = TaskController.getTasksPage(this.taskService, filter, pageable, paging, cursor, totals);
+            return ResponseEntity.ok().eTag(TaskETags.of(response)).body(response);
+        });
+    }
+
+    @GetMapping("export")
+    @ApiOperation(
+        value = "Export Tasks",
+        notes = "Streams every task matching the optional status and dueDate filters as NDJSON or CSV from the heavy bulkhead. "
+            + "The bulkhead's timeout doesn't apply once streaming has started"
+    )
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> exportTasks(
+        @ApiParam(
+            value = "Filter tasks by status",
+            required = false,
+            allowableValues = "TODO, IN_PROGRESS, DONE"
+        )
+        @RequestParam(required = false) TaskStatus status,
+        @ApiParam(
+            value = "Filter tasks by due date",
+            required = false,
+            type = "string",
+            format = "date"
+        )
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDate,
+        @ApiParam(
+            value = "Output format",
+            required = false,
+            allowableValues = "NDJSON, CSV"
+        )
+        @RequestParam(defaultValue = "NDJSON") ExportFormat format
+    ) {
+        boolean csv = format == ExportFormat.CSV;
+
+        // Headers are only set once the export has a thread, so a rejection can still answer with JSON
+        return this.bulkheads.heavy()
+                             .stream(out -> this.taskService.exportTasks(status, dueDate, format, out))
+                             .thenApply(body -> ResponseEntity.ok()
+                                 .contentType(csv ? new MediaType("text", "csv") : new MediaType("application", "x-ndjson"))
+                                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tasks." + (csv ? "csv" : "ndjson"))
+                                 .body(body));
+    }
+
+    @PostMapping("bulk/archive")
+    @ApiOperation(
+        value = "Archive Tasks by filter",
+        notes = "Soft-deletes every task matching the filter on the heavy bulkhead and returns the affected count. "
+            + "The bulkhead's timeout doesn't apply, a job committing chunks is never interrupted",
+        response = TaskBulkJob.class
+    )
+    public CompletableFuture<ApiResponse<TaskBulkJob>> archiveTasks(
+        @ApiParam(
+            value = "Filter of the tasks to archive, at least one of status, dueDate or dueBefore",
+            required = true
+        )
+        @RequestBody TaskBulkActionDto bulkDto
+    ) {
+        return this.bulkheads.heavy().submit(() -> new ApiResponse<TaskBulkJob>(this.taskService.archiveTasks(bulkDto)), null);
+    }
+
+    @PostMapping("bulk/status")
+    @ApiOperation(
+        value = "Change status of Tasks by filter",
+        notes = "Moves every task matching the filter to newStatus on the heavy bulkhead and returns the affected count. "
+            + "The bulkhead's timeout doesn't apply, a job committing chunks is never interrupted",
+        response = TaskBulkJob.class
+    )
+    public CompletableFuture<ApiResponse<TaskBulkJob>> updateTasksStatus(
+        @ApiParam(
+            value = "Filter of the tasks to change along with newStatus",
+            required = true
+        )
+        @RequestBody TaskBulkActionDto bulkDto
+    ) {
+        return this.bulkheads.heavy().submit(() -> new ApiResponse<TaskBulkJob>(this.taskService.updateTasksStatus(bulkDto)), null);
+    }
+
+    @ExceptionHandler({ MethodArgumentTypeMismatchException.class })
+    public ResponseEntity<ErrorResponse> handleMethodArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return TaskController.invalidInputType(ex);
+    }
+}
@@ -0,0 +1,296 @@
+package com.estonnaicker.tasks.task;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+import javax.validation.Valid;
+
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+
+import com.estonnaicker.tasks.exception.ErrorResponse;
+import com.estonnaicker.tasks.exception.GlobalExceptionHandler;
+import com.estonnaicker.tasks.exception.InvalidTaskFieldException;
+import com.estonnaicker.tasks.task.dto.TaskCreateDto;
+import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.task.dto.TaskStatsDto;
+import com.estonnaicker.tasks.task.dto.TaskUpdateDto;
+import com.estonnaicker.tasks.utils.ApiResponse;
+import com.estonnaicker.tasks.utils.PagedApiResponse;
+import com.estonnaicker.tasks.utils.enums.PagingMode;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import reactor.core.publisher.Mono;
+
+/**
+ * TaskController's single task and listing endpoints on WebFlux, served instead of it under the
+ * reactive profile with the same paths, envelopes and error responses. Listings support OFFSET
+ * paging only, bulk, batch, import and export stay on the servlet stack.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping(path = "/api/v1/tasks")
+@Api(tags = {"Tasks"})
+public class ReactiveTaskController {
+
+    private final ReactiveTaskService taskService;
+
+    public ReactiveTaskController(ReactiveTaskService taskService) {
+        this.taskService = taskService;
+    }
+
+    @GetMapping("{id}")
+    @ApiOperation(
+        value = "Retrieve Task by ID",
+        notes = "Fetches a task based on the provided ID",
+        response = TaskDto.class
+    )
+    public Mono<ApiResponse<TaskDto>> getTask(
+        @ApiParam(
+            value = "Unique identifier (number) of the task",
+            required = true,
+            example = "E.g 1"
+        )
+        @PathVariable("id") Long taskId,
+        ServerWebExchange exchange
+    ) {
+        // A matching If-None-Match completes empty with the 304 already set
+        return this.taskService.getTaskById(taskId)
+                               .filter(taskDto -> !exchange.checkNotModified(TaskETags.of(taskDto)))
+                               .map(taskDto -> new ApiResponse<TaskDto>(taskDto));
+    }
+
+    @GetMapping
+    @ApiOperation(
+        value = "Retrieve Tasks",
+        notes = "Fetches tasks via OFFSET pagination with optional filtering on status, dueDate, a dueFrom/dueTo range and overdue",
+        response = PagedApiResponse.class
+    )
+    public Mono<PagedApiResponse<TaskDto>> getTasks(
+        @ApiParam(
+            value = "Filter tasks by status",
+            required = false,
+            allowableValues = "TODO, IN_PROGRESS, DONE"
+        )
+        @RequestParam(required = false) TaskStatus status,
+        @ApiParam(
+            value = "Filter tasks by due date",
+            required = false,
+            type = "string",
+            format = "date"
+        )
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDate,
+        @ApiParam(
+            value = "Only tasks due on or after this date",
+            required = false,
+            type = "string",
+            format = "date"
+        )
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+        @ApiParam(
+            value = "Only tasks due on or before this date",
+            required = false,
+            type = "string",
+            format = "date"
+        )
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+        @ApiParam(
+            value = "Only tasks that are not done and were due before today",
+            required = false
+        )
+        @RequestParam(defaultValue = "false") boolean overdue,
+        @ApiParam(
+            value = "Full text search, not available on the reactive stack",
+            required = false
+        )
+        @RequestParam(required = false) String q,
+        @ApiParam(
+            value = "Pagination and sorting parameters (e.g., page=0, size=10, sort=id,asc)",
+            required = false
+        )
+        @PageableDefault(size = 10, sort = "id", direction = Sort.Direction.ASC) Pageable pageable,
+        @ApiParam(
+            value = "Pagination mode, only OFFSET on the reactive stack",
+            required = false,
+            allowableValues = "OFFSET"
+        )
+        @RequestParam(defaultValue = "OFFSET") PagingMode paging,
+        ServerWebExchange exchange
+    ) {
+        if (paging != PagingMode.OFFSET) {
+            return Mono.error(new IllegalArgumentException("paging=" + paging + " isn't available on the reactive stack"));
+        }
+        TaskFilter filter = new TaskFilter(status, dueDate, dueFrom, dueTo, overdue, q == null || q.isBlank() ? null : q.strip());
+
+        return this.taskService.getAllTasks(filter, pageable)
+                               .map(page -> new PagedApiResponse<TaskDto>(page.getContent(), page))
+                               .filter(response -> !exchange.checkNotModified(TaskETags.of(response)));
+    }
+
+    @PostMapping
+    @ApiOperation(
+        value = "Create Tasks",
+        notes = "Creates a task",
+        response = PagedApiResponse.class
+    )
+    public Mono<ResponseEntity<ApiResponse<TaskDto>>> createTask(@Valid @RequestBody TaskCreateDto taskDto) {
+        return this.taskService.createTask(taskDto).map(createdTaskDto ->
+            new ResponseEntity<ApiResponse<TaskDto>>(
+                new ApiResponse<TaskDto>(createdTaskDto),
+                HttpStatus.CREATED
+            )
+        );
+    }
+
+    @PatchMapping("{id}")
+    @ApiOperation(
+        value = "Update Tasks",
+        notes = "Updates a task. With If-Match the update only applies while the task is still at that version",
+        response = ApiResponse.class
+    )
+    public Mono<ResponseEntity<ApiResponse<TaskDto>>> updateTask(
+        @ApiParam(
+            value = "Unique identifier (number) of the task",
+            required = true,
+            example = "E.g 1"
+        )
+        @PathVariable("id") Long taskId,
+        @ApiParam(
+            value = "JSON Field values of the task to update",
+            required = true
+        )
+        @Valid @RequestBody TaskUpdateDto taskDto,
+        @ApiParam(
+            value = "ETag of the version being updated, the update fails with 412 once the task has changed",
+            required = false
+        )
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        return Mono.defer(() -> this.taskService.updateTask(taskId, taskDto, TaskETags.parseIfMatch(ifMatch)))
+                   .map(task -> ResponseEntity.ok()
+                                              .eTag(TaskETags.of(task))
+                                              .body(new ApiResponse<TaskDto>(task)));
+    }
+
+    @DeleteMapping("{id}")
+    @ApiOperation(
+        value = "Delete Tasks",
+        notes = "Deletes a task. With If-Match the delete only applies while the task is still at that version",
+        response = ApiResponse.class
+    )
+    public Mono<ApiResponse<Long>> deleteTask(
+        @ApiParam(
+            value = "Unique identifier (number) of the task",
+            required = true,
+            example = "E.g 1"
+        )
+        @PathVariable("id") Long taskId,
+        @ApiParam(
+            value = "ETag of the version being deleted, the delete fails with 412 once the task has changed",
+            required = false
+        )
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        return Mono.defer(() -> this.taskService.deleteTask(taskId, TaskETags.parseIfMatch(ifMatch)))
+                   .thenReturn(new ApiResponse<Long>(taskId));
+    }
+
+    @GetMapping("stats")
+    @ApiOperation(
+        value = "Task statistics",
+        notes = "Counts of non-archived tasks per status and due week, and the number of overdue tasks"
+    )
+    public Mono<ApiResponse<TaskStatsDto>> getTaskStats() {
+        return this.taskService.getTaskStats().map(stats -> new ApiResponse<TaskStatsDto>(stats));
+    }
+
+    @ExceptionHandler(InvalidTaskFieldException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidTaskFieldException(InvalidTaskFieldException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setStatus(HttpStatus.BAD_REQUEST.value());
+        errorResponse.setMessage("Invalid field for task");
+        errorResponse.setTimeStamp(System.currentTimeMillis());
+        errorResponse.addError(ex.getField(), ex.getMessage());
+
+        return GlobalExceptionHandler.respond(errorResponse, HttpStatus.BAD_REQUEST, ex);
+    }
+
+    // WebFlux reports bad parameters and bodies as ServerWebInputException, answered like TaskController and GlobalExceptionHandler do
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleServerWebInputException(ServerWebInputException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setStatus(HttpStatus.BAD_REQUEST.value());
+        errorResponse.setTimeStamp(System.currentTimeMillis());
+
+        if (ex.getCause() instanceof TypeMismatchException) {
+            Class<?> requiredType = ((TypeMismatchException) ex.getCause()).getRequiredType();
+            String name = ex.getMethodParameter() == null ? "parameter" : ex.getMethodParameter().getParameterName();
+            errorResponse.setMessage("Invalid Input Type");
+
+            if (requiredType == TaskStatus.class) {
+                errorResponse.addError("status", "Expected values " + Arrays.toString(TaskStatus.values()));
+            }
+            else if (requiredType == LocalDate.class) {
+                errorResponse.addError("dueDate", "Invalid date format supplied, expected yyyy-MM-dd HH:mm:ss");
+            }
+            else if (requiredType == Long.class) {
+                errorResponse.addError(name, "Expected a number");
+            }
+            else if (requiredType != null) {
+                errorResponse.addError(name, "Expected type " + requiredType.getSimpleName());
+            }
+        }
+        else if (ex.getCause() instanceof DecodingException) {
+            errorResponse.setMessage("Failed to parse JSON request");
+            if (NestedExceptionUtils.getRootCause(ex) instanceof DateTimeParseException) {
+                errorResponse.addError("date", "Invalid date format supplied, expected yyyy-MM-dd HH:mm:ss");
+            }
+        }
+        else {
+            errorResponse.setMessage(ex.getReason());
+        }
+
+        return GlobalExceptionHandler.respond(errorResponse, HttpStatus.BAD_REQUEST, ex);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleWebExchangeBindException(WebExchangeBindException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setStatus(HttpStatus.BAD_REQUEST.value());
+        errorResponse.setMessage("Invalid arguments provided");
+        errorResponse.setTimeStamp(System.currentTimeMillis());
+        for (FieldError error : ex.getFieldErrors()) {
+            errorResponse.addError(error.getField(), error.getDefaultMessage());
+        }
+
+        return GlobalExceptionHandler.respond(errorResponse, HttpStatus.BAD_REQUEST, ex);
+    }
+}
@@ -0,0 +1,223 @@
+package com.estonnaicker.tasks.task;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of TaskRepository over R2DBC, writing the same table and statements.
+ * Rows are read straight into TaskDto. Ids come from the same pooled sequence Hibernate uses,
+ * a block at a time, so ids handed out here never collide with JPA or COPY inserts.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveTaskRepository {
+    private static final String SELECT_DTO = "SELECT id, title, description, due_date, status, version FROM task";
+    private static final String INSERT = "INSERT INTO task (id, archived, title, description, due_date, status, version) "
+        + "VALUES (:id, false, :title, :description, :dueDate, :status, 0)";
+    private static final String NEXT_ID_BLOCK = "SELECT nextval('task_sequence')";
+    private static final Map<String, String> COLUMNS = Map.of(
+        "id", "id",
+        "title", "title",
+        "description", "description",
+        "dueDate", "due_date",
+        "status", "status"
+    );
+
+    private final DatabaseClient databaseClient;
+
+    // Current block of reserved ids, nextId > maxId once it is used up
+    private final Object idLock = new Object();
+    private long nextId = 1;
+    private long maxId = 0;
+
+    public ReactiveTaskRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<TaskDto> findDtoById(Long taskId) {
+        return this.databaseClient.execute(SELECT_DTO + " WHERE id = :id AND archived = false")
+                                  .bind("id", taskId)
+                                  .map(ReactiveTaskRepository::toDto)
+                                  .one();
+    }
+
+    public Flux<TaskDto> findDtos(TaskFilter filter, LocalDate today, Pageable pageable) {
+        Conditions where = new Conditions(filter, today);
+        String sql = SELECT_DTO + where.sql + orderBy(pageable.getSort()) + " LIMIT :limit OFFSET :offset";
+
+        return where.bind(this.databaseClient.execute(sql))
+                    .bind("limit", pageable.getPageSize())
+                    .bind("offset", pageable.getOffset())
+                    .map(ReactiveTaskRepository::toDto)
+                    .all();
+    }
+
+    public Mono<Long> count(TaskFilter filter, LocalDate today) {
+        Conditions where = new Conditions(filter, today);
+
+        return where.bind(this.databaseClient.execute("SELECT COUNT(*) FROM task" + where.sql))
+                    .map((row, metadata) -> row.get(0, Long.class))
+                    .one();
+    }
+
+    public Mono<Boolean> existsByIdAndArchivedFalse(Long taskId) {
+        return this.databaseClient.execute("SELECT 1 FROM task WHERE id = :id AND archived = false")
+                                  .bind("id", taskId)
+                                  .map((row, metadata) -> true)
+                                  .first()
+                                  .hasElement();
+    }
+
+    public Mono<Task> insert(Task task) {
+        return this.nextId().flatMap(id -> {
+            task.setId(id);
+            DatabaseClient.GenericExecuteSpec insert = this.databaseClient.execute(INSERT)
+                                                                          .bind("id", id)
+                                                                          .bind("title", task.getTitle())
+                                                                          .bind("dueDate", task.getDueDate())
+                                                                          .bind("status", task.getStatus().name());
+            insert = task.getDescription() == null
+                ? insert.bindNull("description", String.class)
+                : insert.bind("description", task.getDescription());
+            return insert.fetch().rowsUpdated().thenReturn(task);
+        });
+    }
+
+    // Same single UPDATE as TaskRepositoryCustomImpl.updateNotArchived, keyed by attribute name
+    public Mono<Integer> updateNotArchived(Long taskId, Map<String, Object> changes, Long expectedVersion) {
+        StringBuilder sql = new StringBuilder("UPDATE task SET ");
+        for (String attribute : changes.keySet()) {
+            sql.append(COLUMNS.get(attribute)).append(" = :").append(attribute).append(", ");
+        }
+        sql.append("version = version + 1 WHERE id = :id AND archived = false");
+        if (expectedVersion != null) {
+            sql.append(" AND version = :version");
+        }
+
+        DatabaseClient.GenericExecuteSpec update = this.databaseClient.execute(sql.toString()).bind("id", taskId);
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            Object value = change.getValue();
+            update = update.bind(change.getKey(), value instanceof TaskStatus ? ((TaskStatus) value).name() : value);
+        }
+        if (expectedVersion != null) {
+            update = update.bind("version", expectedVersion);
+        }
+        return update.fetch().rowsUpdated();
+    }
+
+    public Mono<Integer> archiveById(Long taskId, Long expectedVersion) {
+        String sql = "UPDATE task SET archived = true, version = version + 1 WHERE id = :id AND archived = false";
+        if (expectedVersion == null) {
+            return this.databaseClient.execute(sql).bind("id", taskId).fetch().rowsUpdated();
+        }
+        return this.databaseClient.execute(sql + " AND version = :version")
+                                  .bind("id", taskId)
+                                  .bind("version", expectedVersion)
+                                  .fetch()
+                                  .rowsUpdated();
+    }
+
+    // Takes whole blocks from the sequence the same way Hibernate's pooled optimizer does.
+    // Racing refills each get their own block, the one stored last wins and the other's rest is skipped
+    private Mono<Long> nextId() {
+        synchronized (this.idLock) {
+            if (this.nextId <= this.maxId) {
+                return Mono.just(this.nextId++);
+            }
+        }
+
+        return this.databaseClient.execute(NEXT_ID_BLOCK)
+                                  .map((row, metadata) -> row.get(0, Long.class))
+                                  .one()
+                                  .flatMap(hi -> {
+                                      // The first value of a fresh sequence doesn't close a full block
+                                      if (hi < Task.ID_ALLOCATION_SIZE) {
+                                          return this.nextId();
+                                      }
+                                      synchronized (this.idLock) {
+                                          this.nextId = hi - Task.ID_ALLOCATION_SIZE + 1;
+                                          this.maxId = hi;
+                                          return Mono.just(this.nextId++);
+                                      }
+                                  });
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+
+        StringBuilder sql = new StringBuilder(" ORDER BY ");
+        for (Sort.Order order : sort) {
+            String column = COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Invalid sort property: '" + order.getProperty() + "'");
+            }
+            sql.append(column).append(order.isAscending() ? " ASC, " : " DESC, ");
+        }
+        return sql.substring(0, sql.length() - 2);
+    }
+
+    private static TaskDto toDto(Row row, RowMetadata metadata) {
+        return new TaskDto(
+            row.get("id", Long.class),
+            row.get("title", String.class),
+            row.get("description", String.class),
+            row.get("due_date", LocalDate.class),
+            row.get("status", String.class),
+            row.get("version", Long.class)
+        );
+    }
+
+    // WHERE clause of a TaskFilter in the (archived, due_date, status) order of the index, with its bind values
+    private static class Conditions {
+        private final StringBuilder sql = new StringBuilder(" WHERE archived = false");
+        private final Map<String, Object> values = new LinkedHashMap<>();
+
+        private Conditions(TaskFilter filter, LocalDate today) {
+            if (filter.getDueDate() != null) {
+                this.add("due_date = :dueDate", "dueDate", filter.getDueDate());
+            }
+            if (filter.getDueFrom() != null) {
+                this.add("due_date >= :dueFrom", "dueFrom", filter.getDueFrom());
+            }
+            if (filter.getDueTo() != null) {
+                this.add("due_date <= :dueTo", "dueTo", filter.getDueTo());
+            }
+            if (filter.isOverdue()) {
+                this.add("due_date < :today", "today", today);
+                this.add("status <> :done", "done", TaskStatus.DONE.name());
+            }
+            if (filter.getStatus() != null) {
+                this.add("status = :status", "status", filter.getStatus().name());
+            }
+        }
+
+        private void add(String condition, String name, Object value) {
+            this.sql.append(" AND ").append(condition);
+            this.values.put(name, value);
+        }
+
+        private DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec) {
+            for (Map.Entry<String, Object> value : this.values.entrySet()) {
+                spec = spec.bind(value.getKey(), value.getValue());
+            }
+            return spec;
+        }
+    }
+}
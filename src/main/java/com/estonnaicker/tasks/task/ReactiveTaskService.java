@@ -0,0 +1,27 @@
+package com.estonnaicker.tasks.task;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.estonnaicker.tasks.task.dto.TaskCreateDto;
+import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.task.dto.TaskStatsDto;
+import com.estonnaicker.tasks.task.dto.TaskUpdateDto;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactiveTaskService {
+    Mono<TaskDto> createTask(TaskCreateDto taskDto);
+
+    Mono<TaskDto> getTaskById(Long taskId);
+
+    Mono<Page<TaskDto>> getAllTasks(TaskFilter filter, Pageable pageable);
+
+    // expectedVersion comes from If-Match, null skips the check
+
+    Mono<TaskDto> updateTask(Long taskId, TaskUpdateDto taskDto, Long expectedVersion);
+
+    Mono<Void> deleteTask(Long taskId, Long expectedVersion);
+
+    Mono<TaskStatsDto> getTaskStats();
+}
@@ -8,19 +8,22 @@ import com.estonnaicker.tasks.utils.enums.TaskStatus;
 import lombok.*;
 
 @Entity
-@Table
+// Every listing filters on archived first, date ranges and overdue then scan a contiguous slice of due_date
+@Table(indexes = @Index(name = "idx_task_archived_due_date_status", columnList = "archived, dueDate, status"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
 @Setter
 @ToString
 public class Task {
-    
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Ids are reserved in blocks so bulk inserts don't hit the sequence for every row
     @Id
     @SequenceGenerator(
         name = "task_sequence",
         sequenceName = "task_sequence",
-        allocationSize = 1
+        allocationSize = Task.ID_ALLOCATION_SIZE
     )
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_sequence")
     private Long id;
@@ -38,4 +41,9 @@ public class Task {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private TaskStatus status;
+
+    // Bumped by every write, including the bulk UPDATE statements, and served as the ETag
+    @Version
+    @Column(nullable = false)
+    private long version;
 }
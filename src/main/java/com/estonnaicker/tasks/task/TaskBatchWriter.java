@@ -0,0 +1,49 @@
+package com.estonnaicker.tasks.task;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Inserts the tasks of one batch create. A batch is capped at tasks.batch.max-size tasks, and the
+ * persistence context is flushed and cleared after every JDBC batch, so a large batch doesn't keep
+ * every entity it inserted managed until the transaction commits.
+ */
+@Component
+public class TaskBatchWriter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int maxSize;
+    private final int flushEvery;
+
+    public TaskBatchWriter(
+        @Value("${tasks.batch.max-size:1000}") int maxSize,
+        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int flushEvery
+    ) {
+        this.maxSize = maxSize;
+        this.flushEvery = flushEvery;
+    }
+
+    public void checkSize(int size) {
+        if (size > this.maxSize) {
+            throw new IllegalArgumentException("A batch can hold at most " + this.maxSize + " tasks, got " + size);
+        }
+    }
+
+    // Runs in the caller's transaction. Ids come from the pooled sequence, so they are set on persist
+    public void insert(List<Task> tasks) {
+        for (int i = 0; i < tasks.size(); i++) {
+            this.entityManager.persist(tasks.get(i));
+            if ((i + 1) % this.flushEvery == 0) {
+                this.entityManager.flush();
+                this.entityManager.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.estonnaicker.tasks.task;
+
+import java.time.Instant;
+
+import lombok.Getter;
+
+// Progress of a bulk archive or status transition, updated after every committed chunk
+@Getter
+public class TaskBulkJob {
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final long id;
+    private final String operation;
+    private final Instant startedAt = Instant.now();
+
+    private volatile State state = State.RUNNING;
+    private volatile long affected;
+    private volatile int chunks;
+    private volatile Instant finishedAt;
+
+    public TaskBulkJob(long id, String operation) {
+        this.id = id;
+        this.operation = operation;
+    }
+
+    void chunkCommitted(int affectedRows) {
+        this.affected += affectedRows;
+        this.chunks++;
+    }
+
+    void finish(State state) {
+        this.state = state;
+        this.finishedAt = Instant.now();
+    }
+}
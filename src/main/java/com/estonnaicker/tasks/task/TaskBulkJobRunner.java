@@ -0,0 +1,73 @@
+package com.estonnaicker.tasks.task;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs set based updates over every task matching a specification in chunks of ids.
+ * Each chunk is its own transaction so a run over millions of rows never holds one
+ * long transaction, and progress is recorded on a job that can be polled meanwhile.
+ */
+@Slf4j
+@Component
+public class TaskBulkJobRunner {
+    private static final int MAX_RECENT_JOBS = 50;
+
+    private final TaskRepository taskRepository;
+    private final int chunkSize;
+    private final AtomicLong jobIds = new AtomicLong();
+    private final Deque<TaskBulkJob> recentJobs = new ConcurrentLinkedDeque<>();
+
+    public TaskBulkJobRunner(
+        TaskRepository taskRepository,
+        @Value("${tasks.bulk.chunk-size:1000}") int chunkSize
+    ) {
+        this.taskRepository = taskRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    // chunkUpdate receives the ids of one chunk, runs its UPDATE and returns the rows changed
+    public TaskBulkJob run(String operation, Specification<Task> spec, ToIntFunction<List<Long>> chunkUpdate) {
+        TaskBulkJob job = new TaskBulkJob(this.jobIds.incrementAndGet(), operation);
+        this.track(job);
+
+        try {
+            Long lastId = null;
+            List<Long> ids = this.taskRepository.findIds(spec, lastId, this.chunkSize);
+            while (!ids.isEmpty()) {
+                job.chunkCommitted(chunkUpdate.applyAsInt(ids));
+                log.info("Bulk {} job {}: {} tasks after {} chunks", operation, job.getId(), job.getAffected(), job.getChunks());
+
+                lastId = ids.get(ids.size() - 1);
+                ids = ids.size() < this.chunkSize ? List.of() : this.taskRepository.findIds(spec, lastId, this.chunkSize);
+            }
+            job.finish(TaskBulkJob.State.COMPLETED);
+        } catch (RuntimeException ex) {
+            job.finish(TaskBulkJob.State.FAILED);
+            throw ex;
+        }
+        return job;
+    }
+
+    // Newest first
+    public List<TaskBulkJob> getRecentJobs() {
+        return new ArrayList<>(this.recentJobs);
+    }
+
+    private void track(TaskBulkJob job) {
+        this.recentJobs.addFirst(job);
+        while (this.recentJobs.size() > MAX_RECENT_JOBS) {
+            this.recentJobs.pollLast();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.estonnaicker.tasks.task;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.estonnaicker.tasks.utils.Bulkhead;
+import com.estonnaicker.tasks.utils.BulkheadStatsDto;
+
+/**
+ * Separate bulkheads for the async task endpoints: single task lookups on one, listings with
+ * their COUNT, exports and bulk operations on the other. A burst of listings can then fill and
+ * overflow the heavy bulkhead while lookups keep their own threads.
+ */
+@Component
+public class TaskBulkheads implements DisposableBean {
+
+    private final Bulkhead reads;
+    private final Bulkhead heavy;
+
+    public TaskBulkheads(
+        @Value("${tasks.bulkhead.reads.threads:8}") int readThreads,
+        @Value("${tasks.bulkhead.reads.queue:100}") int readQueue,
+        @Value("${tasks.bulkhead.reads.timeout:2s}") Duration readTimeout,
+        @Value("${tasks.bulkhead.heavy.threads:4}") int heavyThreads,
+        @Value("${tasks.bulkhead.heavy.queue:20}") int heavyQueue,
+        @Value("${tasks.bulkhead.heavy.timeout:30s}") Duration heavyTimeout
+    ) {
+        this.reads = new Bulkhead("reads", readThreads, readQueue, readTimeout);
+        this.heavy = new Bulkhead("heavy", heavyThreads, heavyQueue, heavyTimeout);
+    }
+
+    public Bulkhead reads() {
+        return this.reads;
+    }
+
+    public Bulkhead heavy() {
+        return this.heavy;
+    }
+
+    public List<BulkheadStatsDto> stats() {
+        return List.of(this.reads.stats(), this.heavy.stats());
+    }
+
+    @Override
+    public void destroy() {
+        this.reads.shutdown();
+        this.heavy.shutdown();
+    }
+}
@@ -0,0 +1,123 @@
+package com.estonnaicker.tasks.task;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.estonnaicker.tasks.task.dto.TaskCacheStatsDto;
+import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-through cache of task dtos keyed by id, bounded by size and time since write.
+ *
+ * A load registers a token for its id and only stores its result when that token is still
+ * registered, invalidating an id drops its token. So a dto read before an update or archive
+ * can never land in the cache after that write has evicted it, while writes to other ids
+ * don't stop it from being stored. Tokens only live while a load of their id is in flight.
+ */
+@Component
+public class TaskCache {
+
+    private final Cache<Long, TaskDto> cache;
+    private final ConcurrentMap<Long, Object> loads = new ConcurrentHashMap<>();
+
+    public TaskCache(
+        @Value("${tasks.cache.max-size:10000}") long maxSize,
+        @Value("${tasks.cache.ttl:5m}") Duration ttl
+    ) {
+        this.cache = Caffeine.newBuilder()
+                             .maximumSize(maxSize)
+                             .expireAfterWrite(ttl)
+                             .recordStats()
+                             .build();
+    }
+
+    public TaskDto get(Long taskId, Function<Long, TaskDto> loader) {
+        TaskDto cached = this.cache.getIfPresent(taskId);
+        if (cached != null) {
+            return cached;
+        }
+
+        Object token = this.loads.computeIfAbsent(taskId, id -> new Object());
+        try {
+            TaskDto loaded = loader.apply(taskId);
+            this.store(taskId, token, loaded);
+            return loaded;
+        } finally {
+            this.loads.remove(taskId, token);
+        }
+    }
+
+    // get for loaders that don't block, the result is stored under the same token check once it arrives
+    public Mono<TaskDto> getAsync(Long taskId, Function<Long, Mono<TaskDto>> loader) {
+        return Mono.defer(() -> {
+            TaskDto cached = this.cache.getIfPresent(taskId);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+
+            Object token = this.loads.computeIfAbsent(taskId, id -> new Object());
+            return loader.apply(taskId)
+                         .doOnNext(loaded -> this.store(taskId, token, loaded))
+                         .doFinally(signal -> this.loads.remove(taskId, token));
+        });
+    }
+
+    // Cached dto or null, without loading or counting towards the hit rate
+    public TaskDto peek(Long taskId) {
+        return this.cache.asMap().get(taskId);
+    }
+
+    // Evicts now and again once the surrounding transaction completes, so reads racing the commit can't keep the old row
+    public void invalidate(Long taskId) {
+        this.evict(taskId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(taskId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        this.loads.clear();
+        this.cache.invalidateAll();
+    }
+
+    public TaskCacheStatsDto stats() {
+        CacheStats stats = this.cache.stats();
+        return new TaskCacheStatsDto(
+            stats.hitCount(),
+            stats.missCount(),
+            stats.evictionCount(),
+            stats.hitRate(),
+            this.cache.estimatedSize()
+        );
+    }
+
+    // compute is atomic with evict's invalidate for the same key, evict drops the token before that
+    private void store(Long taskId, Object token, TaskDto loaded) {
+        this.cache.asMap().compute(taskId, (id, current) ->
+            this.loads.get(id) == token ? loaded : current
+        );
+    }
+
+    private void evict(Long taskId) {
+        this.loads.remove(taskId);
+        this.cache.invalidate(taskId);
+    }
+}
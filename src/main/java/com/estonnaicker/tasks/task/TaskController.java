@@ -1,16 +1,22 @@
 package com.estonnaicker.tasks.task;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.List;
 
 import javax.validation.Valid;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -19,25 +25,38 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.estonnaicker.tasks.exception.ErrorResponse;
+import com.estonnaicker.tasks.exception.GlobalExceptionHandler;
 import com.estonnaicker.tasks.exception.InvalidTaskFieldException;
+import com.estonnaicker.tasks.task.dto.TaskBatchResultDto;
+import com.estonnaicker.tasks.task.dto.TaskBulkActionDto;
 import com.estonnaicker.tasks.task.dto.TaskCreateDto;
 import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.task.dto.TaskImportResultDto;
+import com.estonnaicker.tasks.task.dto.TaskStatsDto;
 import com.estonnaicker.tasks.task.dto.TaskUpdateDto;
 import com.estonnaicker.tasks.utils.ApiResponse;
 import com.estonnaicker.tasks.utils.PagedApiResponse;
+import com.estonnaicker.tasks.utils.enums.ExportFormat;
+import com.estonnaicker.tasks.utils.enums.PagingMode;
 import com.estonnaicker.tasks.utils.enums.TaskStatus;
+import com.estonnaicker.tasks.utils.enums.TotalsMode;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 
 @RestController
+// ReactiveTaskController serves these paths under the reactive profile
+@Profile("!reactive")
 @RequestMapping(path = "/api/v1/tasks")
 @Api(tags = {"Tasks"})
 public class TaskController {
@@ -60,23 +79,33 @@ public class TaskController {
             required = true,
             example = "E.g 1"
         )
-        @PathVariable("id") Long taskId
+        @PathVariable("id") Long taskId,
+        WebRequest request
     ) {
         TaskDto taskDto = this.taskService.getTaskById(taskId);
+
+        // Cached tasks are answered with a 304 without touching the database or serializing the body
+        if (request.checkNotModified(TaskETags.of(taskDto))) {
+            return null;
+        }
         return new ApiResponse<TaskDto>(taskDto);
     }
 
     @GetMapping
     @ApiOperation(
         value = "Retrieve Tasks",
-        notes = "Fetches tasks via pagination with optional filtering on status and dueDate",
+        notes = "Fetches tasks via pagination with optional filtering on status, dueDate, a dueFrom/dueTo range and overdue, "
+            + "and an optional full text search q ranking the best matches first. "
+            + "KEYSET paging returns a nextCursor in the metadata to pass back for the following page. "
+            + "SLICE paging skips the total count and only reports whether there is a next page. "
+            + "APPROXIMATE totals may be served from a cache or the database's row estimate",
         response = PagedApiResponse.class
     )
     public PagedApiResponse<TaskDto> getTasks(
         @ApiParam(
             value = "Filter tasks by status",
             required = false,
-            allowableValues = "TODO, IN_PROGRESS, COMPLETED"
+            allowableValues = "TODO, IN_PROGRESS, DONE"
         )
         @RequestParam(required = false) TaskStatus status,
 
@@ -87,16 +116,139 @@ public class TaskController {
             format = "date"
         )
         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDate,
+        @ApiParam(
+            value = "Only tasks due on or after this date",
+            required = false,
+            type = "string",
+            format = "date"
+        )
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+        @ApiParam(
+            value = "Only tasks due on or before this date",
+            required = false,
+            type = "string",
+            format = "date"
+        )
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+        @ApiParam(
+            value = "Only tasks that are not done and were due before today",
+            required = false
+        )
+        @RequestParam(defaultValue = "false") boolean overdue,
+        @ApiParam(
+            value = "Full text search on title and description, best matches first. Not available with KEYSET paging",
+            required = false
+        )
+        @RequestParam(required = false) String q,
         @ApiParam(
             value = "Pagination and sorting parameters (e.g., page=0, size=10, sort=id,asc)",
             required = false
         )
-        @PageableDefault(size = 10, sort = "id", direction = Sort.Direction.ASC) Pageable pageable
+        @PageableDefault(size = 10, sort = "id", direction = Sort.Direction.ASC) Pageable pageable,
+        @ApiParam(
+            value = "Pagination mode",
+            required = false,
+            allowableValues = "OFFSET, KEYSET, SLICE"
+        )
+        @RequestParam(defaultValue = "OFFSET") PagingMode paging,
+        @ApiParam(
+            value = "Opaque cursor from a previous KEYSET page, implies KEYSET paging",
+            required = false
+        )
+        @RequestParam(required = false) String cursor,
+        @ApiParam(
+            value = "Whether OFFSET paging may use a cached or estimated total",
+            required = false,
+            allowableValues = "EXACT, APPROXIMATE"
+        )
+        @RequestParam(defaultValue = "EXACT") TotalsMode totals,
+        WebRequest request
     ) {
-        Page<TaskDto> page = taskService.getAllTasks(status, dueDate, pageable);
+        TaskFilter filter = new TaskFilter(status, dueDate, dueFrom, dueTo, overdue, q == null || q.isBlank() ? null : q.strip());
+        PagedApiResponse<TaskDto> response = getTasksPage(this.taskService, filter, pageable, paging, cursor, totals);
+
+        if (request.checkNotModified(TaskETags.of(response))) {
+            return null;
+        }
+        return response;
+    }
+
+    // Shared with AsyncTaskController, which runs it on a bulkhead
+    static PagedApiResponse<TaskDto> getTasksPage(
+        TaskService taskService,
+        TaskFilter filter,
+        Pageable pageable,
+        PagingMode paging,
+        String cursor,
+        TotalsMode totals
+    ) {
+        if (paging == PagingMode.KEYSET || cursor != null) {
+            return new PagedApiResponse<TaskDto>(taskService.getAllTasksAfter(filter, cursor, pageable));
+        }
+
+        if (paging == PagingMode.SLICE) {
+            return new PagedApiResponse<TaskDto>(taskService.getAllTasksSlice(filter, pageable));
+        }
+
+        if (totals == TotalsMode.APPROXIMATE) {
+            return new PagedApiResponse<TaskDto>(taskService.getAllTasksWithApproximateTotal(filter, pageable));
+        }
+
+        Page<TaskDto> page = taskService.getAllTasks(filter, pageable);
         return new PagedApiResponse<TaskDto>(page.getContent(), page);
     }
 
+    @GetMapping("export")
+    @ApiOperation(
+        value = "Export Tasks",
+        notes = "Streams every task matching the optional status and dueDate filters as NDJSON or CSV"
+    )
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+        @ApiParam(
+            value = "Filter tasks by status",
+            required = false,
+            allowableValues = "TODO, IN_PROGRESS, DONE"
+        )
+        @RequestParam(required = false) TaskStatus status,
+        @ApiParam(
+            value = "Filter tasks by due date",
+            required = false,
+            type = "string",
+            format = "date"
+        )
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDate,
+        @ApiParam(
+            value = "Output format",
+            required = false,
+            allowableValues = "NDJSON, CSV"
+        )
+        @RequestParam(defaultValue = "NDJSON") ExportFormat format
+    ) {
+        boolean csv = format == ExportFormat.CSV;
+        StreamingResponseBody body = out -> taskService.exportTasks(status, dueDate, format, out);
+
+        return ResponseEntity.ok()
+                             .contentType(csv ? new MediaType("text", "csv") : new MediaType("application", "x-ndjson"))
+                             .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tasks." + (csv ? "csv" : "ndjson"))
+                             .body(body);
+    }
+
+    @PostMapping(path = "import", consumes = "text/csv")
+    @ApiOperation(
+        value = "Import Tasks",
+        notes = "Loads tasks from a CSV body with a title, description, dueDate and status header. "
+            + "Invalid rows are reported by line number and the rest are still imported",
+        response = TaskImportResultDto.class
+    )
+    public ResponseEntity<ApiResponse<TaskImportResultDto>> importTasks(InputStream csv) throws IOException {
+        TaskImportResultDto result = taskService.importTasks(csv);
+
+        return new ResponseEntity<ApiResponse<TaskImportResultDto>>(
+            new ApiResponse<TaskImportResultDto>(result),
+            result.hasRejects() ? HttpStatus.MULTI_STATUS : HttpStatus.CREATED
+        );
+    }
+
     @PostMapping
     @ApiOperation(
         value = "Create Tasks",
@@ -112,13 +264,35 @@ public class TaskController {
         );
     }
 
+    @PostMapping("batch")
+    @ApiOperation(
+        value = "Create Tasks in bulk",
+        notes = "Creates many tasks in one request. Invalid tasks are reported per item and the rest are still created. Lists over tasks.batch.max-size are rejected",
+        response = TaskBatchResultDto.class
+    )
+    public ResponseEntity<ApiResponse<TaskBatchResultDto>> createTasks(
+        @ApiParam(
+            value = "JSON list of tasks to create",
+            required = true
+        )
+        @RequestBody List<TaskCreateDto> taskDtos
+    ) {
+        TaskBatchResultDto result = taskService.createTasks(taskDtos);
+
+        // 207 lets clients know some of the tasks were rejected
+        return new ResponseEntity<ApiResponse<TaskBatchResultDto>>(
+            new ApiResponse<TaskBatchResultDto>(result),
+            result.hasErrors() ? HttpStatus.MULTI_STATUS : HttpStatus.CREATED
+        );
+    }
+
     @PatchMapping("{id}")
     @ApiOperation(
         value = "Update Tasks",
-        notes = "Updates a task",
+        notes = "Updates a task. With If-Match the update only applies while the task is still at that version",
         response = ApiResponse.class
     )
-    public ApiResponse<TaskDto> updateTask(
+    public ResponseEntity<ApiResponse<TaskDto>> updateTask(
         @ApiParam(
             value = "Unique identifier (number) of the task",
             required = true,
@@ -129,16 +303,23 @@ public class TaskController {
             value = "JSON Field values of the task to update",
             required = true
         )
-        @Valid @RequestBody TaskUpdateDto taskDto
+        @Valid @RequestBody TaskUpdateDto taskDto,
+        @ApiParam(
+            value = "ETag of the version being updated, the update fails with 412 once the task has changed",
+            required = false
+        )
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        TaskDto task = taskService.updateTask(taskId, taskDto);
-        return new ApiResponse<TaskDto>(task);
+        TaskDto task = taskService.updateTask(taskId, taskDto, TaskETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                             .eTag(TaskETags.of(task))
+                             .body(new ApiResponse<TaskDto>(task));
     }
 
     @DeleteMapping("{id}")
     @ApiOperation(
         value = "Delete Tasks",
-        notes = "Deletes a task",
+        notes = "Deletes a task. With If-Match the delete only applies while the task is still at that version",
         response = ApiResponse.class
     )
     public ApiResponse<Long> deleteTask(
@@ -147,12 +328,69 @@ public class TaskController {
             required = true,
             example = "E.g 1"
         )
-        @PathVariable("id") Long taskId
+        @PathVariable("id") Long taskId,
+        @ApiParam(
+            value = "ETag of the version being deleted, the delete fails with 412 once the task has changed",
+            required = false
+        )
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        taskService.deleteTask(taskId);
+        taskService.deleteTask(taskId, TaskETags.parseIfMatch(ifMatch));
         return new ApiResponse<Long>(taskId);
     }
 
+    @PostMapping("bulk/archive")
+    @ApiOperation(
+        value = "Archive Tasks by filter",
+        notes = "Soft-deletes every task matching the filter in chunked transactions and returns the affected count",
+        response = TaskBulkJob.class
+    )
+    public ApiResponse<TaskBulkJob> archiveTasks(
+        @ApiParam(
+            value = "Filter of the tasks to archive, at least one of status, dueDate or dueBefore",
+            required = true
+        )
+        @RequestBody TaskBulkActionDto bulkDto
+    ) {
+        return new ApiResponse<TaskBulkJob>(taskService.archiveTasks(bulkDto));
+    }
+
+    @PostMapping("bulk/status")
+    @ApiOperation(
+        value = "Change status of Tasks by filter",
+        notes = "Moves every task matching the filter to newStatus in chunked transactions and returns the affected count",
+        response = TaskBulkJob.class
+    )
+    public ApiResponse<TaskBulkJob> updateTasksStatus(
+        @ApiParam(
+            value = "Filter of the tasks to change along with newStatus",
+            required = true
+        )
+        @RequestBody TaskBulkActionDto bulkDto
+    ) {
+        return new ApiResponse<TaskBulkJob>(taskService.updateTasksStatus(bulkDto));
+    }
+
+    @GetMapping("bulk/jobs")
+    @ApiOperation(
+        value = "Bulk job progress",
+        notes = "Lists recent bulk jobs, newest first, including the ones still running"
+    )
+    public ApiResponse<List<TaskBulkJob>> getBulkJobs() {
+        return new ApiResponse<List<TaskBulkJob>>(taskService.getBulkJobs());
+    }
+
+    @GetMapping("stats")
+    @ApiOperation(
+        value = "Task statistics",
+        notes = "Counts of non-archived tasks per status and due week, and the number of overdue tasks. "
+            + "Served from counters kept up to date by writes and recounted periodically, "
+            + "so the cost doesn't grow with the number of tasks"
+    )
+    public ApiResponse<TaskStatsDto> getTaskStats() {
+        return new ApiResponse<TaskStatsDto>(taskService.getTaskStats());
+    }
+
     @ExceptionHandler(InvalidTaskFieldException.class)
     public ResponseEntity<ErrorResponse> handleInvalidTaskFieldException(InvalidTaskFieldException ex) {
         ErrorResponse errorResponse = new ErrorResponse();
@@ -161,11 +399,15 @@ public class TaskController {
         errorResponse.setTimeStamp(System.currentTimeMillis());  
         errorResponse.addError(ex.getField(), ex.getMessage());
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return GlobalExceptionHandler.respond(errorResponse, HttpStatus.BAD_REQUEST, ex);
     }
 
     @ExceptionHandler({ MethodArgumentTypeMismatchException.class })
     public ResponseEntity<ErrorResponse> handleMethodArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return invalidInputType(ex);
+    }
+
+    static ResponseEntity<ErrorResponse> invalidInputType(MethodArgumentTypeMismatchException ex) {
         ErrorResponse errorResponse = new ErrorResponse();
         errorResponse.setStatus(HttpStatus.BAD_REQUEST.value());
         errorResponse.setMessage("Invalid Input Type");
@@ -184,6 +426,6 @@ public class TaskController {
             errorResponse.addError(ex.getName(), "Expected type " + ex.getRequiredType().getSimpleName());
         }
 
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        return GlobalExceptionHandler.respond(errorResponse, HttpStatus.BAD_REQUEST, ex);
     }
 }
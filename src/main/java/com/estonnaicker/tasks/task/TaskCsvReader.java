@@ -0,0 +1,85 @@
+package com.estonnaicker.tasks.task;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 style CSV one record at a time, so an upload is never held in memory.
+ * Quoted fields may contain commas, doubled quotes and line breaks.
+ */
+public class TaskCsvReader {
+    private final Reader reader;
+    private int next = -2;
+    private long line = 1;
+    private long recordLine;
+
+    public TaskCsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    // Returns null once the input is exhausted
+    public List<String> readRecord() throws IOException {
+        if (this.peek() == -1) {
+            return null;
+        }
+
+        this.recordLine = this.line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            int c = this.read();
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field starting on line " + this.recordLine);
+                }
+                if (c == '"') {
+                    if (this.peek() == '"') {
+                        field.append((char) this.read());
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && this.peek() == '\n') {
+                    this.read();
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    // Line the last record returned by readRecord started on
+    public long getRecordLine() {
+        return this.recordLine;
+    }
+
+    private int peek() throws IOException {
+        if (this.next == -2) {
+            this.next = this.reader.read();
+        }
+        return this.next;
+    }
+
+    private int read() throws IOException {
+        int c = this.peek();
+        this.next = -2;
+        if (c == '\n' || (c == '\r' && this.peek() != '\n')) {
+            this.line++;
+        }
+        return c;
+    }
+}
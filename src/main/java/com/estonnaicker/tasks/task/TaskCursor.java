@@ -0,0 +1,121 @@
+package com.estonnaicker.tasks.task;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+
+import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.Getter;
+
+/**
+ * Position of the last row of a keyset page. The encoded form holds the sort it was
+ * built for followed by that row's value for every sort property, ending with the id.
+ */
+@Getter
+public class TaskCursor {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Sort sort;
+    private final List<Comparable<?>> values;
+
+    private TaskCursor(Sort sort, List<Comparable<?>> values) {
+        this.sort = sort;
+        this.values = values;
+    }
+
+    // Id is appended as the last sort property so rows with equal sort values keep a stable order
+    public static Sort withIdTiebreak(Sort sort) {
+        if (sort.getOrderFor("id") != null) {
+            return sort;
+        }
+        return sort.and(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    public static TaskCursor of(TaskDto task, Sort sort) {
+        List<Comparable<?>> values = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            values.add(valueOf(task, order.getProperty()));
+        }
+        return new TaskCursor(sort, values);
+    }
+
+    public static TaskCursor decode(String cursor, Sort sort) {
+        List<String> parts;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            parts = MAPPER.readValue(json, new TypeReference<List<String>>() {});
+        } catch (IllegalArgumentException | IOException ex) {
+            throw new IllegalArgumentException("Invalid cursor supplied");
+        }
+
+        List<Sort.Order> orders = sort.toList();
+        if (parts.size() != orders.size() + 1 || !sort.toString().equals(parts.get(0))) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+
+        List<Comparable<?>> values = new ArrayList<>();
+        try {
+            for (int i = 0; i < orders.size(); i++) {
+                values.add(parse(orders.get(i).getProperty(), parts.get(i + 1)));
+            }
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor supplied");
+        }
+        return new TaskCursor(sort, values);
+    }
+
+    public String encode() {
+        List<String> parts = new ArrayList<>();
+        parts.add(this.sort.toString());
+        for (Comparable<?> value : this.values) {
+            parts.add(value.toString());
+        }
+
+        try {
+            byte[] json = MAPPER.writeValueAsString(parts).getBytes(StandardCharsets.UTF_8);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not encode cursor", ex);
+        }
+    }
+
+    private static Comparable<?> valueOf(TaskDto task, String property) {
+        switch (property) {
+            case "id":
+                return task.getId();
+            case "title":
+                return task.getTitle();
+            case "dueDate":
+                return task.getDueDate();
+            case "status":
+                return TaskStatus.valueOf(task.getStatus());
+            default:
+                throw new IllegalArgumentException("Cannot build a cursor for sort property: " + property);
+        }
+    }
+
+    private static Comparable<?> parse(String property, String value) {
+        switch (property) {
+            case "id":
+                return Long.valueOf(value);
+            case "title":
+                return value;
+            case "dueDate":
+                return LocalDate.parse(value);
+            case "status":
+                return TaskStatus.valueOf(value);
+            default:
+                throw new IllegalArgumentException("Cannot build a cursor for sort property: " + property);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.estonnaicker.tasks.task;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.util.DigestUtils;
+
+import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.utils.PagedApiResponse;
+
+/**
+ * Strong ETags built from task versions. Every write bumps a task's version, so a task is
+ * identified by its version and a page by the id and version of each task plus its metadata.
+ * Neither needs the response body to be serialized first.
+ */
+public final class TaskETags {
+
+    private TaskETags() {
+    }
+
+    public static String of(TaskDto task) {
+        return "\"" + task.getVersion() + "\"";
+    }
+
+    public static String of(PagedApiResponse<TaskDto> page) {
+        StringBuilder key = new StringBuilder(page.getMetadata().toString());
+        for (TaskDto task : page.getData()) {
+            key.append(';').append(task.getId()).append(':').append(task.getVersion());
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    // Version named by an If-Match header, null when the header is absent or *
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String etag = ifMatch.trim();
+        try {
+            if (etag.length() > 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+                return Long.valueOf(etag.substring(1, etag.length() - 1));
+            }
+        } catch (NumberFormatException ex) {
+            // Falls through to the error below
+        }
+        throw new IllegalArgumentException("If-Match must be a single strong ETag, e.g. \"3\"");
+    }
+}
@@ -0,0 +1,162 @@
+package com.estonnaicker.tasks.task;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.estonnaicker.tasks.utils.enums.ExportFormat;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Streams non-archived tasks straight from a forward-only JDBC cursor to an output stream.
+ * Rows are written as they are fetched so memory use doesn't grow with the number of matches.
+ */
+@Component
+public class TaskExporter {
+    private static final String SELECT = "SELECT id, title, description, due_date, status FROM task WHERE archived = false";
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public TaskExporter(
+        DataSource dataSource,
+        PlatformTransactionManager transactionManager,
+        @Value("${tasks.export.fetch-size:1000}") int fetchSize
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // PostgreSQL only honours the fetch size with autocommit off, hence the read-only transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    // Returns the number of tasks written
+    public long export(TaskStatus status, LocalDate dueDate, ExportFormat format, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>();
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status.name());
+        }
+        if (dueDate != null) {
+            sql.append(" AND due_date = ?");
+            args.add(dueDate);
+        }
+        sql.append(" ORDER BY id");
+
+        RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+        long[] rows = new long[1];
+        try {
+            this.transactionTemplate.executeWithoutResult(tx ->
+                this.jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> {
+                    try {
+                        writer.write(rs);
+                        rows[0]++;
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }, args.toArray())
+            );
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.finish();
+        return rows[0];
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = JSON.createGenerator(out, JsonEncoding.UTF8);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            this.generator.writeStartObject();
+            this.generator.writeNumberField("id", rs.getLong(1));
+            this.generator.writeStringField("title", rs.getString(2));
+            this.generator.writeStringField("description", rs.getString(3));
+            this.generator.writeStringField("dueDate", rs.getDate(4).toLocalDate().toString());
+            this.generator.writeStringField("status", rs.getString(5));
+            this.generator.writeEndObject();
+            this.generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            this.generator.close();
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            this.writer.write("id,title,description,dueDate,status\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            this.writer.write(Long.toString(rs.getLong(1)));
+            this.writer.write(',');
+            this.writeEscaped(rs.getString(2));
+            this.writer.write(',');
+            this.writeEscaped(rs.getString(3));
+            this.writer.write(',');
+            this.writer.write(rs.getDate(4).toLocalDate().toString());
+            this.writer.write(',');
+            this.writer.write(rs.getString(5));
+            this.writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            this.writer.flush();
+        }
+
+        private void writeEscaped(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                this.writer.write(value);
+                return;
+            }
+            this.writer.write('"');
+            this.writer.write(value.replace("\"", "\"\""));
+            this.writer.write('"');
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.estonnaicker.tasks.task;
+
+import java.time.LocalDate;
+
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Filters of the task listings, a null field or overdue=false doesn't filter. Overdue tasks
+ * are the ones that are not done and were due before today, q is a full text search on the
+ * title and description.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class TaskFilter {
+    private final TaskStatus status;
+    private final LocalDate dueDate;
+    private final LocalDate dueFrom;
+    private final LocalDate dueTo;
+    private final boolean overdue;
+    private final String q;
+
+    public static TaskFilter of(TaskStatus status, LocalDate dueDate) {
+        return new TaskFilter(status, dueDate, null, null, false, null);
+    }
+
+    public boolean isEmpty() {
+        return this.status == null && this.dueDate == null && this.dueFrom == null && this.dueTo == null && !this.overdue
+            && this.q == null;
+    }
+}
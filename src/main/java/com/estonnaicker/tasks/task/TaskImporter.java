@@ -0,0 +1,223 @@
+package com.estonnaicker.tasks.task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.estonnaicker.tasks.config.DatabasePlatform;
+import com.estonnaicker.tasks.exception.ImportFailedException;
+import com.estonnaicker.tasks.task.dto.TaskBatchErrorDto;
+import com.estonnaicker.tasks.task.dto.TaskCreateDto;
+import com.estonnaicker.tasks.task.dto.TaskImportResultDto;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads tasks from a CSV upload with a title, description, dueDate and status header.
+ * Rows are parsed and validated as they stream in and written in chunks, each chunk in
+ * its own transaction. On PostgreSQL a chunk is one COPY, elsewhere a batched insert.
+ * Invalid rows are skipped and reported with their line number. An upload that can't be
+ * parsed fails with an ImportFailedException telling how many tasks were already imported.
+ */
+@Slf4j
+@Component
+public class TaskImporter {
+    private static final String COPY_SQL = "COPY task (id, archived, title, description, due_date, status, version) FROM STDIN WITH (FORMAT csv)";
+    private static final String NEXT_ID_BLOCK = "SELECT nextval('task_sequence')";
+
+    private final TaskRepository taskRepository;
+    private final TaskStats taskStats;
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxRejects;
+
+    public TaskImporter(
+        TaskRepository taskRepository,
+        TaskStats taskStats,
+        JdbcTemplate jdbcTemplate,
+        DatabasePlatform databasePlatform,
+        PlatformTransactionManager transactionManager,
+        @Value("${tasks.import.chunk-size:5000}") int chunkSize,
+        @Value("${tasks.import.max-rejects:1000}") int maxRejects
+    ) {
+        this.taskRepository = taskRepository;
+        this.taskStats = taskStats;
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxRejects = maxRejects;
+    }
+
+    // toValidEntity validates one row, filling in the error and returning null when it is rejected
+    public TaskImportResultDto importCsv(
+        InputStream in,
+        BiFunction<TaskCreateDto, TaskBatchErrorDto, Task> toValidEntity
+    ) throws IOException {
+        TaskCsvReader reader = new TaskCsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV upload is empty");
+        }
+        Columns columns = new Columns(header);
+        boolean copy = this.databasePlatform.isPostgres();
+
+        TaskImportResultDto result = new TaskImportResultDto();
+        List<Task> chunk = new ArrayList<>(this.chunkSize);
+        List<String> record;
+        try {
+            while ((record = reader.readRecord()) != null) {
+                if (record.size() == 1 && record.get(0).isEmpty()) {
+                    continue;
+                }
+
+                TaskBatchErrorDto error = new TaskBatchErrorDto();
+                error.setIndex((int) reader.getRecordLine());
+                Task task = this.toTask(record, columns, error, toValidEntity);
+                if (task == null) {
+                    this.reject(result, error);
+                    continue;
+                }
+
+                chunk.add(task);
+                if (chunk.size() == this.chunkSize) {
+                    this.load(chunk, copy, result);
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            throw new ImportFailedException(ex.getMessage(), reader.getRecordLine(), result.getImported());
+        }
+        if (!chunk.isEmpty()) {
+            this.load(chunk, copy, result);
+        }
+        return result;
+    }
+
+    private Task toTask(
+        List<String> record,
+        Columns columns,
+        TaskBatchErrorDto error,
+        BiFunction<TaskCreateDto, TaskBatchErrorDto, Task> toValidEntity
+    ) {
+        if (record.size() != columns.count) {
+            error.getErrors().put("row", String.format("Expected %d columns but found %d", columns.count, record.size()));
+            return null;
+        }
+
+        TaskCreateDto taskDto = new TaskCreateDto();
+        taskDto.setTitle(record.get(columns.title));
+        String description = columns.description < 0 ? "" : record.get(columns.description);
+        taskDto.setDescription(description.isEmpty() ? null : description);
+        taskDto.setStatus(record.get(columns.status));
+        try {
+            taskDto.setDueDate(LocalDate.parse(record.get(columns.dueDate)));
+        } catch (DateTimeParseException ex) {
+            error.getErrors().put("dueDate", "Invalid date format supplied, expected yyyy-MM-dd");
+            return null;
+        }
+        return toValidEntity.apply(taskDto, error);
+    }
+
+    private void reject(TaskImportResultDto result, TaskBatchErrorDto error) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getRejects().size() < this.maxRejects) {
+            result.getRejects().add(error);
+        }
+    }
+
+    private void load(List<Task> chunk, boolean copy, TaskImportResultDto result) {
+        if (copy) {
+            this.transactionTemplate.executeWithoutResult(tx -> this.copy(chunk));
+        } else {
+            this.transactionTemplate.executeWithoutResult(tx -> this.taskRepository.saveAll(chunk));
+        }
+        this.taskStats.created(chunk);
+        result.setImported(result.getImported() + chunk.size());
+        log.debug("Imported {} tasks", result.getImported());
+        chunk.clear();
+    }
+
+    private void copy(List<Task> chunk) {
+        StringBuilder csv = new StringBuilder(chunk.size() * 64);
+        long[] ids = this.reserveIds(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Task task = chunk.get(i);
+            csv.append(ids[i]).append(",false,");
+            appendQuoted(csv, task.getTitle());
+            csv.append(',');
+            // Unquoted empty is NULL in COPY's csv format
+            if (task.getDescription() != null) {
+                appendQuoted(csv, task.getDescription());
+            }
+            csv.append(',').append(task.getDueDate()).append(',').append(task.getStatus().name()).append(",0\n");
+        }
+
+        this.jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            try {
+                return con.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new StringReader(csv.toString()));
+            } catch (IOException ex) {
+                throw new IllegalStateException("Could not stream tasks to COPY", ex);
+            }
+        });
+    }
+
+    // Takes whole blocks from the sequence the same way Hibernate's pooled optimizer does,
+    // so COPY'd ids never overlap ids handed out to JPA inserts
+    private long[] reserveIds(int count) {
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            long hi = this.jdbcTemplate.queryForObject(NEXT_ID_BLOCK, Long.class);
+            if (hi < Task.ID_ALLOCATION_SIZE) {
+                // The first value of a fresh sequence doesn't close a full block
+                continue;
+            }
+            for (long id = hi - Task.ID_ALLOCATION_SIZE + 1; id <= hi && filled < count; id++) {
+                ids[filled++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private static void appendQuoted(StringBuilder csv, String value) {
+        csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    // Positions of the known columns in the header, unknown columns such as an exported id are ignored
+    private static class Columns {
+        private final int count;
+        private final int title;
+        private final int description;
+        private final int dueDate;
+        private final int status;
+
+        private Columns(List<String> header) {
+            this.count = header.size();
+            this.title = header.indexOf("title");
+            this.description = header.indexOf("description");
+            this.dueDate = header.indexOf("dueDate");
+            this.status = header.indexOf("status");
+            if (this.title < 0 || this.dueDate < 0 || this.status < 0) {
+                throw new IllegalArgumentException("CSV header must contain title, dueDate and status columns");
+            }
+        }
+    }
+}
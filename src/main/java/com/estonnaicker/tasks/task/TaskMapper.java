@@ -1,7 +1,9 @@
 package com.estonnaicker.tasks.task;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
@@ -40,6 +42,24 @@ public interface TaskMapper {
     @Mapping(target = "id", ignore = true)
     void updateTaskFromDto(TaskUpdateDto dto, @MappingTarget Task entity);
 
+    // Attribute name to new value for every field supplied in the update
+    default Map<String, Object> toChanges(TaskUpdateDto dto) {
+        Map<String, Object> changes = new HashMap<>();
+        if (dto.getTitle() != null) {
+            changes.put("title", dto.getTitle());
+        }
+        if (dto.getDescription() != null) {
+            changes.put("description", dto.getDescription());
+        }
+        if (dto.getDueDate() != null) {
+            changes.put("dueDate", dto.getDueDate());
+        }
+        if (dto.getStatus() != null) {
+            changes.put("status", this.stringToStatus(dto.getStatus()));
+        }
+        return changes;
+    }
+
     @Named("stringToStatus")
     default TaskStatus stringToStatus(String status) {
         try {
@@ -0,0 +1,60 @@
+package com.estonnaicker.tasks.task;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A TaskService operation in a flight recording, with its duration, so a slow request can be
+ * lined up with the GC pauses, lock waits and I/O around it. Costs next to nothing while no
+ * recording has the event enabled. Begun on entry and committed in a finally block, an
+ * operation that threw shows up with succeeded false.
+ */
+@Name("com.estonnaicker.tasks.TaskOperation")
+@Label("Task Operation")
+@Category("Tasks")
+@Description("A TaskService call")
+@StackTrace(false)
+public class TaskOperationEvent extends Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Task Id")
+    @Description("The task operated on, 0 for operations on many tasks")
+    private long taskId;
+
+    @Label("Rows")
+    @Description("Tasks returned, written or archived")
+    private long rows;
+
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    private TaskOperationEvent(String operation, Long taskId) {
+        this.operation = operation;
+        this.taskId = taskId == null ? 0 : taskId;
+    }
+
+    public static TaskOperationEvent begin(String operation, Long taskId) {
+        TaskOperationEvent event = new TaskOperationEvent(operation, taskId);
+        event.begin();
+        return event;
+    }
+
+    public static TaskOperationEvent begin(String operation) {
+        return begin(operation, null);
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId == null ? 0 : taskId;
+    }
+
+    public void succeeded(long rows) {
+        this.rows = rows;
+        this.succeeded = true;
+    }
+}
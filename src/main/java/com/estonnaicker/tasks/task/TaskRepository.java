@@ -1,12 +1,44 @@
 package com.estonnaicker.tasks.task;
 
+import java.util.List;
 import java.util.Optional;
 
+import javax.transaction.Transactional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskRepositoryCustom {
     Optional<Task> findByIdAndArchivedFalse(Long id);
+
+    boolean existsByIdAndArchivedFalse(Long id);
+
+    // JPQL updates skip Hibernate's versioning, so every one of them bumps the version itself
+
+    @Modifying
+    @Query("UPDATE Task t SET t.archived = true, t.version = t.version + 1 WHERE t.id = :id AND t.archived = false")
+    int archiveById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.archived = true, t.version = t.version + 1 "
+        + "WHERE t.id = :id AND t.archived = false AND t.version = :version")
+    int archiveByIdAndVersion(@Param("id") Long id, @Param("version") long version);
+
+    // Bulk chunks commit on their own so each one is a bounded transaction
+    @Transactional
+    @Modifying
+    @Query("UPDATE Task t SET t.archived = true, t.version = t.version + 1 WHERE t.id IN :ids AND t.archived = false")
+    int archiveByIdIn(@Param("ids") List<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Task t SET t.status = :status, t.version = t.version + 1 WHERE t.id IN :ids AND t.archived = false")
+    int updateStatusByIdIn(@Param("ids") List<Long> ids, @Param("status") TaskStatus status);
 }
@@ -0,0 +1,35 @@
+package com.estonnaicker.tasks.task;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.estonnaicker.tasks.task.dto.TaskDto;
+
+public interface TaskRepositoryCustom {
+    // The find*Dto* reads select straight into TaskDto in a read-only transaction,
+    // so no entity is hydrated, snapshotted for dirty checking or mapped afterwards
+
+    Optional<TaskDto> findDtoById(Long id);
+
+    Page<TaskDto> findDtoPage(Specification<Task> spec, Pageable pageable);
+
+    // Fetches at most limit rows without the COUNT query that a Page needs
+    List<TaskDto> findDtos(Specification<Task> spec, Sort sort, int limit);
+
+    // Fetches one row past the page to work out hasNext instead of counting
+    Slice<TaskDto> findDtoSlice(Specification<Task> spec, Pageable pageable);
+
+    // Ids in ascending order after afterId (or from the start when null)
+    List<Long> findIds(Specification<Task> spec, Long afterId, int limit);
+
+    // Single UPDATE of only the given attributes that also bumps the version, returns the number of rows changed.
+    // A non null expectedVersion makes the UPDATE match only that version
+    int updateNotArchived(Long id, Map<String, Object> changes, Long expectedVersion);
+}
@@ -0,0 +1,96 @@
+package com.estonnaicker.tasks.task;
+
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.QueryException;
+import org.hibernate.boot.MetadataBuilder;
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.dialect.function.SQLFunction;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.engine.spi.Mapping;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.type.StandardBasicTypes;
+import org.hibernate.type.Type;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * SQL functions behind TaskSpecification.matches. Both take (title, description, q, q), the
+ * query text is passed twice because Hibernate binds every argument once and in order, so each
+ * template has to use ?3 and then ?4 exactly once.
+ *
+ * On PostgreSQL a task matches when the search_vector column added by TaskSearchSchema matches
+ * the query as web search syntax, or when the query resembles a part of the title by trigram
+ * word similarity, which catches prefixes and typos. Both are served by GIN indexes. Other
+ * databases fall back to a case insensitive substring match, ranking title matches first.
+ */
+@Component
+public class TaskSearchFunctions implements MetadataBuilderContributor, HibernatePropertiesCustomizer {
+    public static final String MATCHES = "task_search_matches";
+    public static final String RANK = "task_search_rank";
+
+    // search_vector is left unqualified, task queries only ever select from the one table
+    private static final SQLFunction POSTGRES_MATCHES = new SQLFunctionTemplate(
+        StandardBasicTypes.BOOLEAN,
+        "(search_vector @@ websearch_to_tsquery('english', ?3) OR ?4 <% ?1)"
+    );
+    private static final SQLFunction POSTGRES_RANK = new SQLFunctionTemplate(
+        StandardBasicTypes.DOUBLE,
+        "(ts_rank_cd(search_vector, websearch_to_tsquery('english', ?3)) + word_similarity(?4, ?1))"
+    );
+    private static final SQLFunction FALLBACK_MATCHES = new SQLFunctionTemplate(
+        StandardBasicTypes.BOOLEAN,
+        "(LOWER(?1) LIKE ('%' || LOWER(?3) || '%') OR LOWER(COALESCE(?2, '')) LIKE ('%' || LOWER(?4) || '%'))"
+    );
+    private static final SQLFunction FALLBACK_RANK = new SQLFunctionTemplate(
+        StandardBasicTypes.DOUBLE,
+        "(CASE WHEN LOWER(?1) LIKE ('%' || LOWER(?3) || '%') THEN 2 ELSE 0 END"
+            + " + CASE WHEN LOWER(COALESCE(?2, '')) LIKE ('%' || LOWER(?4) || '%') THEN 1 ELSE 0 END)"
+    );
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put("hibernate.metadata_builder_contributor", this);
+    }
+
+    @Override
+    public void contribute(MetadataBuilder metadataBuilder) {
+        metadataBuilder.applySqlFunction(MATCHES, new PlatformFunction(POSTGRES_MATCHES, FALLBACK_MATCHES));
+        metadataBuilder.applySqlFunction(RANK, new PlatformFunction(POSTGRES_RANK, FALLBACK_RANK));
+    }
+
+    // Picks the rendering by the dialect of the session factory
+    private static class PlatformFunction implements SQLFunction {
+        private final SQLFunction postgres;
+        private final SQLFunction fallback;
+
+        private PlatformFunction(SQLFunction postgres, SQLFunction fallback) {
+            this.postgres = postgres;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public boolean hasArguments() {
+            return true;
+        }
+
+        @Override
+        public boolean hasParenthesesIfNoArguments() {
+            return true;
+        }
+
+        @Override
+        public Type getReturnType(Type firstArgumentType, Mapping mapping) throws QueryException {
+            return this.fallback.getReturnType(firstArgumentType, mapping);
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public String render(Type firstArgumentType, List arguments, SessionFactoryImplementor factory) throws QueryException {
+            boolean isPostgres = factory.getJdbcServices().getDialect() instanceof PostgreSQL81Dialect;
+            return (isPostgres ? this.postgres : this.fallback).render(firstArgumentType, arguments, factory);
+        }
+    }
+}
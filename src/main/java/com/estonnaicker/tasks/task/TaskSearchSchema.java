@@ -0,0 +1,50 @@
+package com.estonnaicker.tasks.task;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.estonnaicker.tasks.config.DatabasePlatform;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Adds the full text search column and indexes to the task table on PostgreSQL. Hibernate
+ * can't declare a generated column, so this runs once the entity manager factory has created
+ * the schema. Every statement is idempotent.
+ */
+@Slf4j
+@Component
+public class TaskSearchSchema {
+    private static final String[] POSTGRES_DDL = {
+        "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+        // Title words weigh more than description words in the rank
+        "ALTER TABLE task ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS ("
+            + "setweight(to_tsvector('english', coalesce(title, '')), 'A') || "
+            + "setweight(to_tsvector('english', coalesce(description, '')), 'B')) STORED",
+        "CREATE INDEX IF NOT EXISTS idx_task_search_vector ON task USING GIN (search_vector)",
+        "CREATE INDEX IF NOT EXISTS idx_task_title_trgm ON task USING GIN (title gin_trgm_ops)"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    // Taking the factory makes sure the table exists before this runs
+    public TaskSearchSchema(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    @PostConstruct
+    public void createSearchIndexes() {
+        if (!this.databasePlatform.isPostgres()) {
+            log.info("Full text search on {} falls back to substring matching", this.databasePlatform.getProductName());
+            return;
+        }
+        for (String ddl : POSTGRES_DDL) {
+            this.jdbcTemplate.execute(ddl);
+        }
+    }
+}
@@ -1,23 +1,57 @@
 package com.estonnaicker.tasks.task;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import com.estonnaicker.tasks.task.dto.TaskBatchResultDto;
+import com.estonnaicker.tasks.task.dto.TaskBulkActionDto;
 import com.estonnaicker.tasks.task.dto.TaskCreateDto;
 import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.task.dto.TaskImportResultDto;
+import com.estonnaicker.tasks.task.dto.TaskStatsDto;
 import com.estonnaicker.tasks.task.dto.TaskUpdateDto;
+import com.estonnaicker.tasks.utils.CursorPage;
+import com.estonnaicker.tasks.utils.EstimatedPage;
+import com.estonnaicker.tasks.utils.enums.ExportFormat;
 import com.estonnaicker.tasks.utils.enums.TaskStatus;
 
 public interface TaskService {
     TaskDto createTask(TaskCreateDto taskDto);
 
+    TaskBatchResultDto createTasks(List<TaskCreateDto> taskDtos);
+
     TaskDto getTaskById(Long taskId);
 
-    Page<TaskDto> getAllTasks(TaskStatus status, LocalDate dueDate, Pageable pageable);
+    Page<TaskDto> getAllTasks(TaskFilter filter, Pageable pageable);
+
+    EstimatedPage<TaskDto> getAllTasksWithApproximateTotal(TaskFilter filter, Pageable pageable);
+
+    Slice<TaskDto> getAllTasksSlice(TaskFilter filter, Pageable pageable);
+
+    CursorPage<TaskDto> getAllTasksAfter(TaskFilter filter, String cursor, Pageable pageable);
+
+    void exportTasks(TaskStatus status, LocalDate dueDate, ExportFormat format, OutputStream out) throws IOException;
+
+    TaskImportResultDto importTasks(InputStream csv) throws IOException;
+
+    // expectedVersion comes from If-Match, null skips the check
+
+    TaskDto updateTask(Long taskId, TaskUpdateDto taskDto, Long expectedVersion);
+
+    void deleteTask(Long taskId, Long expectedVersion);
+
+    TaskBulkJob archiveTasks(TaskBulkActionDto bulkDto);
+
+    TaskBulkJob updateTasksStatus(TaskBulkActionDto bulkDto);
 
-    TaskDto updateTask(Long taskId, TaskUpdateDto taskDto);
+    List<TaskBulkJob> getBulkJobs();
 
-    void deleteTask(Long taskId);
+    TaskStatsDto getTaskStats();
 }
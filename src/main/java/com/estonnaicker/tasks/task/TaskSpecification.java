@@ -1,7 +1,15 @@
 package com.estonnaicker.tasks.task;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import com.estonnaicker.tasks.utils.enums.TaskStatus;
 
@@ -14,8 +22,73 @@ public class TaskSpecification {
         return (root, query, cb) -> dueDate == null ? null : cb.equal(root.get("dueDate"), dueDate);
     }
 
+    public static Specification<Task> isDueBefore(LocalDate dueDate) {
+        return (root, query, cb) -> dueDate == null ? null : cb.lessThan(root.get("dueDate"), dueDate);
+    }
+
+    public static Specification<Task> isDueOnOrAfter(LocalDate dueFrom) {
+        return (root, query, cb) -> dueFrom == null ? null : cb.greaterThanOrEqualTo(root.get("dueDate"), dueFrom);
+    }
+
+    public static Specification<Task> isDueOnOrBefore(LocalDate dueTo) {
+        return (root, query, cb) -> dueTo == null ? null : cb.lessThanOrEqualTo(root.get("dueDate"), dueTo);
+    }
+
+    // Not done and due before today, null today doesn't filter
+    public static Specification<Task> isOverdue(LocalDate today) {
+        return (root, query, cb) -> today == null ? null : cb.and(
+            cb.lessThan(root.get("dueDate"), today),
+            cb.notEqual(root.get("status"), TaskStatus.DONE)
+        );
+    }
+
+    // Ranked search on title and description, see TaskSearchFunctions for the SQL on each database
+    public static Specification<Task> matches(String q) {
+        return (root, query, cb) -> {
+            if (q == null || q.isBlank()) {
+                return null;
+            }
+            Expression<?>[] args = {
+                root.get("title"), root.get("description"), cb.literal(q), cb.literal(q)
+            };
+
+            // Best matches first, count and id queries can't be ordered by an expression they don't select
+            if (query.getResultType() != Long.class) {
+                query.orderBy(cb.desc(cb.function(TaskSearchFunctions.RANK, Double.class, args)));
+            }
+            return cb.isTrue(cb.function(TaskSearchFunctions.MATCHES, Boolean.class, args));
+        };
+    }
+
     public static Specification<Task> isNotArchived() {
         return (root, query, builder) -> 
             builder.isFalse(root.get("archived"));
     }
+
+    // Keyset predicate: (a > x) OR (a = x AND b > y) OR ... for every property in the cursor's sort
+    public static Specification<Task> isAfter(TaskCursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return null;
+            }
+
+            List<Sort.Order> orders = cursor.getSort().toList();
+            List<Predicate> alternatives = new ArrayList<>();
+            for (int i = 0; i < orders.size(); i++) {
+                List<Predicate> parts = new ArrayList<>();
+                for (int j = 0; j < i; j++) {
+                    parts.add(cb.equal(root.get(orders.get(j).getProperty()), cursor.getValues().get(j)));
+                }
+                parts.add(comesAfter(root, cb, orders.get(i), cursor.getValues().get(i)));
+                alternatives.add(cb.and(parts.toArray(new Predicate[0])));
+            }
+            return cb.or(alternatives.toArray(new Predicate[0]));
+        };
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Predicate comesAfter(Root<Task> root, CriteriaBuilder cb, Sort.Order order, Comparable value) {
+        Expression<Comparable> path = root.get(order.getProperty());
+        return order.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+    }
 }
@@ -0,0 +1,218 @@
+package com.estonnaicker.tasks.task;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.estonnaicker.tasks.task.dto.TaskStatsDto;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Counters of non-archived tasks per status and per due week, plus the number of overdue tasks.
+ * Writes report their deltas here and they are applied once the transaction commits, so reads
+ * never touch the task table.
+ *
+ * The counters are only as good as the writes that reach this instance. Other instances can
+ * leave them off, which the scheduled reconciliation corrects by recounting from the table.
+ * Writes that don't know the old state of their rows, bulk jobs and updates of tasks that
+ * aren't cached, and writes landing while a recount runs, mark the counters stale instead,
+ * and those are recounted shortly after on the scheduler's thread.
+ */
+@Slf4j
+@Component
+public class TaskStats {
+    private static final String COUNT_QUERY =
+        "SELECT status, due_date, COUNT(*) FROM task WHERE archived = false GROUP BY status, due_date";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Object lock = new Object();
+
+    private Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+    private NavigableMap<LocalDate, Long> byDueWeek = new TreeMap<>();
+    // Tasks that are not done per due date, overdue moves along it as the days pass
+    private NavigableMap<LocalDate, Long> openByDueDate = new TreeMap<>();
+    // Sum of openByDueDate for every date before overdueBefore
+    private long overdue;
+    private LocalDate overdueBefore = LocalDate.now();
+    private long reconciledAt;
+    private final AtomicBoolean stale = new AtomicBoolean();
+    // Recounts in progress, a delta applied meanwhile may be missing from the count that replaces the counters
+    private final AtomicInteger reconciling = new AtomicInteger();
+
+    public TaskStats(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void created(List<Task> tasks) {
+        this.applyAfterCommit(() -> {
+            for (Task task : tasks) {
+                this.add(task.getStatus(), task.getDueDate(), 1);
+            }
+        });
+    }
+
+    public void changed(TaskStatus oldStatus, LocalDate oldDueDate, TaskStatus newStatus, LocalDate newDueDate) {
+        if (oldStatus == newStatus && oldDueDate.equals(newDueDate)) {
+            return;
+        }
+        this.applyAfterCommit(() -> {
+            this.add(oldStatus, oldDueDate, -1);
+            this.add(newStatus, newDueDate, 1);
+        });
+    }
+
+    public void archived(TaskStatus status, LocalDate dueDate) {
+        this.applyAfterCommit(() -> this.add(status, dueDate, -1));
+    }
+
+    public void markStale() {
+        this.afterCommit(() -> this.stale.set(true));
+    }
+
+    // Cost depends on the number of distinct statuses and weeks, never on the number of tasks
+    public TaskStatsDto snapshot() {
+        synchronized (this.lock) {
+            this.rollOverdue(LocalDate.now());
+
+            Map<String, Long> statuses = new LinkedHashMap<>();
+            long total = 0;
+            for (TaskStatus status : TaskStatus.values()) {
+                long count = this.byStatus.getOrDefault(status, 0L);
+                statuses.put(status.name(), count);
+                total += count;
+            }
+
+            Map<String, Long> weeks = new LinkedHashMap<>();
+            this.byDueWeek.forEach((week, count) -> weeks.put(week.toString(), count));
+
+            return new TaskStatsDto(total, statuses, this.overdue, weeks, this.reconciledAt);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.stats.stale-check-interval:PT5S}")
+    public void reconcileIfStale() {
+        if (this.stale.compareAndSet(true, false)) {
+            this.reconcile();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        // Cleared before counting, deltas applied until the new counters are in place mark them stale again
+        this.stale.set(false);
+        this.reconciling.incrementAndGet();
+        try {
+            this.recount();
+        } finally {
+            this.reconciling.decrementAndGet();
+        }
+    }
+
+    private void recount() {
+        Map<TaskStatus, Long> statuses = new EnumMap<>(TaskStatus.class);
+        NavigableMap<LocalDate, Long> weeks = new TreeMap<>();
+        NavigableMap<LocalDate, Long> open = new TreeMap<>();
+
+        this.jdbcTemplate.query(COUNT_QUERY, (RowCallbackHandler) rs -> {
+            TaskStatus status = TaskStatus.valueOf(rs.getString(1));
+            LocalDate dueDate = rs.getDate(2).toLocalDate();
+            long count = rs.getLong(3);
+
+            statuses.merge(status, count, Long::sum);
+            weeks.merge(weekOf(dueDate), count, Long::sum);
+            if (status != TaskStatus.DONE) {
+                open.merge(dueDate, count, Long::sum);
+            }
+        });
+
+        LocalDate today = LocalDate.now();
+        long overdue = open.headMap(today, false).values().stream().mapToLong(Long::longValue).sum();
+
+        synchronized (this.lock) {
+            if (this.reconciledAt != 0 && !this.byStatus.equals(statuses)) {
+                log.info("Task stats drifted, corrected {} to {}", this.byStatus, statuses);
+            }
+            this.byStatus = statuses;
+            this.byDueWeek = weeks;
+            this.openByDueDate = open;
+            this.overdue = overdue;
+            this.overdueBefore = today;
+            this.reconciledAt = System.currentTimeMillis();
+        }
+    }
+
+    // Caller holds the lock
+    private void add(TaskStatus status, LocalDate dueDate, long delta) {
+        this.byStatus.merge(status, delta, Long::sum);
+        mergeOrRemove(this.byDueWeek, weekOf(dueDate), delta);
+
+        if (status != TaskStatus.DONE) {
+            mergeOrRemove(this.openByDueDate, dueDate, delta);
+            if (dueDate.isBefore(this.overdueBefore)) {
+                this.overdue += delta;
+            }
+        }
+    }
+
+    // Caller holds the lock. Only the days passed since the last read are added
+    private void rollOverdue(LocalDate today) {
+        if (!today.isAfter(this.overdueBefore)) {
+            return;
+        }
+        for (long count : this.openByDueDate.subMap(this.overdueBefore, true, today, false).values()) {
+            this.overdue += count;
+        }
+        this.overdueBefore = today;
+    }
+
+    // The counters are swapped wholesale by a recount, which drops a delta applied to the old ones
+    // while the count ran. Those deltas leave the counters stale so the next check recounts again
+    private void applyAfterCommit(Runnable delta) {
+        this.afterCommit(() -> {
+            synchronized (this.lock) {
+                delta.run();
+                if (this.reconciling.get() > 0) {
+                    this.stale.set(true);
+                }
+            }
+        });
+    }
+
+    // Rolled back writes never reach the counters
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private static LocalDate weekOf(LocalDate date) {
+        return date.with(DayOfWeek.MONDAY);
+    }
+
+    private static void mergeOrRemove(Map<LocalDate, Long> counts, LocalDate key, long delta) {
+        counts.merge(key, delta, (current, change) -> current + change == 0 ? null : current + change);
+    }
+}
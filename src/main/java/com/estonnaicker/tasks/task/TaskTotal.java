@@ -0,0 +1,14 @@
+package com.estonnaicker.tasks.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class TaskTotal {
+    private final long count;
+    // False only when the count was taken for this request
+    private final boolean estimated;
+}
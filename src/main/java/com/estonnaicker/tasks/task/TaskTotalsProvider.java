@@ -0,0 +1,8 @@
+package com.estonnaicker.tasks.task;
+
+import java.util.function.LongSupplier;
+
+public interface TaskTotalsProvider {
+    // exactCount runs the real COUNT and is only called when no usable total is available
+    TaskTotal getTotal(TaskFilter filter, LongSupplier exactCount);
+}
@@ -0,0 +1,26 @@
+package com.estonnaicker.tasks.task.dto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+public class TaskBatchErrorDto {
+    @ApiModelProperty(
+        value = "Position of the rejected task in the submitted list",
+        example = "0"
+    )
+    private int index;
+
+    @ApiModelProperty(
+        value = "Field errors for the rejected task",
+        example = "{\"title\": \"Title must be at least 5 characters\"}"
+    )
+    private Map<String, String> errors = new HashMap<>();
+}
@@ -0,0 +1,24 @@
+package com.estonnaicker.tasks.task.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+public class TaskBatchResultDto {
+    @ApiModelProperty(value = "Tasks that were created, in submission order")
+    private List<TaskDto> created = new ArrayList<>();
+
+    @ApiModelProperty(value = "Tasks that were rejected along with their field errors")
+    private List<TaskBatchErrorDto> errors = new ArrayList<>();
+
+    public boolean hasErrors() {
+        return !this.errors.isEmpty();
+    }
+}
@@ -0,0 +1,45 @@
+package com.estonnaicker.tasks.task.dto;
+
+import java.time.LocalDate;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+public class TaskBulkActionDto {
+    @ApiModelProperty(
+        value = "Only tasks with this status",
+        example = "IN_PROGRESS",
+        dataType = "java.lang.String",
+        allowableValues = "TODO, IN_PROGRESS, DONE"
+    )
+    private String status;
+
+    @ApiModelProperty(
+        value = "Only tasks due on this date",
+        example = "2026-01-01"
+    )
+    private LocalDate dueDate;
+
+    @ApiModelProperty(
+        value = "Only tasks due before this date",
+        example = "2026-01-01"
+    )
+    private LocalDate dueBefore;
+
+    @ApiModelProperty(
+        value = "Status to move the matching tasks to, only used by the status transition",
+        example = "DONE",
+        dataType = "java.lang.String",
+        allowableValues = "TODO, IN_PROGRESS, DONE"
+    )
+    private String newStatus;
+
+    public boolean hasFilter() {
+        return this.status != null || this.dueDate != null || this.dueBefore != null;
+    }
+}
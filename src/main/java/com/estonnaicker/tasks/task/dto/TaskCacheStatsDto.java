@@ -0,0 +1,26 @@
+package com.estonnaicker.tasks.task.dto;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+public class TaskCacheStatsDto {
+    @ApiModelProperty(value = "Lookups served from the cache", example = "900")
+    private long hits;
+
+    @ApiModelProperty(value = "Lookups that went to the database", example = "100")
+    private long misses;
+
+    @ApiModelProperty(value = "Entries dropped because of the size or ttl bound", example = "5")
+    private long evictions;
+
+    @ApiModelProperty(value = "Share of lookups served from the cache", example = "0.9")
+    private double hitRate;
+
+    @ApiModelProperty(value = "Approximate number of cached tasks", example = "95")
+    private long size;
+}
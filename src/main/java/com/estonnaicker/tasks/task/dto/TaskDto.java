@@ -7,6 +7,9 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import io.swagger.annotations.ApiModelProperty;
 import lombok.*;
 
@@ -15,6 +18,7 @@ import lombok.*;
 @Getter
 @Setter
 @ToString
+@JsonSerialize(using = TaskDtoSerializer.class)
 public class TaskDto {
     @ApiModelProperty(
         value = "Unique identifier of a task",
@@ -56,4 +60,15 @@ public class TaskDto {
     )
     @NotBlank(message = "status cannot be empty")
     private String status;
+
+    @ApiModelProperty(
+        value = "Version of the task, changes on every update. Also sent as the ETag",
+        example = "0"
+    )
+    private long version;
+
+    // Target of the JPQL constructor expressions, which select the status enum
+    public TaskDto(Long id, String title, String description, LocalDate dueDate, TaskStatus status, Long version) {
+        this(id, title, description, dueDate, status == null ? null : status.toString(), version);
+    }
 }
@@ -0,0 +1,62 @@
+package com.estonnaicker.tasks.task.dto;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+// Writes the fields in declaration order without bean introspection, dueDate as yyyy-MM-dd like the default mapper
+public class TaskDtoSerializer extends StdSerializer<TaskDto> {
+
+    public TaskDtoSerializer() {
+        super(TaskDto.class);
+    }
+
+    @Override
+    public void serialize(TaskDto task, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(task);
+        gen.writeFieldName("id");
+        if (task.getId() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(task.getId());
+        }
+        gen.writeStringField("title", task.getTitle());
+        gen.writeStringField("description", task.getDescription());
+        gen.writeFieldName("dueDate");
+        writeDate(task.getDueDate(), gen);
+        gen.writeStringField("status", task.getStatus());
+        gen.writeNumberField("version", task.getVersion());
+        gen.writeEndObject();
+    }
+
+    // Fills a small char array instead of going through LocalDate.toString's StringBuilder
+    private static void writeDate(LocalDate date, JsonGenerator gen) throws IOException {
+        if (date == null) {
+            gen.writeNull();
+            return;
+        }
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            gen.writeString(date.toString());
+            return;
+        }
+
+        char[] chars = new char[10];
+        writeDigits(chars, 0, year, 4);
+        chars[4] = '-';
+        writeDigits(chars, 5, date.getMonthValue(), 2);
+        chars[7] = '-';
+        writeDigits(chars, 8, date.getDayOfMonth(), 2);
+        gen.writeString(chars, 0, chars.length);
+    }
+
+    private static void writeDigits(char[] chars, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.estonnaicker.tasks.task.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+public class TaskImportResultDto {
+    @ApiModelProperty(value = "Number of rows imported", example = "10000")
+    private long imported;
+
+    @ApiModelProperty(value = "Number of rows rejected", example = "2")
+    private long rejected;
+
+    @ApiModelProperty(value = "Rejected rows, index is the line number in the upload. Only the first rejects are listed")
+    private List<TaskBatchErrorDto> rejects = new ArrayList<>();
+
+    public boolean hasRejects() {
+        return this.rejected > 0;
+    }
+}
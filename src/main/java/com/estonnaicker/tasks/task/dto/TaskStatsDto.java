@@ -0,0 +1,28 @@
+package com.estonnaicker.tasks.task.dto;
+
+import java.util.Map;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+public class TaskStatsDto {
+    @ApiModelProperty(value = "Number of tasks that are not archived", example = "120")
+    private long total;
+
+    @ApiModelProperty(value = "Number of tasks per status", example = "{\"TODO\": 70, \"IN_PROGRESS\": 30, \"DONE\": 20}")
+    private Map<String, Long> byStatus;
+
+    @ApiModelProperty(value = "Tasks that are not done and were due before today", example = "8")
+    private long overdue;
+
+    @ApiModelProperty(value = "Number of tasks per due week, keyed by the Monday the week starts on", example = "{\"2021-06-14\": 12}")
+    private Map<String, Long> byDueWeek;
+
+    @ApiModelProperty(value = "Epoch millis of the last reconciliation against the database", example = "1623657600000")
+    private long reconciledAt;
+}
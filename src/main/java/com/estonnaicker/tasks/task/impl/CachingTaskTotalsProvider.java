@@ -0,0 +1,89 @@
+package com.estonnaicker.tasks.task.impl;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.estonnaicker.tasks.config.DatabasePlatform;
+import com.estonnaicker.tasks.task.TaskFilter;
+import com.estonnaicker.tasks.task.TaskTotal;
+import com.estonnaicker.tasks.task.TaskTotalsProvider;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Serves totals for paged listings from a per filter cache, bounded by size and by the
+ * staleness bound. Concurrent misses for the same filter share one count, the others wait
+ * for it. Without filters PostgreSQL's planner estimate can be used instead, which avoids
+ * scanning the table at all.
+ */
+@Component
+public class CachingTaskTotalsProvider implements TaskTotalsProvider {
+    private static final String PLANNER_QUERY = "EXPLAIN (FORMAT JSON) SELECT id FROM task WHERE archived = false";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+    private final boolean plannerEstimate;
+    private final Cache<TaskFilter, Long> totals;
+
+    public CachingTaskTotalsProvider(
+        JdbcTemplate jdbcTemplate,
+        DatabasePlatform databasePlatform,
+        @Value("${tasks.totals.max-staleness:30s}") Duration maxStaleness,
+        @Value("${tasks.totals.max-entries:1000}") int maxEntries,
+        @Value("${tasks.totals.planner-estimate:true}") boolean plannerEstimate
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+        this.plannerEstimate = plannerEstimate;
+        this.totals = Caffeine.newBuilder()
+                              .maximumSize(maxEntries)
+                              .expireAfterWrite(maxStaleness)
+                              .build();
+    }
+
+    @Override
+    public TaskTotal getTotal(TaskFilter filter, LongSupplier exactCount) {
+        AtomicBoolean counted = new AtomicBoolean();
+        long count = this.totals.get(filter, key -> {
+            Long estimate = key.isEmpty() && this.plannerEstimate ? this.plannerEstimate() : null;
+            if (estimate != null) {
+                return estimate;
+            }
+
+            counted.set(true);
+            return exactCount.getAsLong();
+        });
+
+        // Only the request that ran the count gets an exact total, everyone else gets a cached one
+        return new TaskTotal(count, !counted.get());
+    }
+
+    public void clear() {
+        this.totals.invalidateAll();
+    }
+
+    // Returns null when the database has no planner estimate we know how to read
+    private Long plannerEstimate() {
+        if (!this.databasePlatform.isPostgres()) {
+            return null;
+        }
+
+        try {
+            String plan = this.jdbcTemplate.queryForObject(PLANNER_QUERY, String.class);
+            JsonNode rows = MAPPER.readTree(plan).path(0).path("Plan").path("Plan Rows");
+            return rows.isNumber() ? rows.asLong() : null;
+        } catch (DataAccessException | IOException ex) {
+            return null;
+        }
+    }
+}
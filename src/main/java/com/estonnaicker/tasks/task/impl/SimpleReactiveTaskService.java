@@ -0,0 +1,187 @@
+package com.estonnaicker.tasks.task.impl;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import com.estonnaicker.tasks.exception.PreconditionFailedException;
+import com.estonnaicker.tasks.exception.ResourceNotFoundException;
+import com.estonnaicker.tasks.task.ReactiveTaskRepository;
+import com.estonnaicker.tasks.task.ReactiveTaskService;
+import com.estonnaicker.tasks.task.TaskCache;
+import com.estonnaicker.tasks.task.TaskFilter;
+import com.estonnaicker.tasks.task.TaskMapper;
+import com.estonnaicker.tasks.task.TaskStats;
+import com.estonnaicker.tasks.task.dto.TaskCreateDto;
+import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.task.dto.TaskStatsDto;
+import com.estonnaicker.tasks.task.dto.TaskUpdateDto;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+
+import lombok.AllArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * SimpleTaskService's reads and single task writes without blocking a thread on the database.
+ * Every write is one statement, so none of them needs a transaction, and the cache and stats
+ * are updated once the statement has completed.
+ */
+@Service
+@Profile("reactive")
+@AllArgsConstructor
+public class SimpleReactiveTaskService implements ReactiveTaskService {
+
+    private final ReactiveTaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final TaskCache taskCache;
+    private final TaskStats taskStats;
+
+    @Override
+    public Mono<TaskDto> createTask(TaskCreateDto taskDto) {
+        return Mono.fromCallable(() -> this.taskMapper.toEntity(taskDto))
+                   .flatMap(this.taskRepository::insert)
+                   .map(task -> {
+                       this.taskStats.created(List.of(task));
+                       return this.taskMapper.toDto(task);
+                   });
+    }
+
+    @Override
+    public Mono<TaskDto> getTaskById(Long taskId) {
+        return this.taskCache.getAsync(taskId, this::loadTaskById);
+    }
+
+    @Override
+    public Mono<Page<TaskDto>> getAllTasks(TaskFilter filter, Pageable pageable) {
+        return Mono.defer(() -> {
+            this.validateSort(pageable);
+            this.validateFilter(filter);
+            LocalDate today = LocalDate.now();
+
+            // Both statements run at once on separate connections
+            return Mono.zip(
+                this.taskRepository.findDtos(filter, today, pageable).collectList(),
+                this.taskRepository.count(filter, today),
+                (tasks, total) -> new PageImpl<TaskDto>(tasks, pageable, total)
+            );
+        });
+    }
+
+    @Override
+    public Mono<TaskDto> updateTask(Long taskId, TaskUpdateDto taskDto, Long expectedVersion) {
+        return Mono.fromCallable(() -> this.taskMapper.toChanges(taskDto)).flatMap(changes -> {
+            if (changes.isEmpty()) {
+                return this.loadTaskById(taskId).flatMap(task ->
+                    expectedVersion != null && task.getVersion() != expectedVersion
+                        ? Mono.error(new PreconditionFailedException("Task", taskId, expectedVersion))
+                        : Mono.just(task)
+                );
+            }
+
+            // The stats need the old status and due date, taken from the cache so the write runs no extra SELECT
+            boolean statsChange = changes.containsKey("status") || changes.containsKey("dueDate");
+
+            return Mono.defer(() -> {
+                TaskDto before = statsChange ? this.taskCache.peek(taskId) : null;
+                return this.update(taskId, changes, expectedVersion).doOnNext(task -> {
+                    if (before != null) {
+                        this.taskStats.changed(
+                            TaskStatus.valueOf(before.getStatus()),
+                            before.getDueDate(),
+                            TaskStatus.valueOf(task.getStatus()),
+                            task.getDueDate()
+                        );
+                    } else if (statsChange) {
+                        this.taskStats.markStale();
+                    }
+                });
+            });
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteTask(Long taskId, Long expectedVersion) {
+        return Mono.defer(() -> {
+            TaskDto before = this.taskCache.peek(taskId);
+            return this.taskRepository.archiveById(taskId, expectedVersion).flatMap(archived -> {
+                if (archived == 0) {
+                    return this.writeFailure(taskId, expectedVersion);
+                }
+                this.taskCache.invalidate(taskId);
+                if (before != null) {
+                    this.taskStats.archived(TaskStatus.valueOf(before.getStatus()), before.getDueDate());
+                } else {
+                    this.taskStats.markStale();
+                }
+                return Mono.empty();
+            });
+        });
+    }
+
+    @Override
+    public Mono<TaskStatsDto> getTaskStats() {
+        return Mono.fromSupplier(this.taskStats::snapshot);
+    }
+
+    // One UPDATE of the supplied columns with the version check in its WHERE, then the fresh row
+    private Mono<TaskDto> update(Long taskId, Map<String, Object> changes, Long expectedVersion) {
+        return this.taskRepository.updateNotArchived(taskId, changes, expectedVersion).flatMap(updated -> {
+            if (updated == 0) {
+                return this.writeFailure(taskId, expectedVersion);
+            }
+            this.taskCache.invalidate(taskId);
+            return this.loadTaskById(taskId);
+        });
+    }
+
+    // Tells a missing task apart from a version mismatch once a conditional write changed no rows
+    private <T> Mono<T> writeFailure(Long taskId, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.error(new ResourceNotFoundException("Task", "id", taskId));
+        }
+        return this.taskRepository.existsByIdAndArchivedFalse(taskId).flatMap(exists -> Mono.error(
+            exists
+                ? new PreconditionFailedException("Task", taskId, expectedVersion)
+                : new ResourceNotFoundException("Task", "id", taskId)
+        ));
+    }
+
+    private Mono<TaskDto> loadTaskById(Long taskId) {
+        return this.taskRepository.findDtoById(taskId)
+                                  .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Task", "id", taskId)));
+    }
+
+    private void validateFilter(TaskFilter filter) {
+        if (filter.getDueFrom() != null && filter.getDueTo() != null && filter.getDueFrom().isAfter(filter.getDueTo())) {
+            throw new IllegalArgumentException("dueFrom must not be after dueTo");
+        }
+        // Ranking relies on the SQL functions registered with Hibernate
+        if (filter.getQ() != null) {
+            throw new IllegalArgumentException("q isn't available on the reactive stack");
+        }
+    }
+
+    private void validateSort(Pageable pageable) {
+        List<String> allowedFields = List.of("id", "title", "dueDate", "status");
+
+        for (Sort.Order order : pageable.getSort()) {
+            String property = order.getProperty();
+            if (!allowedFields.contains(property)) {
+                throw new IllegalArgumentException(
+                    String.format(
+                        "Invalid sort property: '%s'. Valid properties are: %s",
+                        property,
+                        allowedFields
+                    )
+                );
+            }
+        }
+    }
+}
@@ -1,26 +1,56 @@
 package com.estonnaicker.tasks.task.impl;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import javax.transaction.Transactional;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import com.estonnaicker.tasks.exception.InvalidTaskFieldException;
+import com.estonnaicker.tasks.exception.PreconditionFailedException;
 import com.estonnaicker.tasks.exception.ResourceNotFoundException;
 import com.estonnaicker.tasks.task.Task;
+import com.estonnaicker.tasks.task.TaskBatchWriter;
+import com.estonnaicker.tasks.task.TaskBulkJob;
+import com.estonnaicker.tasks.task.TaskBulkJobRunner;
+import com.estonnaicker.tasks.task.TaskCache;
+import com.estonnaicker.tasks.task.TaskExporter;
+import com.estonnaicker.tasks.task.TaskFilter;
+import com.estonnaicker.tasks.task.TaskImporter;
+import com.estonnaicker.tasks.task.TaskCursor;
 import com.estonnaicker.tasks.task.TaskMapper;
+import com.estonnaicker.tasks.task.TaskOperationEvent;
 import com.estonnaicker.tasks.task.TaskRepository;
 import com.estonnaicker.tasks.task.TaskService;
 import com.estonnaicker.tasks.task.TaskSpecification;
+import com.estonnaicker.tasks.task.TaskStats;
+import com.estonnaicker.tasks.task.TaskTotal;
+import com.estonnaicker.tasks.task.TaskTotalsProvider;
+import com.estonnaicker.tasks.task.dto.TaskBatchErrorDto;
+import com.estonnaicker.tasks.task.dto.TaskBatchResultDto;
+import com.estonnaicker.tasks.task.dto.TaskBulkActionDto;
 import com.estonnaicker.tasks.task.dto.TaskCreateDto;
 import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.task.dto.TaskImportResultDto;
+import com.estonnaicker.tasks.task.dto.TaskStatsDto;
 import com.estonnaicker.tasks.task.dto.TaskUpdateDto;
+import com.estonnaicker.tasks.utils.CursorPage;
+import com.estonnaicker.tasks.utils.EstimatedPage;
+import com.estonnaicker.tasks.utils.enums.ExportFormat;
 import com.estonnaicker.tasks.utils.enums.TaskStatus;
 
 import lombok.AllArgsConstructor;
@@ -31,50 +61,374 @@ public class SimpleTaskService implements TaskService {
 
     private final TaskRepository taskRepository;
     private final TaskMapper taskMapper;
+    private final Validator validator;
+    private final TaskTotalsProvider taskTotalsProvider;
+    private final TaskCache taskCache;
+    private final TaskBulkJobRunner taskBulkJobRunner;
+    private final TaskExporter taskExporter;
+    private final TaskImporter taskImporter;
+    private final TaskStats taskStats;
+    private final TaskBatchWriter taskBatchWriter;
 
     @Override
     public TaskDto createTask(TaskCreateDto taskDto) {
-        Task task = this.taskMapper.toEntity(taskDto);
-        this.taskRepository.save(task);
-        return this.taskMapper.toDto(task);
+        TaskOperationEvent event = TaskOperationEvent.begin("createTask");
+        try {
+            Task task = this.taskMapper.toEntity(taskDto);
+            this.taskRepository.save(task);
+            this.taskStats.created(List.of(task));
+            event.setTaskId(task.getId());
+            event.succeeded(1);
+            return this.taskMapper.toDto(task);
+        } finally {
+            event.commit();
+        }
+    }
+
+    @Override
+    @Transactional
+    public TaskBatchResultDto createTasks(List<TaskCreateDto> taskDtos) {
+        TaskOperationEvent event = TaskOperationEvent.begin("createTasks");
+        try {
+            this.taskBatchWriter.checkSize(taskDtos.size());
+            TaskBatchResultDto result = new TaskBatchResultDto();
+            List<Task> tasks = new ArrayList<>(taskDtos.size());
+
+            for (int i = 0; i < taskDtos.size(); i++) {
+                TaskBatchErrorDto error = new TaskBatchErrorDto();
+                error.setIndex(i);
+
+                Task task = this.toValidEntity(taskDtos.get(i), error);
+                if (task == null) {
+                    result.getErrors().add(error);
+                } else {
+                    tasks.add(task);
+                }
+            }
+
+            // Rows go out as JDBC batches and leave the persistence context once flushed
+            this.taskBatchWriter.insert(tasks);
+            this.taskStats.created(tasks);
+            result.setCreated(this.taskMapper.toDtoList(tasks));
+            event.succeeded(tasks.size());
+            return result;
+        } finally {
+            event.commit();
+        }
     }
 
     @Override
     public TaskDto getTaskById(Long taskId) {
-        Optional<Task> task = this.taskRepository.findByIdAndArchivedFalse(taskId);
+        TaskOperationEvent event = TaskOperationEvent.begin("getTaskById", taskId);
+        try {
+            TaskDto task = this.taskCache.get(taskId, this::loadTaskById);
+            event.succeeded(1);
+            return task;
+        } finally {
+            event.commit();
+        }
+    }
 
-        if (!task.isPresent()) {
-            throw new ResourceNotFoundException("Task", "id", taskId);
+    @Override
+    public Page<TaskDto> getAllTasks(TaskFilter filter, Pageable pageable) {
+        TaskOperationEvent event = TaskOperationEvent.begin("getAllTasks");
+        try {
+            this.validateSort(pageable);
+            Specification<Task> spec = this.filterSpec(filter);
+
+            Page<TaskDto> tasks = this.taskRepository.findDtoPage(spec, pageable);
+            event.succeeded(tasks.getNumberOfElements());
+            return tasks;
+        } finally {
+            event.commit();
+        }
+    }
+
+    @Override
+    public EstimatedPage<TaskDto> getAllTasksWithApproximateTotal(TaskFilter filter, Pageable pageable) {
+        TaskOperationEvent event = TaskOperationEvent.begin("getAllTasksWithApproximateTotal");
+        try {
+            this.validateSort(pageable);
+            Specification<Task> spec = this.filterSpec(filter);
+
+            Slice<TaskDto> tasks = this.taskRepository.findDtoSlice(spec, pageable);
+            TaskTotal total = this.taskTotalsProvider.getTotal(filter, () -> this.taskRepository.count(spec));
+            event.succeeded(tasks.getNumberOfElements());
+            return new EstimatedPage<TaskDto>(
+                tasks.getContent(),
+                pageable,
+                total.getCount(),
+                total.isEstimated()
+            );
+        } finally {
+            event.commit();
         }
-        return this.taskMapper.toDto(task.get());
     }
 
     @Override
-    public Page<TaskDto> getAllTasks(TaskStatus status, LocalDate dueDate, Pageable pageable) {
-        this.validateSort(pageable);
-        Specification<Task> spec = Specification.where(TaskSpecification.isNotArchived())
-                                                .and(TaskSpecification.hasStatus(status))
-                                                .and(TaskSpecification.hasDueDate(dueDate));
+    public Slice<TaskDto> getAllTasksSlice(TaskFilter filter, Pageable pageable) {
+        TaskOperationEvent event = TaskOperationEvent.begin("getAllTasksSlice");
+        try {
+            this.validateSort(pageable);
+            Specification<Task> spec = this.filterSpec(filter);
+
+            Slice<TaskDto> tasks = this.taskRepository.findDtoSlice(spec, pageable);
+            event.succeeded(tasks.getNumberOfElements());
+            return tasks;
+        } finally {
+            event.commit();
+        }
+    }
 
-        Page<Task> tasks = this.taskRepository.findAll(spec, pageable);
-        return this.taskMapper.toDtoPaged(tasks);
+    @Override
+    public CursorPage<TaskDto> getAllTasksAfter(TaskFilter filter, String cursor, Pageable pageable) {
+        TaskOperationEvent event = TaskOperationEvent.begin("getAllTasksAfter");
+        try {
+            this.validateSort(pageable);
+            // A cursor can't hold the search rank the results are ordered by
+            if (filter.getQ() != null) {
+                throw new IllegalArgumentException("q can't be combined with KEYSET paging");
+            }
+            Sort sort = TaskCursor.withIdTiebreak(pageable.getSort());
+            TaskCursor after = cursor == null ? null : TaskCursor.decode(cursor, sort);
+            Specification<Task> spec = this.filterSpec(filter).and(TaskSpecification.isAfter(after));
+
+            // One extra row tells us whether there is a next page without counting
+            int size = pageable.getPageSize();
+            List<TaskDto> tasks = this.taskRepository.findDtos(spec, sort, size + 1);
+
+            String nextCursor = null;
+            if (tasks.size() > size) {
+                tasks = tasks.subList(0, size);
+                nextCursor = TaskCursor.of(tasks.get(size - 1), sort).encode();
+            }
+            event.succeeded(tasks.size());
+            return new CursorPage<TaskDto>(tasks, size, nextCursor);
+        } finally {
+            event.commit();
+        }
+    }
+
+    @Override
+    public void exportTasks(TaskStatus status, LocalDate dueDate, ExportFormat format, OutputStream out) throws IOException {
+        TaskOperationEvent event = TaskOperationEvent.begin("exportTasks");
+        try {
+            event.succeeded(this.taskExporter.export(status, dueDate, format, out));
+        } finally {
+            event.commit();
+        }
+    }
+
+    @Override
+    public TaskImportResultDto importTasks(InputStream csv) throws IOException {
+        TaskOperationEvent event = TaskOperationEvent.begin("importTasks");
+        try {
+            TaskImportResultDto result = this.taskImporter.importCsv(csv, this::toValidEntity);
+            event.succeeded(result.getImported());
+            return result;
+        } finally {
+            event.commit();
+        }
+    }
+
+    @Override
+    @Transactional
+    public TaskDto updateTask(Long taskId, TaskUpdateDto taskDto, Long expectedVersion) {
+        TaskOperationEvent event = TaskOperationEvent.begin("updateTask", taskId);
+        try {
+            Map<String, Object> changes = this.taskMapper.toChanges(taskDto);
+
+            if (changes.isEmpty()) {
+                TaskDto task = this.loadTaskById(taskId);
+                if (expectedVersion != null && task.getVersion() != expectedVersion) {
+                    throw new PreconditionFailedException("Task", taskId, expectedVersion);
+                }
+                event.succeeded(0);
+                return task;
+            }
+
+            // The stats need the old status and due date, taken from the cache so the write runs no extra SELECT
+            boolean statsChange = changes.containsKey("status") || changes.containsKey("dueDate");
+            TaskDto before = statsChange ? this.taskCache.peek(taskId) : null;
+
+            // One UPDATE of the supplied columns, the version check is part of its WHERE so concurrent writes can't be lost
+            if (this.taskRepository.updateNotArchived(taskId, changes, expectedVersion) == 0) {
+                throw this.writeFailure(taskId, expectedVersion);
+            }
+            this.taskCache.invalidate(taskId);
+            TaskDto task = this.loadTaskById(taskId);
+
+            if (before != null) {
+                this.taskStats.changed(
+                    TaskStatus.valueOf(before.getStatus()),
+                    before.getDueDate(),
+                    TaskStatus.valueOf(task.getStatus()),
+                    task.getDueDate()
+                );
+            } else if (statsChange) {
+                this.taskStats.markStale();
+            }
+            event.succeeded(1);
+            return task;
+        } finally {
+            event.commit();
+        }
     }
 
     @Override
     @Transactional
-    public TaskDto updateTask(Long taskId, TaskUpdateDto taskDto) {
-        Task foundTask = this.taskMapper.toEntity(this.getTaskById(taskId));
+    public void deleteTask(Long taskId, Long expectedVersion) {
+        TaskOperationEvent event = TaskOperationEvent.begin("deleteTask", taskId);
+        try {
+            TaskDto before = this.taskCache.peek(taskId);
+            int archived = expectedVersion == null
+                ? this.taskRepository.archiveById(taskId)
+                : this.taskRepository.archiveByIdAndVersion(taskId, expectedVersion);
+
+            if (archived == 0) {
+                throw this.writeFailure(taskId, expectedVersion);
+            }
+            this.taskCache.invalidate(taskId);
 
-        this.taskMapper.updateTaskFromDto(taskDto, foundTask);
-        Task updatedTask = this.taskRepository.save(foundTask);
-        return this.taskMapper.toDto(updatedTask);
+            if (before != null) {
+                this.taskStats.archived(TaskStatus.valueOf(before.getStatus()), before.getDueDate());
+            } else {
+                this.taskStats.markStale();
+            }
+            event.succeeded(archived);
+        } finally {
+            event.commit();
+        }
     }
 
     @Override
-    public void deleteTask(Long taskId) {
-        Task foundTask = this.taskMapper.toEntity(this.getTaskById(taskId));
-        foundTask.setArchived(true);
-        this.taskRepository.save(foundTask);
+    public TaskBulkJob archiveTasks(TaskBulkActionDto bulkDto) {
+        TaskOperationEvent event = TaskOperationEvent.begin("archiveTasks");
+        try {
+            Specification<Task> spec = this.bulkSpec(bulkDto);
+
+            TaskBulkJob job;
+            try {
+                job = this.taskBulkJobRunner.run("archive", spec, ids -> {
+                    int affected = this.taskRepository.archiveByIdIn(ids);
+                    ids.forEach(this.taskCache::invalidate);
+                    return affected;
+                });
+            } finally {
+                // Recounting once off the request thread is cheaper than reading the old state of every chunk
+                this.taskStats.markStale();
+            }
+            event.succeeded(job.getAffected());
+            return job;
+        } finally {
+            event.commit();
+        }
+    }
+
+    @Override
+    public TaskBulkJob updateTasksStatus(TaskBulkActionDto bulkDto) {
+        TaskOperationEvent event = TaskOperationEvent.begin("updateTasksStatus");
+        try {
+            if (bulkDto.getNewStatus() == null) {
+                throw new InvalidTaskFieldException("newStatus", "newStatus cannot be empty");
+            }
+            TaskStatus newStatus = this.taskMapper.stringToStatus(bulkDto.getNewStatus());
+            Specification<Task> spec = this.bulkSpec(bulkDto);
+
+            TaskBulkJob job;
+            try {
+                job = this.taskBulkJobRunner.run("status:" + newStatus, spec, ids -> {
+                    int affected = this.taskRepository.updateStatusByIdIn(ids, newStatus);
+                    ids.forEach(this.taskCache::invalidate);
+                    return affected;
+                });
+            } finally {
+                this.taskStats.markStale();
+            }
+            event.succeeded(job.getAffected());
+            return job;
+        } finally {
+            event.commit();
+        }
+    }
+
+    @Override
+    public List<TaskBulkJob> getBulkJobs() {
+        return this.taskBulkJobRunner.getRecentJobs();
+    }
+
+    @Override
+    public TaskStatsDto getTaskStats() {
+        return this.taskStats.snapshot();
+    }
+
+    // Tells a missing task apart from a version mismatch once a conditional write changed no rows
+    private RuntimeException writeFailure(Long taskId, Long expectedVersion) {
+        if (expectedVersion != null && this.taskRepository.existsByIdAndArchivedFalse(taskId)) {
+            return new PreconditionFailedException("Task", taskId, expectedVersion);
+        }
+        return new ResourceNotFoundException("Task", "id", taskId);
+    }
+
+    private TaskDto loadTaskById(Long taskId) {
+        Optional<TaskDto> task = this.taskRepository.findDtoById(taskId);
+
+        if (!task.isPresent()) {
+            throw new ResourceNotFoundException("Task", "id", taskId);
+        }
+        return task.get();
+    }
+
+    private Specification<Task> filterSpec(TaskStatus status, LocalDate dueDate) {
+        return Specification.where(TaskSpecification.isNotArchived())
+                            .and(TaskSpecification.hasStatus(status))
+                            .and(TaskSpecification.hasDueDate(dueDate));
+    }
+
+    // The predicates line up with the (archived, due_date, status) index so date ranges are index range scans
+    private Specification<Task> filterSpec(TaskFilter filter) {
+        if (filter.getDueFrom() != null && filter.getDueTo() != null && filter.getDueFrom().isAfter(filter.getDueTo())) {
+            throw new IllegalArgumentException("dueFrom must not be after dueTo");
+        }
+
+        return this.filterSpec(filter.getStatus(), filter.getDueDate())
+                   .and(TaskSpecification.isDueOnOrAfter(filter.getDueFrom()))
+                   .and(TaskSpecification.isDueOnOrBefore(filter.getDueTo()))
+                   .and(TaskSpecification.isOverdue(filter.isOverdue() ? LocalDate.now() : null))
+                   .and(TaskSpecification.matches(filter.getQ()));
+    }
+
+    private Specification<Task> bulkSpec(TaskBulkActionDto bulkDto) {
+        // Refuse to touch every task in the table by accident
+        if (!bulkDto.hasFilter()) {
+            throw new IllegalArgumentException("At least one of status, dueDate or dueBefore is required");
+        }
+
+        TaskStatus status = bulkDto.getStatus() == null ? null : this.taskMapper.stringToStatus(bulkDto.getStatus());
+        return this.filterSpec(status, bulkDto.getDueDate())
+                   .and(TaskSpecification.isDueBefore(bulkDto.getDueBefore()));
+    }
+
+    // Returns null and fills in the error when the dto can't be turned into a task
+    private Task toValidEntity(TaskCreateDto taskDto, TaskBatchErrorDto error) {
+        if (taskDto == null) {
+            error.getErrors().put("task", "Task cannot be null");
+            return null;
+        }
+
+        for (ConstraintViolation<TaskCreateDto> violation : this.validator.validate(taskDto)) {
+            error.getErrors().put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        if (!error.getErrors().isEmpty()) {
+            return null;
+        }
+
+        try {
+            return this.taskMapper.toEntity(taskDto);
+        } catch (InvalidTaskFieldException ex) {
+            error.getErrors().put(ex.getField(), ex.getMessage());
+            return null;
+        }
     }
 
     private void validateSort(Pageable pageable) {
@@ -0,0 +1,166 @@
+package com.estonnaicker.tasks.task.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.estonnaicker.tasks.task.Task;
+import com.estonnaicker.tasks.task.TaskRepositoryCustom;
+import com.estonnaicker.tasks.task.dto.TaskDto;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+    // A fixed JPQL string reuses Hibernate's cached query plan, a criteria query is rendered and parsed on every call
+    private static final String DTO_BY_ID_QUERY =
+        "SELECT new com.estonnaicker.tasks.task.dto.TaskDto(t.id, t.title, t.description, t.dueDate, t.status, t.version) "
+        + "FROM Task t WHERE t.id = :id AND t.archived = false";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<TaskDto> findDtoById(Long id) {
+        return this.entityManager.createQuery(DTO_BY_ID_QUERY, TaskDto.class)
+                                 .setParameter("id", id)
+                                 .getResultStream()
+                                 .findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TaskDto> findDtoPage(Specification<Task> spec, Pageable pageable) {
+        List<TaskDto> tasks = this.createDtoQuery(spec, pageable.getSort())
+                                  .setFirstResult((int) pageable.getOffset())
+                                  .setMaxResults(pageable.getPageSize())
+                                  .getResultList();
+
+        // Skips the COUNT when the page itself shows the total, e.g. a short first page
+        return PageableExecutionUtils.getPage(tasks, pageable, () -> this.count(spec));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskDto> findDtos(Specification<Task> spec, Sort sort, int limit) {
+        return this.createDtoQuery(spec, sort)
+                   .setMaxResults(limit)
+                   .getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TaskDto> findDtoSlice(Specification<Task> spec, Pageable pageable) {
+        int size = pageable.getPageSize();
+        List<TaskDto> tasks = this.createDtoQuery(spec, pageable.getSort())
+                                  .setFirstResult((int) pageable.getOffset())
+                                  .setMaxResults(size + 1)
+                                  .getResultList();
+
+        boolean hasNext = tasks.size() > size;
+        return new SliceImpl<>(hasNext ? tasks.subList(0, size) : tasks, pageable, hasNext);
+    }
+
+    @Override
+    public List<Long> findIds(Specification<Task> spec, Long afterId, int limit) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> root = query.from(Task.class);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (afterId != null) {
+            Predicate after = cb.greaterThan(root.get("id"), afterId);
+            predicate = predicate == null ? after : cb.and(predicate, after);
+        }
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root.get("id")).orderBy(cb.asc(root.get("id")));
+
+        return this.entityManager.createQuery(query)
+                                 .setMaxResults(limit)
+                                 .getResultList();
+    }
+
+    @Override
+    public int updateNotArchived(Long id, Map<String, Object> changes, Long expectedVersion) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> root = update.from(Task.class);
+
+        changes.forEach(update::set);
+        Path<Long> version = root.get("version");
+        update.set(version, cb.sum(version, 1L));
+
+        Predicate predicate = cb.and(
+            cb.equal(root.get("id"), id),
+            cb.isFalse(root.get("archived"))
+        );
+        if (expectedVersion != null) {
+            predicate = cb.and(predicate, cb.equal(version, expectedVersion));
+        }
+        update.where(predicate);
+
+        return this.entityManager.createQuery(update).executeUpdate();
+    }
+
+    private TypedQuery<TaskDto> createDtoQuery(Specification<Task> spec, Sort sort) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskDto> query = cb.createQuery(TaskDto.class);
+        Root<Task> root = query.from(Task.class);
+
+        query.select(cb.construct(
+            TaskDto.class,
+            root.get("id"),
+            root.get("title"),
+            root.get("description"),
+            root.get("dueDate"),
+            root.get("status"),
+            root.get("version")
+        ));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        // Orders set by the specification, like the search rank, come before the requested sort
+        List<Order> orders = new ArrayList<>(query.getOrderList());
+        orders.addAll(QueryUtils.toOrders(sort, root, cb));
+        query.orderBy(orders);
+
+        return this.entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Task> spec) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> root = query.from(Task.class);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(cb.count(root));
+
+        return this.entityManager.createQuery(query).getSingleResult();
+    }
+}
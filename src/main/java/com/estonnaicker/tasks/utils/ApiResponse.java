@@ -1,8 +1,11 @@
 package com.estonnaicker.tasks.utils;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import lombok.Getter;
 
 @Getter
+@JsonSerialize(using = ApiResponseSerializer.class)
 public class ApiResponse<T> {
     private final String status = "success";
     private final T data;
@@ -10,4 +13,4 @@ public class ApiResponse<T> {
     public ApiResponse(T data) {
         this.data = data;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package com.estonnaicker.tasks.utils;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Writes the ApiResponse and PagedApiResponse envelopes field by field. List data is written
+ * element by element, looking a serializer up only when the element class changes.
+ */
+public class ApiResponseSerializer extends StdSerializer<ApiResponse<?>> {
+
+    public ApiResponseSerializer() {
+        super(ApiResponse.class, false);
+    }
+
+    @Override
+    public void serialize(ApiResponse<?> response, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(response);
+        gen.writeStringField("status", response.getStatus());
+        gen.writeFieldName("data");
+        this.writeData(response.getData(), gen, provider);
+
+        if (response instanceof PagedApiResponse) {
+            PageMetadata metadata = ((PagedApiResponse<?>) response).getMetadata();
+            gen.writeFieldName("metadata");
+            provider.findValueSerializer(PageMetadata.class).serialize(metadata, gen, provider);
+        }
+        gen.writeEndObject();
+    }
+
+    private void writeData(Object data, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (!(data instanceof List)) {
+            provider.defaultSerializeValue(data, gen);
+            return;
+        }
+
+        List<?> items = (List<?>) data;
+        gen.writeStartArray(items, items.size());
+        Class<?> itemClass = null;
+        JsonSerializer<Object> itemSerializer = null;
+        for (Object item : items) {
+            if (item == null) {
+                provider.defaultSerializeNull(gen);
+                continue;
+            }
+            if (item.getClass() != itemClass) {
+                itemClass = item.getClass();
+                itemSerializer = provider.findValueSerializer(itemClass);
+            }
+            itemSerializer.serialize(item, gen, provider);
+        }
+        gen.writeEndArray();
+    }
+}
@@ -0,0 +1,120 @@
+package com.estonnaicker.tasks.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Log lines written off the calling thread. Producers put entries into a bounded ring buffer
+ * and return straight away, a single writer thread formats them and hands them to the logger.
+ * When the writer falls behind and the buffer is full, the drop policy decides whether the new
+ * entry or the oldest buffered one is thrown away, so a slow appender never blocks a request.
+ * Drops are counted and reported by the writer.
+ */
+public class AsyncLog implements AutoCloseable {
+    private static final int BATCH_SIZE = 256;
+
+    public enum DropPolicy {
+        NEWEST,
+        OLDEST
+    }
+
+    // Formatted on the writer thread, producers only capture the fields
+    public interface Entry {
+        void appendTo(StringBuilder line);
+    }
+
+    private final String name;
+    private final Logger logger;
+    private final ArrayBlockingQueue<Entry> buffer;
+    private final DropPolicy dropPolicy;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private long droppedReported;
+
+    public AsyncLog(String name, int capacity, DropPolicy dropPolicy) {
+        this.name = name;
+        this.logger = LoggerFactory.getLogger("tasks." + name);
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.dropPolicy = dropPolicy;
+        this.writer = new Thread(this::write, "async-log-" + name);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public boolean isEnabled() {
+        return this.logger.isInfoEnabled();
+    }
+
+    public void log(Entry entry) {
+        if (this.buffer.offer(entry)) {
+            return;
+        }
+        this.dropped.increment();
+        if (this.dropPolicy == DropPolicy.OLDEST) {
+            this.buffer.poll();
+            this.buffer.offer(entry);
+        }
+    }
+
+    public AsyncLogStatsDto stats() {
+        return new AsyncLogStatsDto(
+            this.name,
+            this.buffer.size(),
+            this.buffer.size() + this.buffer.remainingCapacity(),
+            this.dropPolicy.name(),
+            this.written.sum(),
+            this.dropped.sum()
+        );
+    }
+
+    // Writes out what is already buffered before the writer stops
+    @Override
+    public void close() throws InterruptedException {
+        this.running = false;
+        this.writer.interrupt();
+        this.writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void write() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder line = new StringBuilder(256);
+
+        while (this.running || !this.buffer.isEmpty()) {
+            try {
+                Entry first = this.buffer.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    this.buffer.drainTo(batch, BATCH_SIZE - 1);
+                }
+            } catch (InterruptedException ex) {
+                this.buffer.drainTo(batch);
+            }
+
+            for (Entry entry : batch) {
+                line.setLength(0);
+                entry.appendTo(line);
+                this.logger.info(line.toString());
+            }
+            this.written.add(batch.size());
+            batch.clear();
+            this.reportDrops();
+        }
+    }
+
+    private void reportDrops() {
+        long dropped = this.dropped.sum();
+        if (dropped > this.droppedReported) {
+            this.logger.warn("Dropped {} {} log entries, the buffer of {} was full", dropped - this.droppedReported, this.name,
+                             this.buffer.size() + this.buffer.remainingCapacity());
+            this.droppedReported = dropped;
+        }
+    }
+}
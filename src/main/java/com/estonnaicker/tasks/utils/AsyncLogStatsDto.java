@@ -0,0 +1,29 @@
+package com.estonnaicker.tasks.utils;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+public class AsyncLogStatsDto {
+    @ApiModelProperty(value = "Name of the log", example = "sql")
+    private String name;
+
+    @ApiModelProperty(value = "Entries waiting for the writer", example = "0")
+    private int bufferDepth;
+
+    @ApiModelProperty(value = "Entries the buffer holds before dropping", example = "8192")
+    private int bufferCapacity;
+
+    @ApiModelProperty(value = "Which entry is dropped when the buffer is full", example = "NEWEST")
+    private String dropPolicy;
+
+    @ApiModelProperty(value = "Entries written to the log", example = "1200")
+    private long written;
+
+    @ApiModelProperty(value = "Entries dropped because the buffer was full", example = "4")
+    private long dropped;
+}
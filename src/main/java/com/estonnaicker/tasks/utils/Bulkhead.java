@@ -0,0 +1,155 @@
+package com.estonnaicker.tasks.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.estonnaicker.tasks.exception.BulkheadFullException;
+
+/**
+ * A fixed number of threads with a bounded queue in front of them, so a burst of one kind of
+ * work queues up and is rejected on its own bulkhead instead of taking threads from the rest.
+ * Rejected work fails with BulkheadFullException, work that hasn't completed within the timeout
+ * fails with a TimeoutException and is interrupted.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final Duration timeout;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public Bulkhead(String name, int threads, int queueCapacity, Duration timeout) {
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new CustomizableThreadFactory("bulkhead-" + name + "-")
+        );
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        return this.submit(work, this.timeout);
+    }
+
+    // A null timeout lets the work run for as long as it takes, e.g. a stream already being written
+    public <T> CompletableFuture<T> submit(Supplier<T> work, Duration timeout) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = this.executor.submit(() -> {
+                try {
+                    result.complete(work.get());
+                } catch (RuntimeException | Error ex) {
+                    result.completeExceptionally(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            this.rejected.increment();
+            result.completeExceptionally(new BulkheadFullException(this.name));
+            return result;
+        }
+
+        if (timeout != null) {
+            result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((value, ex) -> {
+                if (ex instanceof TimeoutException) {
+                    this.timedOut.increment();
+                    task.cancel(true);
+                }
+            });
+        }
+        return result;
+    }
+
+    public <T> DeferredResult<T> defer(Supplier<T> work) {
+        DeferredResult<T> result = new DeferredResult<>();
+        this.submit(work).whenComplete((value, ex) -> {
+            if (ex != null) {
+                result.setErrorResult(ex);
+            } else {
+                result.setResult(value);
+            }
+        });
+        return result;
+    }
+
+    // Admits a streamed body here and writes it on the admitted thread, into the output stream MVC
+    // passes to the returned body, so MVC owns the response and its errors while the bulkhead
+    // still bounds how many streams are written. A stream MVC never starts within the timeout
+    // gives the thread back
+    public CompletableFuture<StreamingResponseBody> stream(StreamingResponseBody body) {
+        CompletableFuture<OutputStream> output = new CompletableFuture<>();
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        CompletableFuture<StreamingResponseBody> admitted = new CompletableFuture<>();
+
+        StreamingResponseBody handOff = out -> {
+            output.complete(out);
+            try {
+                written.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof IOException) {
+                    throw (IOException) ex.getCause();
+                }
+                throw ex.getCause() instanceof RuntimeException ? (RuntimeException) ex.getCause() : ex;
+            }
+        };
+
+        this.submit(() -> {
+            admitted.complete(handOff);
+            try {
+                body.writeTo(output.get(this.timeout.toMillis(), TimeUnit.MILLISECONDS));
+                written.complete(null);
+            } catch (IOException | RuntimeException | ExecutionException | TimeoutException ex) {
+                written.completeExceptionally(ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                written.completeExceptionally(ex);
+            }
+            return null;
+        }, null).whenComplete((value, ex) -> {
+            if (ex != null) {
+                admitted.completeExceptionally(ex);
+            }
+        });
+        return admitted;
+    }
+
+    public BulkheadStatsDto stats() {
+        return new BulkheadStatsDto(
+            this.name,
+            this.executor.getMaximumPoolSize(),
+            this.executor.getActiveCount(),
+            this.executor.getQueue().size(),
+            this.queueCapacity,
+            this.executor.getCompletedTaskCount(),
+            this.rejected.sum(),
+            this.timedOut.sum()
+        );
+    }
+
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+}
@@ -0,0 +1,35 @@
+package com.estonnaicker.tasks.utils;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+public class BulkheadStatsDto {
+    @ApiModelProperty(value = "Name of the bulkhead", example = "reads")
+    private String name;
+
+    @ApiModelProperty(value = "Threads the bulkhead runs work on", example = "8")
+    private int threads;
+
+    @ApiModelProperty(value = "Threads currently running work", example = "3")
+    private int active;
+
+    @ApiModelProperty(value = "Work waiting for a thread", example = "0")
+    private int queueDepth;
+
+    @ApiModelProperty(value = "Work that can wait before more is rejected", example = "100")
+    private int queueCapacity;
+
+    @ApiModelProperty(value = "Work that has run to completion", example = "1200")
+    private long completed;
+
+    @ApiModelProperty(value = "Work rejected because the queue was full", example = "4")
+    private long rejected;
+
+    @ApiModelProperty(value = "Work that didn't complete within the timeout", example = "1")
+    private long timedOut;
+}
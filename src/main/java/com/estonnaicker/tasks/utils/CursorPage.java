@@ -0,0 +1,19 @@
+package com.estonnaicker.tasks.utils;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    private final List<T> content;
+    private final int size;
+    // Null when there are no more rows after this page
+    private final String nextCursor;
+
+    public boolean isLast() {
+        return this.nextCursor == null;
+    }
+}
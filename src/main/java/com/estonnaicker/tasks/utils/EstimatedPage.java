@@ -0,0 +1,21 @@
+package com.estonnaicker.tasks.utils;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import lombok.Getter;
+
+// A page whose total may come from a cache or a planner estimate rather than a fresh COUNT
+@Getter
+public class EstimatedPage<T> extends PageImpl<T> {
+    private static final long serialVersionUID = 1L;
+
+    private final boolean estimated;
+
+    public EstimatedPage(List<T> content, Pageable pageable, long total, boolean estimated) {
+        super(content, pageable, total);
+        this.estimated = estimated;
+    }
+}
@@ -0,0 +1,105 @@
+package com.estonnaicker.tasks.utils;
+
+import java.io.IOException;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Pagination metadata of a PagedApiResponse. Values are kept as primitives and each kind of
+ * page writes only its own fields straight to the generator, so nothing is boxed or hashed.
+ */
+@Getter
+@ToString
+@JsonSerialize(using = PageMetadata.Serializer.class)
+public class PageMetadata {
+
+    private enum Kind { PAGE, ESTIMATED_PAGE, SLICE, CURSOR }
+
+    @ApiModelProperty(hidden = true)
+    private final Kind kind;
+    private final int pageNumber;
+    private final int pageSize;
+    private final long totalElements;
+    private final int totalPages;
+    private final boolean last;
+    private final boolean totalEstimated;
+    private final boolean hasNext;
+    private final String nextCursor;
+
+    private PageMetadata(Kind kind, int pageNumber, int pageSize, long totalElements, int totalPages,
+                         boolean last, boolean totalEstimated, boolean hasNext, String nextCursor) {
+        this.kind = kind;
+        this.pageNumber = pageNumber;
+        this.pageSize = pageSize;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+        this.last = last;
+        this.totalEstimated = totalEstimated;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    public static PageMetadata of(Page<?> page) {
+        return new PageMetadata(Kind.PAGE, page.getNumber(), page.getSize(), page.getTotalElements(),
+                                page.getTotalPages(), page.isLast(), false, false, null);
+    }
+
+    public static PageMetadata of(EstimatedPage<?> page) {
+        return new PageMetadata(Kind.ESTIMATED_PAGE, page.getNumber(), page.getSize(), page.getTotalElements(),
+                                page.getTotalPages(), page.isLast(), page.isEstimated(), false, null);
+    }
+
+    public static PageMetadata of(Slice<?> slice) {
+        return new PageMetadata(Kind.SLICE, slice.getNumber(), slice.getSize(), 0, 0, false, false, slice.hasNext(), null);
+    }
+
+    public static PageMetadata of(CursorPage<?> page) {
+        return new PageMetadata(Kind.CURSOR, 0, page.getSize(), 0, 0, page.isLast(), false, false, page.getNextCursor());
+    }
+
+    public static class Serializer extends StdSerializer<PageMetadata> {
+
+        public Serializer() {
+            super(PageMetadata.class);
+        }
+
+        @Override
+        public void serialize(PageMetadata metadata, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(metadata);
+            switch (metadata.kind) {
+                case PAGE:
+                case ESTIMATED_PAGE:
+                    gen.writeNumberField("pageNumber", metadata.pageNumber);
+                    gen.writeNumberField("pageSize", metadata.pageSize);
+                    gen.writeNumberField("totalElements", metadata.totalElements);
+                    gen.writeNumberField("totalPages", metadata.totalPages);
+                    gen.writeBooleanField("last", metadata.last);
+                    if (metadata.kind == Kind.ESTIMATED_PAGE) {
+                        gen.writeBooleanField("totalEstimated", metadata.totalEstimated);
+                    }
+                    break;
+                case SLICE:
+                    gen.writeNumberField("pageNumber", metadata.pageNumber);
+                    gen.writeNumberField("pageSize", metadata.pageSize);
+                    gen.writeBooleanField("hasNext", metadata.hasNext);
+                    break;
+                case CURSOR:
+                    gen.writeNumberField("pageSize", metadata.pageSize);
+                    gen.writeStringField("nextCursor", metadata.nextCursor);
+                    gen.writeBooleanField("last", metadata.last);
+                    break;
+            }
+            gen.writeEndObject();
+        }
+    }
+}
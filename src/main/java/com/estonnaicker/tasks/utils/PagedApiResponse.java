@@ -1,35 +1,43 @@
 package com.estonnaicker.tasks.utils;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import io.swagger.annotations.ApiModelProperty;
 import lombok.Getter;
 
 @Getter
+@JsonSerialize(using = ApiResponseSerializer.class)
 public class PagedApiResponse<T> extends ApiResponse<List<T>> {
 
     @ApiModelProperty(
         value = "Pagination metadata (page number, size, total elements, etc.)",
         position = 2,
-        dataType = "Map",
         example = "{\"pageNumber\": 0, \"pageSize\": 10, \"totalElements\": 50, \"totalPages\": 5, \"last\": false}"
     )
-    private final Map<String, Object> metadata = new HashMap<>();    
+    private final PageMetadata metadata;
 
     public PagedApiResponse(List<T> data, Page<T> page) {
         super(data);
-        this.buildPagedMetaData(page);
+        this.metadata = PageMetadata.of(page);
+    }
+
+    public PagedApiResponse(EstimatedPage<T> page) {
+        super(page.getContent());
+        this.metadata = PageMetadata.of(page);
+    }
+
+    public PagedApiResponse(Slice<T> slice) {
+        super(slice.getContent());
+        this.metadata = PageMetadata.of(slice);
     }
 
-    private void buildPagedMetaData(Page<T> page) {
-        metadata.put("pageNumber", page.getNumber());
-        metadata.put("pageSize", page.getSize());
-        metadata.put("totalElements", page.getTotalElements());
-        metadata.put("totalPages", page.getTotalPages());
-        metadata.put("last", page.isLast());
+    public PagedApiResponse(CursorPage<T> page) {
+        super(page.getContent());
+        this.metadata = PageMetadata.of(page);
     }
 }
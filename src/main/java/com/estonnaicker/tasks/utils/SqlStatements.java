@@ -0,0 +1,101 @@
+package com.estonnaicker.tasks.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JDBC statements run by the current thread since start(), with the rows they wrote or read and
+ * the time spent in the driver. SqlStatementsFilter starts counting for every HTTP request, tests
+ * start and stop it around a service call to hold it to a statement budget. Nothing is counted
+ * on threads that haven't started, e.g. scheduled jobs.
+ *
+ * Each execution counts once, so a JDBC batch of 50 inserts is a single statement.
+ */
+public class SqlStatements {
+    private static final ThreadLocal<SqlStatements> CURRENT = ThreadLocal.withInitial(SqlStatements::new);
+
+    private boolean active;
+    private int statements;
+    private long rows;
+    private long jdbcNanos;
+    private long startedAt;
+    // Executions of each distinct SQL string, the same one run over and over is usually an N+1
+    private final Map<String, int[]> executions = new HashMap<>();
+    private String mostRepeated;
+    private int mostRepeatedCount;
+
+    public static SqlStatements start() {
+        SqlStatements current = CURRENT.get();
+        current.statements = 0;
+        current.rows = 0;
+        current.jdbcNanos = 0;
+        current.executions.clear();
+        current.mostRepeated = null;
+        current.mostRepeatedCount = 0;
+        current.active = true;
+        return current;
+    }
+
+    // The counts stay readable until the thread starts again
+    public static SqlStatements stop() {
+        SqlStatements current = CURRENT.get();
+        current.active = false;
+        current.executions.clear();
+        return current;
+    }
+
+    public static SqlStatements current() {
+        return CURRENT.get();
+    }
+
+    public void beforeStatement() {
+        if (this.active) {
+            this.startedAt = System.nanoTime();
+        }
+    }
+
+    public void afterStatement(String sql, long rows) {
+        if (!this.active) {
+            return;
+        }
+        this.jdbcNanos += System.nanoTime() - this.startedAt;
+        this.statements++;
+        this.rows += rows;
+
+        int[] count = this.executions.computeIfAbsent(sql, key -> new int[1]);
+        if (++count[0] > this.mostRepeatedCount) {
+            this.mostRepeatedCount = count[0];
+            this.mostRepeated = sql;
+        }
+    }
+
+    public void rowRead() {
+        if (this.active) {
+            this.rows++;
+        }
+    }
+
+    public boolean isActive() {
+        return this.active;
+    }
+
+    public int getStatements() {
+        return this.statements;
+    }
+
+    public long getRows() {
+        return this.rows;
+    }
+
+    public long getJdbcMicros() {
+        return this.jdbcNanos / 1000;
+    }
+
+    public String getMostRepeated() {
+        return this.mostRepeated;
+    }
+
+    public int getMostRepeatedCount() {
+        return this.mostRepeatedCount;
+    }
+}
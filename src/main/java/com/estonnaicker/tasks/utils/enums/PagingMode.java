@@ -0,0 +1,7 @@
+package com.estonnaicker.tasks.utils.enums;
+
+public enum PagingMode {
+    OFFSET,
+    KEYSET,
+    SLICE
+}
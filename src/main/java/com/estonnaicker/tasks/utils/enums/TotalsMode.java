@@ -0,0 +1,6 @@
+package com.estonnaicker.tasks.utils.enums;
+
+public enum TotalsMode {
+    EXACT,
+    APPROXIMATE
+}
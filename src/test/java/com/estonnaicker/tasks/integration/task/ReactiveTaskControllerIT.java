@@ -0,0 +1,181 @@
+package com.estonnaicker.tasks.integration.task;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.estonnaicker.tasks.task.Task;
+import com.estonnaicker.tasks.task.TaskCache;
+import com.estonnaicker.tasks.task.TaskRepository;
+import com.estonnaicker.tasks.task.TaskStats;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+
+// Own database so the create-drop schema of this context doesn't touch the servlet tests' one
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactivedb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivedb?options=DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        // The R2DBC driver logs in as sa when no user is given, H2 then has to know the same user
+        "spring.datasource.username=sa",
+        "spring.r2dbc.username=sa"
+    }
+)
+@ActiveProfiles("reactive")
+public class ReactiveTaskControllerIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TaskCache taskCache;
+    @Autowired
+    private TaskStats taskStats;
+
+    @AfterEach
+    public void cleanup() {
+        taskRepository.deleteAll();
+        taskCache.invalidateAll();
+        taskStats.reconcile();
+    }
+
+    @Test
+    public void testCreateAndGetTask() {
+        Map<String, Object> body = Map.of(
+            "title", "Reactive task",
+            "description", "Created over R2DBC",
+            "dueDate", LocalDate.now().plusDays(1).toString(),
+            "status", "todo"
+        );
+
+        webTestClient.post().uri("/api/v1/tasks")
+                     .bodyValue(body)
+                     .exchange()
+                     .expectStatus().isCreated()
+                     .expectBody()
+                     .jsonPath("$.status").isEqualTo("success")
+                     .jsonPath("$.data.title").isEqualTo("Reactive task")
+                     .jsonPath("$.data.status").isEqualTo("TODO");
+        int id = taskRepository.findAll().get(0).getId().intValue();
+
+        webTestClient.get().uri("/api/v1/tasks/{id}", id)
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                     .expectBody()
+                     .jsonPath("$.data.id").isEqualTo(id)
+                     .jsonPath("$.data.description").isEqualTo("Created over R2DBC");
+
+        webTestClient.get().uri("/api/v1/tasks/{id}", id)
+                     .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                     .exchange()
+                     .expectStatus().isNotModified();
+        assertEquals(1, taskStats.snapshot().getTotal());
+    }
+
+    @Test
+    public void testCreateTaskRejectsInvalidBody() {
+        webTestClient.post().uri("/api/v1/tasks")
+                     .bodyValue(Map.of("title", "Bad", "dueDate", LocalDate.now().plusDays(1).toString(), "status", "TODO"))
+                     .exchange()
+                     .expectStatus().isBadRequest()
+                     .expectBody()
+                     .jsonPath("$.message").isEqualTo("Invalid arguments provided")
+                     .jsonPath("$.errors.title").isEqualTo("Title must be at least 5 characters");
+    }
+
+    @Test
+    public void testGetMissingTask() {
+        webTestClient.get().uri("/api/v1/tasks/{id}", 12345)
+                     .exchange()
+                     .expectStatus().isNotFound()
+                     .expectBody()
+                     .jsonPath("$.status").isEqualTo(404);
+    }
+
+    @Test
+    public void testGetTasksFiltersAndPages() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        taskRepository.save(new Task(null, false, "Task 1", "Desc", tomorrow, TaskStatus.TODO, 0L));
+        Task second = taskRepository.save(new Task(null, false, "Task 2", "Desc", tomorrow, TaskStatus.TODO, 0L));
+        taskRepository.save(new Task(null, false, "Task 3", "Desc", tomorrow, TaskStatus.DONE, 0L));
+        taskRepository.save(new Task(null, true, "Task 4", "Desc", tomorrow, TaskStatus.TODO, 0L));
+
+        webTestClient.get().uri("/api/v1/tasks?status=TODO&page=1&size=1&sort=title,asc")
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectBody()
+                     .jsonPath("$.data.length()").isEqualTo(1)
+                     .jsonPath("$.data[0].id").isEqualTo(second.getId().intValue())
+                     .jsonPath("$.metadata.totalElements").isEqualTo(2)
+                     .jsonPath("$.metadata.totalPages").isEqualTo(2)
+                     .jsonPath("$.metadata.last").isEqualTo(true);
+    }
+
+    @Test
+    public void testGetTasksRejectsUnsupportedParams() {
+        webTestClient.get().uri("/api/v1/tasks?paging=KEYSET")
+                     .exchange()
+                     .expectStatus().isBadRequest()
+                     .expectBody()
+                     .jsonPath("$.message").isEqualTo("paging=KEYSET isn't available on the reactive stack");
+
+        webTestClient.get().uri("/api/v1/tasks?status=SOMETIME")
+                     .exchange()
+                     .expectStatus().isBadRequest()
+                     .expectBody()
+                     .jsonPath("$.message").isEqualTo("Invalid Input Type")
+                     .jsonPath("$.errors.status").exists();
+    }
+
+    @Test
+    public void testUpdateAndDeleteWithIfMatch() {
+        Task task = taskRepository.save(new Task(null, false, "Task 1", "Desc", LocalDate.now().plusDays(1), TaskStatus.TODO, 0L));
+        taskStats.reconcile();
+
+        webTestClient.patch().uri("/api/v1/tasks/{id}", task.getId())
+                     .header(HttpHeaders.IF_MATCH, "\"0\"")
+                     .bodyValue(Map.of("status", "DONE"))
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                     .expectBody()
+                     .jsonPath("$.data.status").isEqualTo("DONE")
+                     .jsonPath("$.data.version").isEqualTo(1);
+        // The task was never read through the service, so the update marks the stats for a recount
+        taskStats.reconcileIfStale();
+        assertEquals(1L, taskStats.snapshot().getByStatus().get("DONE"));
+
+        webTestClient.delete().uri("/api/v1/tasks/{id}", task.getId())
+                     .header(HttpHeaders.IF_MATCH, "\"0\"")
+                     .exchange()
+                     .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        webTestClient.delete().uri("/api/v1/tasks/{id}", task.getId())
+                     .header(HttpHeaders.IF_MATCH, "\"1\"")
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectBody()
+                     .jsonPath("$.data").isEqualTo(task.getId().intValue());
+
+        assertTrue(taskRepository.findById(task.getId()).get().isArchived());
+        taskStats.reconcileIfStale();
+        assertEquals(0, taskStats.snapshot().getTotal());
+
+        webTestClient.patch().uri("/api/v1/tasks/{id}", task.getId())
+                     .bodyValue(Map.of("title", "Too late"))
+                     .exchange()
+                     .expectStatus().isNotFound();
+    }
+}
@@ -2,9 +2,15 @@ package com.estonnaicker.tasks.integration.task;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
@@ -16,19 +22,37 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 
+import com.estonnaicker.tasks.exception.ImportFailedException;
+import com.estonnaicker.tasks.exception.PreconditionFailedException;
 import com.estonnaicker.tasks.exception.ResourceNotFoundException;
 import com.estonnaicker.tasks.task.Task;
+import com.estonnaicker.tasks.task.TaskBulkJob;
+import com.estonnaicker.tasks.task.TaskCache;
+import com.estonnaicker.tasks.task.TaskFilter;
 import com.estonnaicker.tasks.task.TaskMapper;
 import com.estonnaicker.tasks.task.TaskRepository;
 import com.estonnaicker.tasks.task.TaskService;
+import com.estonnaicker.tasks.task.TaskSpecification;
+import com.estonnaicker.tasks.task.TaskStats;
+import com.estonnaicker.tasks.task.impl.CachingTaskTotalsProvider;
+import com.estonnaicker.tasks.task.dto.TaskBatchResultDto;
+import com.estonnaicker.tasks.task.dto.TaskBulkActionDto;
 import com.estonnaicker.tasks.task.dto.TaskCreateDto;
 import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.task.dto.TaskImportResultDto;
+import com.estonnaicker.tasks.task.dto.TaskStatsDto;
 import com.estonnaicker.tasks.task.dto.TaskUpdateDto;
+import com.estonnaicker.tasks.utils.CursorPage;
+import com.estonnaicker.tasks.utils.EstimatedPage;
+import com.estonnaicker.tasks.utils.SqlStatements;
+import com.estonnaicker.tasks.utils.enums.ExportFormat;
 import com.estonnaicker.tasks.utils.enums.TaskStatus;
 
-@SpringBootTest
+// Small bulk and import chunks so both run over several transactions, rows read are counted for the statement budgets
+@SpringBootTest(properties = { "tasks.bulk.chunk-size=2", "tasks.import.chunk-size=2", "tasks.sql.count-rows-read=true" })
 public class SimpleTaskServiceIT {
 
     @Autowired
@@ -37,10 +61,20 @@ public class SimpleTaskServiceIT {
     TaskMapper taskMapper;
     @Autowired
     private TaskService taskService;
+    @Autowired
+    private CachingTaskTotalsProvider taskTotalsProvider;
+    @Autowired
+    private TaskCache taskCache;
+    @Autowired
+    private TaskStats taskStats;
 
     @AfterEach
     public void cleanup() {
         taskRepository.deleteAll();
+        taskTotalsProvider.clear();
+        // deleteAll bypasses the service so cached dtos have to be dropped by hand
+        taskCache.invalidateAll();
+        taskStats.reconcile();
     }
 
     @Test
@@ -60,6 +94,100 @@ public class SimpleTaskServiceIT {
         assertEquals(createdTask.getStatus(), taskDto.getStatus().toString());
     }
 
+    @Test
+    public void testCreateTasksCreatesValidAndReportsInvalid() {
+        List<TaskCreateDto> taskDtos = List.of(
+            new TaskCreateDto("Batch 1", "Batch Desc 1", LocalDate.now().plusDays(1), TaskStatus.TODO.toString()),
+            new TaskCreateDto("Bad", "Title too short", LocalDate.now().plusDays(1), TaskStatus.TODO.toString()),
+            new TaskCreateDto("Batch 3", "Bad status", LocalDate.now().plusDays(1), "Invalid"),
+            new TaskCreateDto("Batch 4", "Batch Desc 4", LocalDate.now().plusDays(2), TaskStatus.DONE.toString())
+        );
+
+        TaskBatchResultDto result = this.taskService.createTasks(taskDtos);
+
+        assertEquals(2, result.getCreated().size());
+        assertEquals("Batch 1", result.getCreated().get(0).getTitle());
+        assertEquals("Batch 4", result.getCreated().get(1).getTitle());
+        assertNotNull(result.getCreated().get(0).getId());
+        assertEquals(2, taskRepository.count());
+
+        assertEquals(2, result.getErrors().size());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+        assertEquals("Title must be at least 5 characters", result.getErrors().get(0).getErrors().get("title"));
+        assertEquals(2, result.getErrors().get(1).getIndex());
+        assertTrue(result.getErrors().get(1).getErrors().containsKey("status"));
+    }
+
+    @Test
+    public void testCreateTasksSpanningSeveralJdbcBatches() {
+        // 120 rows flush the persistence context twice before the transaction commits the last 20
+        List<TaskCreateDto> taskDtos = IntStream.range(0, 120)
+            .mapToObj(i -> new TaskCreateDto("Batch " + i, "Batch Desc", LocalDate.now().plusDays(1), TaskStatus.TODO.toString()))
+            .collect(Collectors.toList());
+
+        TaskBatchResultDto result = this.taskService.createTasks(taskDtos);
+
+        assertEquals(120, result.getCreated().size());
+        assertEquals(120, result.getCreated().stream().map(TaskDto::getId).distinct().count());
+        assertEquals(120, taskRepository.count());
+    }
+
+    @Test
+    public void testImportTasksLoadsValidRowsAndReportsRejects() throws IOException {
+        LocalDate due = LocalDate.now().plusDays(1);
+        String csv = "id,title,description,dueDate,status\n"
+            + "9,Import 1,\"Line one\nline \"\"two\"\"\"," + due + ",TODO\n"
+            + ",Bad,," + due + ",TODO\n"
+            + ",Import 3,," + due + ",DONE\n"
+            + "\n"
+            + ",Import 4,Desc,soon,TODO\n"
+            + ",Import 5,Desc," + due + ",IN_PROGRESS\n";
+
+        TaskImportResultDto result = this.taskService.importTasks(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getRejected());
+        assertEquals(4, result.getRejects().get(0).getIndex());
+        assertEquals("Title must be at least 5 characters", result.getRejects().get(0).getErrors().get("title"));
+        assertEquals(7, result.getRejects().get(1).getIndex());
+        assertTrue(result.getRejects().get(1).getErrors().containsKey("dueDate"));
+
+        List<Task> imported = taskRepository.findAll(Sort.by("id"));
+        assertEquals(3, imported.size());
+        assertEquals("Line one\nline \"two\"", imported.get(0).getDescription());
+        assertNotEquals(9L, imported.get(0).getId());
+        assertNull(imported.get(1).getDescription());
+        assertEquals(TaskStatus.IN_PROGRESS, imported.get(2).getStatus());
+    }
+
+    @Test
+    public void testImportTasksReportsRowsImportedBeforeAFailure() {
+        LocalDate due = LocalDate.now().plusDays(1);
+        String csv = "title,description,dueDate,status\n"
+            + "Import 1,Desc," + due + ",TODO\n"
+            + "Import 2,Desc," + due + ",TODO\n"
+            + "Import 3,Desc," + due + ",TODO\n"
+            + "Import 4,\"Never closed," + due + ",TODO\n";
+
+        ImportFailedException ex = assertThrows(ImportFailedException.class, () ->
+            this.taskService.importTasks(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)))
+        );
+
+        // The first chunk of two was committed, the third row was still waiting for its chunk
+        assertEquals(2, ex.getImported());
+        assertEquals(5, ex.getLine());
+        assertEquals(2, taskRepository.count());
+    }
+
+    @Test
+    public void testImportTasksRequiresHeader() {
+        String csv = "title,status\nImport 1,TODO\n";
+
+        assertThrows(IllegalArgumentException.class, () ->
+            this.taskService.importTasks(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)))
+        );
+    }
+
     @Test
     public void testUpdateTask() {
         // Create a task
@@ -75,12 +203,65 @@ public class SimpleTaskServiceIT {
         taskUpdateDto.setTitle("Updated Title");
         taskUpdateDto.setDescription("Updated Description");
 
-        TaskDto updatedTask = taskService.updateTask(createdTask.getId(), taskUpdateDto);
+        TaskDto updatedTask = taskService.updateTask(createdTask.getId(), taskUpdateDto, null);
 
         assertEquals(updatedTask.getTitle(), taskUpdateDto.getTitle());
         assertEquals(updatedTask.getDescription(), taskUpdateDto.getDescription());
     }
 
+    @Test
+    public void testUpdateTaskBumpsVersionAndRejectsStaleVersion() {
+        TaskDto createdTask = this.taskService.createTask(
+            new TaskCreateDto("Versioned", "Desc", LocalDate.now().plusDays(3), TaskStatus.TODO.toString())
+        );
+        TaskUpdateDto taskUpdateDto = new TaskUpdateDto();
+        taskUpdateDto.setTitle("Versioned Update");
+
+        TaskDto updatedTask = taskService.updateTask(createdTask.getId(), taskUpdateDto, createdTask.getVersion());
+
+        assertEquals(createdTask.getVersion() + 1, updatedTask.getVersion());
+        assertThrows(
+            PreconditionFailedException.class,
+            () -> taskService.updateTask(createdTask.getId(), taskUpdateDto, createdTask.getVersion())
+        );
+        assertThrows(
+            PreconditionFailedException.class,
+            () -> taskService.deleteTask(createdTask.getId(), createdTask.getVersion())
+        );
+        taskService.deleteTask(createdTask.getId(), updatedTask.getVersion());
+        assertThrows(ResourceNotFoundException.class, () -> taskService.getTaskById(createdTask.getId()));
+    }
+
+    @Test
+    public void testUpdateTaskOnlyChangesSuppliedFields() {
+        TaskDto createdTask = this.taskService.createTask(
+            new TaskCreateDto("Partial Update", "Keep this", LocalDate.now().plusDays(3), TaskStatus.TODO.toString())
+        );
+
+        TaskUpdateDto taskUpdateDto = new TaskUpdateDto();
+        taskUpdateDto.setStatus(TaskStatus.DONE.toString());
+        TaskDto updatedTask = taskService.updateTask(createdTask.getId(), taskUpdateDto, null);
+
+        assertEquals(TaskStatus.DONE.toString(), updatedTask.getStatus());
+        assertEquals(createdTask.getTitle(), updatedTask.getTitle());
+        assertEquals(createdTask.getDescription(), updatedTask.getDescription());
+        assertEquals(createdTask.getDueDate(), updatedTask.getDueDate());
+    }
+
+    @Test
+    public void testUpdateTaskErrorsWhenTaskIsArchived() {
+        TaskDto createdTask = this.taskService.createTask(
+            new TaskCreateDto("Archived Task", "Archived", LocalDate.now().plusDays(3), TaskStatus.TODO.toString())
+        );
+        this.taskService.deleteTask(createdTask.getId(), null);
+
+        TaskUpdateDto taskUpdateDto = new TaskUpdateDto();
+        taskUpdateDto.setTitle("Updated Title");
+
+        assertThrows(ResourceNotFoundException.class, () -> taskService.updateTask(createdTask.getId(), taskUpdateDto, null));
+        assertThrows(ResourceNotFoundException.class, () -> taskService.deleteTask(createdTask.getId(), null));
+    }
+
     @Test
     public void testUpdateTaskErrorsWhenTaskNotFound() {
         taskRepository.deleteAll();
@@ -90,7 +271,7 @@ public class SimpleTaskServiceIT {
 
         ResourceNotFoundException exception = assertThrows(
             ResourceNotFoundException.class, 
-            () -> taskService.updateTask(id, taskUpdateDto)
+            () -> taskService.updateTask(id, taskUpdateDto, null)
         );
 
         assertEquals(exception.getMessage(), "Task not found with id : " + id);
@@ -135,19 +316,35 @@ public class SimpleTaskServiceIT {
         );
         TaskDto createdTask = this.taskService.createTask(taskDto);
 
-        this.taskService.deleteTask(createdTask.getId());
+        this.taskService.deleteTask(createdTask.getId(), null);
         // Check that it still exists as it's soft deleted
         Optional<Task> fetchedTask = this.taskRepository.findById(createdTask.getId());
         assertEquals(fetchedTask.get().getId(), createdTask.getId());
         assertEquals(fetchedTask.get().isArchived(), true);
     }
 
+    @Test
+    public void testGetTaskByIdIsNotServedFromCacheAfterUpdateOrDelete() {
+        TaskDto createdTask = this.taskService.createTask(
+            new TaskCreateDto("Cached Task", "Cached Desc", LocalDate.now().plusDays(1), TaskStatus.TODO.toString())
+        );
+        this.taskService.getTaskById(createdTask.getId());
+
+        TaskUpdateDto taskUpdateDto = new TaskUpdateDto();
+        taskUpdateDto.setTitle("Updated Cached Task");
+        this.taskService.updateTask(createdTask.getId(), taskUpdateDto, null);
+        assertEquals("Updated Cached Task", this.taskService.getTaskById(createdTask.getId()).getTitle());
+
+        this.taskService.deleteTask(createdTask.getId(), null);
+        assertThrows(ResourceNotFoundException.class, () -> this.taskService.getTaskById(createdTask.getId()));
+    }
+
     @Test
     public void testDeleteTaskErrorsWhenNoTaskFound() {
         Long id = 1L;
         ResourceNotFoundException exception = assertThrows(
             ResourceNotFoundException.class, 
-            () -> taskService.deleteTask(id)
+            () -> taskService.deleteTask(id, null)
         );
 
         assertEquals(exception.getMessage(), "Task not found with id : " + id);
@@ -161,10 +358,10 @@ public class SimpleTaskServiceIT {
         public void setup() {
             tasks = taskRepository.saveAll(
                 List.of(
-                    new Task(1L, false, "Test 1", "Test Desc 1", LocalDate.now(), TaskStatus.IN_PROGRESS),
-                    new Task(2L, false, "Test 2", "Test Desc 2", LocalDate.now().plusDays(1L), TaskStatus.TODO),
-                    new Task(3L, false, "Test 3", "Test Desc 3", LocalDate.now().plusDays(2), TaskStatus.TODO),
-                    new Task(4L, false, "Test 4", "Test Desc 4", LocalDate.now(), TaskStatus.TODO)
+                    new Task(1L, false, "Test 1", "Test Desc 1", LocalDate.now(), TaskStatus.IN_PROGRESS, 0L),
+                    new Task(2L, false, "Test 2", "Test Desc 2", LocalDate.now().plusDays(1L), TaskStatus.TODO, 0L),
+                    new Task(3L, false, "Test 3", "Test Desc 3", LocalDate.now().plusDays(2), TaskStatus.TODO, 0L),
+                    new Task(4L, false, "Test 4", "Test Desc 4", LocalDate.now(), TaskStatus.TODO, 0L)
                 )
             );
         }
@@ -172,7 +369,7 @@ public class SimpleTaskServiceIT {
         @Test
         public void testGetTasksCanReturnTasks() {
             Pageable pageable = PageRequest.of(0, 10);
-            Page<TaskDto> fetchedTasks = taskService.getAllTasks(null, null, pageable);
+            Page<TaskDto> fetchedTasks = taskService.getAllTasks(TaskFilter.of(null, null), pageable);
             assertEquals(fetchedTasks.getTotalElements(), tasks.size());
             assertEquals(fetchedTasks.getTotalPages(), 1);
         }
@@ -180,7 +377,7 @@ public class SimpleTaskServiceIT {
         @Test
         public void testGetTasksCanPaginateTasks() {    
             Pageable pageable = PageRequest.of(0, 2);
-            Page<TaskDto> fetchedTasks = taskService.getAllTasks(null, null, pageable);
+            Page<TaskDto> fetchedTasks = taskService.getAllTasks(TaskFilter.of(null, null), pageable);
 
             assertEquals(fetchedTasks.getContent().size(), 2); // There should only be 2 Tasks in the returned list
             assertEquals(fetchedTasks.getTotalElements(), tasks.size());
@@ -190,7 +387,7 @@ public class SimpleTaskServiceIT {
         @Test
         public void testGetTasksCanSortAsc() {
             Pageable pageable = PageRequest.of(0, 2, Sort.by("id").ascending());
-            Page<TaskDto> fetchedTasks = taskService.getAllTasks(null, null, pageable);
+            Page<TaskDto> fetchedTasks = taskService.getAllTasks(TaskFilter.of(null, null), pageable);
             assertEquals(fetchedTasks.getContent().size(), 2);
             assertEquals(fetchedTasks.getContent().get(0).getId(), tasks.get(0).getId());
             assertEquals(fetchedTasks.getContent().get(1).getId(), tasks.get(1).getId());
@@ -201,7 +398,7 @@ public class SimpleTaskServiceIT {
         @Test
         public void testGetTasksCanSortDesc() {
             Pageable pageable = PageRequest.of(0, 2, Sort.by("id").descending());
-            Page<TaskDto> fetchedTasks = taskService.getAllTasks(null, null, pageable);
+            Page<TaskDto> fetchedTasks = taskService.getAllTasks(TaskFilter.of(null, null), pageable);
             assertEquals(fetchedTasks.getContent().size(), 2);
             // Check the order and id
             assertEquals(fetchedTasks.getContent().get(0).getId(), tasks.get(3).getId());
@@ -216,7 +413,7 @@ public class SimpleTaskServiceIT {
 
             IllegalArgumentException exception = assertThrows(
                 IllegalArgumentException.class,
-                () -> taskService.getAllTasks(null, null, pageable)
+                () -> taskService.getAllTasks(TaskFilter.of(null, null), pageable)
             );
             assertEquals(exception.getMessage(), "Invalid sort property: 'invalid'. Valid properties are: [id, title, dueDate, status]");
         }
@@ -224,7 +421,7 @@ public class SimpleTaskServiceIT {
         @Test
         public void testGetTasksCanFilterByStatus() {
             Pageable pageable = PageRequest.of(0, 10);
-            Page<TaskDto> fetchedTasks = taskService.getAllTasks(TaskStatus.IN_PROGRESS, null, pageable);
+            Page<TaskDto> fetchedTasks = taskService.getAllTasks(TaskFilter.of(TaskStatus.IN_PROGRESS, null), pageable);
             assertEquals(fetchedTasks.getContent().size(), 1); // Only 1 in progress task
             // Check the order and id
             assertEquals(fetchedTasks.getContent().get(0).getId(), tasks.get(0).getId());
@@ -235,7 +432,7 @@ public class SimpleTaskServiceIT {
         @Test
         public void testGetTasksCanFilterByDueDate() {
             Pageable pageable = PageRequest.of(0, 10);
-            Page<TaskDto> fetchedTasks = taskService.getAllTasks(null, LocalDate.now(), pageable);
+            Page<TaskDto> fetchedTasks = taskService.getAllTasks(TaskFilter.of(null, LocalDate.now()), pageable);
             assertEquals(fetchedTasks.getContent().size(), 2); // 2 task in tasks has now for their dates
             // Check the order and id
             assertEquals(fetchedTasks.getContent().get(0).getId(), tasks.get(0).getId());
@@ -243,10 +440,217 @@ public class SimpleTaskServiceIT {
             assertEquals(fetchedTasks.getTotalPages(), 1);
         }
 
+        @Test
+        public void testExportTasksAsNdjson() throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            taskService.exportTasks(TaskStatus.TODO, null, ExportFormat.NDJSON, out);
+
+            String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+            assertEquals(3, lines.length);
+            assertTrue(lines[0].startsWith("{\"id\":" + tasks.get(1).getId() + ",\"title\":\"Test 2\""));
+            assertTrue(lines[0].endsWith("\"status\":\"TODO\"}"));
+        }
+
+        @Test
+        public void testExportTasksAsCsvSkipsArchived() throws IOException {
+            taskRepository.save(new Task(null, false, "Quoted, \"task\"", null, LocalDate.now(), TaskStatus.DONE, 0L));
+            taskService.deleteTask(tasks.get(0).getId(), null);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            taskService.exportTasks(null, LocalDate.now(), ExportFormat.CSV, out);
+
+            String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+            assertEquals(3, lines.length);
+            assertEquals("id,title,description,dueDate,status", lines[0]);
+            assertEquals(tasks.get(3).getId() + ",Test 4,Test Desc 4," + LocalDate.now() + ",TODO", lines[1]);
+            assertTrue(lines[2].endsWith(",\"Quoted, \"\"task\"\"\",," + LocalDate.now() + ",DONE"));
+        }
+
+        @Test
+        public void testArchiveTasksByFilterInChunks() {
+            TaskBulkActionDto bulkDto = new TaskBulkActionDto(TaskStatus.TODO.toString(), null, null, null);
+
+            TaskBulkJob job = taskService.archiveTasks(bulkDto);
+
+            assertEquals(TaskBulkJob.State.COMPLETED, job.getState());
+            assertEquals(3, job.getAffected());
+            assertEquals(2, job.getChunks());
+            assertEquals(1, taskRepository.count(TaskSpecification.isNotArchived()));
+            assertEquals(job.getId(), taskService.getBulkJobs().get(0).getId());
+        }
+
+        @Test
+        public void testUpdateTasksStatusDueBefore() {
+            TaskBulkActionDto bulkDto = new TaskBulkActionDto(null, null, LocalDate.now().plusDays(1), TaskStatus.DONE.toString());
+
+            TaskBulkJob job = taskService.updateTasksStatus(bulkDto);
+
+            assertEquals(2, job.getAffected());
+            assertEquals(TaskStatus.DONE.toString(), taskService.getTaskById(tasks.get(0).getId()).getStatus());
+            assertEquals(TaskStatus.DONE.toString(), taskService.getTaskById(tasks.get(3).getId()).getStatus());
+            assertEquals(TaskStatus.TODO.toString(), taskService.getTaskById(tasks.get(1).getId()).getStatus());
+        }
+
+        @Test
+        public void testBulkActionsRequireAFilter() {
+            TaskBulkActionDto bulkDto = new TaskBulkActionDto(null, null, null, TaskStatus.DONE.toString());
+
+            assertThrows(IllegalArgumentException.class, () -> taskService.archiveTasks(bulkDto));
+            assertThrows(IllegalArgumentException.class, () -> taskService.updateTasksStatus(bulkDto));
+            assertEquals(4, taskRepository.count(TaskSpecification.isNotArchived()));
+        }
+
+        @Test
+        public void testGetTasksWithApproximateTotalCachesCount() {
+            Pageable pageable = PageRequest.of(0, 2);
+
+            EstimatedPage<TaskDto> first = taskService.getAllTasksWithApproximateTotal(TaskFilter.of(TaskStatus.TODO, null), pageable);
+            taskRepository.save(new Task(null, false, "Test 5", "Test Desc 5", LocalDate.now(), TaskStatus.TODO, 0L));
+            EstimatedPage<TaskDto> second = taskService.getAllTasksWithApproximateTotal(TaskFilter.of(TaskStatus.TODO, null), pageable);
+
+            assertEquals(3, first.getTotalElements());
+            assertEquals(false, first.isEstimated());
+            assertEquals(2, first.getContent().size());
+            // Served from the cache so the new task isn't counted yet
+            assertEquals(3, second.getTotalElements());
+            assertTrue(second.isEstimated());
+        }
+
+        @Test
+        public void testGetTasksSliceReportsHasNext() {
+            Slice<TaskDto> first = taskService.getAllTasksSlice(TaskFilter.of(null, null), PageRequest.of(0, 3, Sort.by("id")));
+            Slice<TaskDto> second = taskService.getAllTasksSlice(TaskFilter.of(null, null), PageRequest.of(1, 3, Sort.by("id")));
+
+            assertEquals(3, first.getContent().size());
+            assertTrue(first.hasNext());
+            assertEquals(1, second.getContent().size());
+            assertEquals(tasks.get(3).getId(), second.getContent().get(0).getId());
+            assertEquals(false, second.hasNext());
+        }
+
+        @Test
+        public void testGetTasksSliceCanFilterByStatus() {
+            Slice<TaskDto> slice = taskService.getAllTasksSlice(TaskFilter.of(TaskStatus.TODO, null), PageRequest.of(0, 3));
+
+            assertEquals(3, slice.getContent().size());
+            assertEquals(false, slice.hasNext());
+        }
+
+        @Test
+        public void testGetTasksAfterCanWalkPagesWithCursor() {
+            Pageable pageable = PageRequest.of(0, 2, Sort.by("dueDate").descending());
+
+            CursorPage<TaskDto> first = taskService.getAllTasksAfter(TaskFilter.of(null, null), null, pageable);
+            assertEquals(2, first.getContent().size());
+            assertEquals(tasks.get(2).getId(), first.getContent().get(0).getId());
+            assertEquals(tasks.get(1).getId(), first.getContent().get(1).getId());
+            assertNotNull(first.getNextCursor());
+
+            // Remaining two tasks share a due date so the id tiebreak decides their order
+            CursorPage<TaskDto> second = taskService.getAllTasksAfter(TaskFilter.of(null, null), first.getNextCursor(), pageable);
+            assertEquals(2, second.getContent().size());
+            assertEquals(tasks.get(0).getId(), second.getContent().get(0).getId());
+            assertEquals(tasks.get(3).getId(), second.getContent().get(1).getId());
+            assertTrue(second.isLast());
+        }
+
+        @Test
+        public void testGetTasksAfterCanFilterByStatus() {
+            Pageable pageable = PageRequest.of(0, 1, Sort.by("title").ascending());
+
+            CursorPage<TaskDto> first = taskService.getAllTasksAfter(TaskFilter.of(TaskStatus.TODO, null), null, pageable);
+            CursorPage<TaskDto> second = taskService.getAllTasksAfter(TaskFilter.of(TaskStatus.TODO, null), first.getNextCursor(), pageable);
+
+            assertEquals(tasks.get(1).getId(), first.getContent().get(0).getId());
+            assertEquals(tasks.get(2).getId(), second.getContent().get(0).getId());
+            assertEquals(false, second.isLast());
+        }
+
+        @Test
+        public void testGetTasksAfterRejectsCursorForDifferentSort() {
+            Pageable byId = PageRequest.of(0, 1, Sort.by("id").ascending());
+            Pageable byTitle = PageRequest.of(0, 1, Sort.by("title").ascending());
+            String cursor = taskService.getAllTasksAfter(TaskFilter.of(null, null), null, byId).getNextCursor();
+
+            IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> taskService.getAllTasksAfter(TaskFilter.of(null, null), cursor, byTitle)
+            );
+            assertEquals("Cursor does not match the requested sort", exception.getMessage());
+        }
+
+        @Test
+        public void testGetTasksCanFilterByDueDateRange() {
+            Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
+            TaskFilter filter = new TaskFilter(null, null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), false, null);
+
+            Page<TaskDto> fetchedTasks = taskService.getAllTasks(filter, pageable);
+
+            assertEquals(2, fetchedTasks.getTotalElements());
+            assertEquals(tasks.get(1).getId(), fetchedTasks.getContent().get(0).getId());
+            assertEquals(tasks.get(2).getId(), fetchedTasks.getContent().get(1).getId());
+        }
+
+        @Test
+        public void testGetTasksCanFilterOverdue() {
+            Task late = taskRepository.save(new Task(null, false, "Late 1", "Late Desc", LocalDate.now().minusDays(3), TaskStatus.TODO, 0L));
+            taskRepository.save(new Task(null, false, "Late 2", "Late Desc", LocalDate.now().minusDays(3), TaskStatus.DONE, 0L));
+
+            Page<TaskDto> fetchedTasks = taskService.getAllTasks(new TaskFilter(null, null, null, null, true, null), PageRequest.of(0, 10));
+
+            assertEquals(1, fetchedTasks.getTotalElements());
+            assertEquals(late.getId(), fetchedTasks.getContent().get(0).getId());
+        }
+
+        @Test
+        public void testGetTasksRejectsInvertedDueDateRange() {
+            TaskFilter filter = new TaskFilter(null, null, LocalDate.now().plusDays(2), LocalDate.now(), false, null);
+
+            IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> taskService.getAllTasks(filter, PageRequest.of(0, 10))
+            );
+            assertEquals("dueFrom must not be after dueTo", exception.getMessage());
+        }
+
+        @Test
+        public void testGetTasksSearchRanksTitleMatchesFirst() {
+            Task inDescription = taskRepository.save(new Task(null, false, "Groceries", "Pick up the INVOICE", LocalDate.now().plusDays(5), TaskStatus.TODO, 0L));
+            Task inTitle = taskRepository.save(new Task(null, false, "Send invoice", "To the client", LocalDate.now().plusDays(5), TaskStatus.TODO, 0L));
+            TaskFilter filter = new TaskFilter(null, null, null, null, false, "Invoice");
+
+            Page<TaskDto> fetchedTasks = taskService.getAllTasks(filter, PageRequest.of(0, 10, Sort.by("id")));
+
+            assertEquals(2, fetchedTasks.getTotalElements());
+            assertEquals(inTitle.getId(), fetchedTasks.getContent().get(0).getId());
+            assertEquals(inDescription.getId(), fetchedTasks.getContent().get(1).getId());
+        }
+
+        @Test
+        public void testGetTasksSearchCombinesWithFilters() {
+            taskRepository.save(new Task(null, false, "Send invoice", "To the client", LocalDate.now().plusDays(5), TaskStatus.DONE, 0L));
+            TaskFilter filter = new TaskFilter(TaskStatus.TODO, null, null, null, false, "invoice");
+
+            Page<TaskDto> fetchedTasks = taskService.getAllTasks(filter, PageRequest.of(0, 10));
+
+            assertEquals(0, fetchedTasks.getTotalElements());
+        }
+
+        @Test
+        public void testGetTasksAfterRejectsSearch() {
+            TaskFilter filter = new TaskFilter(null, null, null, null, false, "invoice");
+
+            IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> taskService.getAllTasksAfter(filter, null, PageRequest.of(0, 10))
+            );
+            assertEquals("q can't be combined with KEYSET paging", exception.getMessage());
+        }
+
         @Test
         public void testGetTasksCanFilterByDueDateAndStatus() {
             Pageable pageable = PageRequest.of(0, 10);
-            Page<TaskDto> fetchedTasks = taskService.getAllTasks(TaskStatus.TODO, LocalDate.now().plusDays(1), pageable);
+            Page<TaskDto> fetchedTasks = taskService.getAllTasks(TaskFilter.of(TaskStatus.TODO, LocalDate.now().plusDays(1)), pageable);
             assertEquals(fetchedTasks.getContent().size(), 1);
             // Check the order and id
             assertEquals(fetchedTasks.getContent().get(0).getId(), tasks.get(1).getId());
@@ -254,4 +658,181 @@ public class SimpleTaskServiceIT {
             assertEquals(fetchedTasks.getTotalPages(), 1);
         }
     }
+
+    // Upper bounds on the statements each operation runs, a new query or an N+1 fails here first
+    @Nested
+    class statementBudgets {
+        private TaskDto task;
+
+        @BeforeEach
+        public void setup() {
+            task = taskService.createTask(new TaskCreateDto("Budget", "Budget Desc", LocalDate.now().plusDays(1), TaskStatus.TODO.toString()));
+            taskCache.invalidateAll();
+        }
+
+        @Test
+        public void testCreateTask() {
+            SqlStatements statements = statementsOf(() -> taskService.createTask(
+                new TaskCreateDto("Budget 2", "Budget Desc", LocalDate.now().plusDays(1), TaskStatus.TODO.toString())
+            ));
+
+            // The insert, plus a sequence call once every Task.ID_ALLOCATION_SIZE ids
+            assertAtMost(2, statements);
+        }
+
+        @Test
+        public void testCreateTasks() {
+            SqlStatements statements = statementsOf(() -> taskService.createTasks(List.of(
+                new TaskCreateDto("Budget 2", "Budget Desc", LocalDate.now().plusDays(1), TaskStatus.TODO.toString()),
+                new TaskCreateDto("Budget 3", "Budget Desc", LocalDate.now().plusDays(1), TaskStatus.TODO.toString()),
+                new TaskCreateDto("Budget 4", "Budget Desc", LocalDate.now().plusDays(1), TaskStatus.TODO.toString())
+            )));
+
+            // The three inserts go out as one JDBC batch
+            assertAtMost(2, statements);
+            assertEquals(1, statements.getMostRepeatedCount());
+            assertTrue(statements.getRows() >= 3);
+        }
+
+        @Test
+        public void testGetTaskById() {
+            SqlStatements uncached = statementsOf(() -> taskService.getTaskById(task.getId()));
+            assertAtMost(1, uncached);
+            assertEquals(1, uncached.getRows());
+
+            SqlStatements cached = statementsOf(() -> taskService.getTaskById(task.getId()));
+            assertAtMost(0, cached);
+        }
+
+        @Test
+        public void testGetAllTasks() {
+            SqlStatements statements = statementsOf(() -> taskService.getAllTasks(TaskFilter.of(null, null), PageRequest.of(0, 10)));
+
+            // The page, plus a COUNT when the page is full
+            assertAtMost(2, statements);
+        }
+
+        @Test
+        public void testUpdateTask() {
+            TaskUpdateDto taskUpdateDto = new TaskUpdateDto();
+            taskUpdateDto.setStatus(TaskStatus.DONE.toString());
+
+            SqlStatements statements = statementsOf(() -> taskService.updateTask(task.getId(), taskUpdateDto, task.getVersion()));
+
+            // The UPDATE and the fresh row, the stats take the old status from the cache or recount later
+            assertAtMost(2, statements);
+        }
+
+        @Test
+        public void testDeleteTask() {
+            SqlStatements statements = statementsOf(() -> taskService.deleteTask(task.getId(), task.getVersion()));
+
+            assertAtMost(1, statements);
+        }
+
+        private SqlStatements statementsOf(Runnable operation) {
+            SqlStatements.start();
+            try {
+                operation.run();
+            } finally {
+                SqlStatements.stop();
+            }
+            return SqlStatements.current();
+        }
+
+        private void assertAtMost(int budget, SqlStatements statements) {
+            assertTrue(
+                statements.getStatements() <= budget,
+                () -> statements.getStatements() + " statements over the budget of " + budget
+            );
+        }
+    }
+
+    @Nested
+    class getTaskStats {
+
+        @BeforeEach
+        public void setup() {
+            taskStats.reconcile();
+        }
+
+        @Test
+        public void testWritesKeepStatsUpToDate() {
+            LocalDate yesterday = LocalDate.now().minusDays(1);
+            TaskDto first = taskService.createTask(new TaskCreateDto("Stats 1", "Stats Desc 1", LocalDate.now().plusDays(1), TaskStatus.TODO.toString()));
+            TaskDto second = taskService.createTask(new TaskCreateDto("Stats 2", "Stats Desc 2", LocalDate.now().plusDays(1), TaskStatus.TODO.toString()));
+            taskService.createTasks(List.of(new TaskCreateDto("Stats 3", "Stats Desc 3", LocalDate.now().plusDays(1), TaskStatus.IN_PROGRESS.toString())));
+            // Cached tasks apply exact deltas
+            taskService.getTaskById(first.getId());
+            taskService.getTaskById(second.getId());
+
+            taskService.updateTask(first.getId(), new TaskUpdateDto(null, null, null, TaskStatus.DONE.toString()), null);
+            taskService.deleteTask(second.getId(), null);
+            // Creation rejects past due dates, this one goes straight to the table and waits for reconciliation
+            taskRepository.save(new Task(null, false, "Late", "Late Desc", yesterday, TaskStatus.TODO, 0L));
+
+            TaskStatsDto stats = taskService.getTaskStats();
+            assertEquals(2, stats.getTotal());
+            assertEquals(1L, stats.getByStatus().get("DONE"));
+            assertEquals(1L, stats.getByStatus().get("IN_PROGRESS"));
+            assertEquals(0L, stats.getByStatus().get("TODO"));
+            assertEquals(0, stats.getOverdue());
+
+            taskStats.reconcile();
+
+            stats = taskService.getTaskStats();
+            assertEquals(3, stats.getTotal());
+            assertEquals(1L, stats.getByStatus().get("TODO"));
+            assertEquals(1, stats.getOverdue());
+        }
+
+        @Test
+        public void testUncachedWritesRecountStats() {
+            TaskDto first = taskService.createTask(new TaskCreateDto("Stats 1", "Stats Desc 1", LocalDate.now().plusDays(1), TaskStatus.TODO.toString()));
+            TaskDto second = taskService.createTask(new TaskCreateDto("Stats 2", "Stats Desc 2", LocalDate.now().plusDays(1), TaskStatus.TODO.toString()));
+            taskCache.invalidateAll();
+
+            taskService.updateTask(first.getId(), new TaskUpdateDto(null, null, null, TaskStatus.DONE.toString()), null);
+            taskService.deleteTask(second.getId(), null);
+            assertEquals(2L, taskService.getTaskStats().getByStatus().get("TODO"));
+
+            taskStats.reconcileIfStale();
+
+            TaskStatsDto stats = taskService.getTaskStats();
+            assertEquals(1, stats.getTotal());
+            assertEquals(1L, stats.getByStatus().get("DONE"));
+            assertEquals(0L, stats.getByStatus().get("TODO"));
+        }
+
+        @Test
+        public void testFailedConditionalUpdateLeavesStatsAlone() {
+            TaskDto task = taskService.createTask(new TaskCreateDto("Stats 1", "Stats Desc 1", LocalDate.now().plusDays(1), TaskStatus.TODO.toString()));
+
+            assertThrows(PreconditionFailedException.class, () -> taskService.updateTask(
+                task.getId(),
+                new TaskUpdateDto(null, null, null, TaskStatus.DONE.toString()),
+                task.getVersion() + 1
+            ));
+
+            assertEquals(1L, taskService.getTaskStats().getByStatus().get("TODO"));
+            assertEquals(0L, taskService.getTaskStats().getByStatus().get("DONE"));
+        }
+
+        @Test
+        public void testBulkJobsAndImportsUpdateStats() throws IOException {
+            String csv = "title,description,dueDate,status\n"
+                + "Imported 1,Desc 1," + LocalDate.now().plusDays(1) + ",TODO\n"
+                + "Imported 2,Desc 2," + LocalDate.now().plusDays(1) + ",TODO\n"
+                + "Imported 3,Desc 3," + LocalDate.now().plusDays(2) + ",IN_PROGRESS\n";
+            taskService.importTasks(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+            assertEquals(3, taskService.getTaskStats().getTotal());
+
+            taskService.archiveTasks(new TaskBulkActionDto(TaskStatus.TODO.toString(), null, null, null));
+            taskStats.reconcileIfStale();
+
+            TaskStatsDto stats = taskService.getTaskStats();
+            assertEquals(1, stats.getTotal());
+            assertEquals(1L, stats.getByStatus().get("IN_PROGRESS"));
+        }
+    }
 }
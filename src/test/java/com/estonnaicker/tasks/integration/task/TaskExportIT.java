@@ -0,0 +1,64 @@
+package com.estonnaicker.tasks.integration.task;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.estonnaicker.tasks.task.TaskService;
+
+// The async request timeout is cut to half a second, the exports below stream for longer
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:exportdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.mvc.async.request-timeout=500ms"
+    }
+)
+public class TaskExportIT {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @MockBean
+    private TaskService taskService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(3);
+            out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            Thread.sleep(1500);
+            out.write("{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(taskService).exportTasks(isNull(), isNull(), any(), any(OutputStream.class));
+    }
+
+    @Test
+    public void testExportOutlivesAsyncRequestTimeout() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/v1/tasks/export", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", response.getBody());
+    }
+
+    @Test
+    public void testAsyncExportOutlivesAsyncRequestTimeout() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/v1/async/tasks/export", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", response.getBody());
+    }
+}
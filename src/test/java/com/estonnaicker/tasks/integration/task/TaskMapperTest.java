@@ -4,6 +4,7 @@ package com.estonnaicker.tasks.integration.task;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
@@ -18,6 +19,7 @@ import com.estonnaicker.tasks.task.Task;
 import com.estonnaicker.tasks.task.TaskMapper;
 import com.estonnaicker.tasks.task.dto.TaskCreateDto;
 import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.task.dto.TaskUpdateDto;
 import com.estonnaicker.tasks.utils.enums.TaskStatus;
 
 @SpringBootTest
@@ -34,7 +36,8 @@ public class TaskMapperTest {
             "Test",
             "Test Desc",
             LocalDate.now(),
-            TaskStatus.IN_PROGRESS
+            TaskStatus.IN_PROGRESS,
+            0L
         );
 
         TaskDto taskDto = taskMapper.toDto(task);
@@ -52,7 +55,8 @@ public class TaskMapperTest {
             "Test",
             "Test Desc",
             LocalDate.now(),
-            TaskStatus.IN_PROGRESS.toString()
+            TaskStatus.IN_PROGRESS.toString(),
+            0L
         );
 
         Task task = taskMapper.toEntity(taskDto);
@@ -86,7 +90,8 @@ public class TaskMapperTest {
             "Test",
             "Test Desc",
             LocalDate.now(),
-            "Invalid"
+            "Invalid",
+            0L
         );
 
         InvalidTaskFieldException exception = assertThrows(InvalidTaskFieldException.class, () -> taskMapper.toEntity(taskDto));
@@ -95,8 +100,8 @@ public class TaskMapperTest {
 
     @Test
     void canMapPageTaskToPageTaskDto() {
-        Task task1 = new Task(1L, false, "Task 1", "Desc 1", LocalDate.now(), TaskStatus.TODO);
-        Task task2 = new Task(2L, false, "Task 2", "Desc 2", LocalDate.now(), TaskStatus.IN_PROGRESS);
+        Task task1 = new Task(1L, false, "Task 1", "Desc 1", LocalDate.now(), TaskStatus.TODO, 0L);
+        Task task2 = new Task(2L, false, "Task 2", "Desc 2", LocalDate.now(), TaskStatus.IN_PROGRESS, 0L);
         Page<Task> taskPage = new PageImpl<>(List.of(task1, task2));
 
         Page<TaskDto> dtoPage = taskMapper.toDtoPaged(taskPage);
@@ -106,4 +111,17 @@ public class TaskMapperTest {
         assertEquals(task2.getId(), dtoPage.getContent().get(1).getId());
         assertEquals(task1.getTitle(), dtoPage.getContent().get(0).getTitle());
     }
+
+    @Test
+    void canMapUpdateDtoToChangesOfSuppliedFields() {
+        TaskUpdateDto updateDto = new TaskUpdateDto();
+        updateDto.setTitle("Updated");
+        updateDto.setStatus("done");
+
+        Map<String, Object> changes = taskMapper.toChanges(updateDto);
+
+        assertEquals(2, changes.size());
+        assertEquals("Updated", changes.get("title"));
+        assertEquals(TaskStatus.DONE, changes.get("status"));
+    }
 }
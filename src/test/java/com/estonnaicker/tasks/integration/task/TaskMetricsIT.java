@@ -0,0 +1,85 @@
+package com.estonnaicker.tasks.integration.task;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.estonnaicker.tasks.config.SqlStatementsAdvice;
+import com.estonnaicker.tasks.task.Task;
+import com.estonnaicker.tasks.task.TaskCache;
+import com.estonnaicker.tasks.task.TaskRepository;
+import com.estonnaicker.tasks.task.TaskStats;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Own database so the create-drop schema of this context doesn't touch the other tests' one
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.datasource.url=jdbc:h2:mem:metricsdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+)
+public class TaskMetricsIT {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TaskCache taskCache;
+    @Autowired
+    private TaskStats taskStats;
+
+    @AfterEach
+    public void cleanup() {
+        taskRepository.deleteAll();
+        taskCache.invalidateAll();
+        taskStats.reconcile();
+    }
+
+    @Test
+    public void testTimesEachLayer() {
+        Task task = taskRepository.save(new Task(null, false, "Task 1", "Desc", LocalDate.now().plusDays(1), TaskStatus.TODO, 0L));
+
+        ResponseEntity<String> found = restTemplate.getForEntity("/api/v1/tasks/{id}", String.class, task.getId());
+        assertEquals(HttpStatus.OK, found.getStatusCode());
+        // The SQL counts only go out as headers with tasks.sql.response-headers on
+        assertFalse(found.getHeaders().containsKey(SqlStatementsAdvice.STATEMENTS_HEADER));
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity("/api/v1/tasks/{id}", String.class, 12345).getStatusCode());
+
+        assertEquals(1, timerCount("tasks.controller", "getTask", "success"));
+        assertEquals(1, timerCount("tasks.controller", "getTask", "error"));
+        assertEquals(1, timerCount("tasks.service", "getTaskById", "success"));
+        assertEquals(1, timerCount("tasks.service", "getTaskById", "error"));
+        assertEquals(2, timerCount("tasks.repository", "findDtoById", "success"));
+    }
+
+    @Test
+    public void testPrometheusScrape() {
+        restTemplate.getForEntity("/api/v1/tasks", String.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String body = response.getBody();
+        assertTrue(body.contains("tasks_service_seconds_bucket{"), "service histogram");
+        assertTrue(body.contains("tasks_repository_seconds_count{"), "repository timers");
+        assertTrue(body.contains("tasks_controller_seconds_count{"), "controller timers");
+        assertTrue(body.contains("hikaricp_connections_active{"), "pool gauges");
+        assertTrue(body.contains("hibernate_query_executions_total{"), "hibernate statistics");
+        assertTrue(body.contains("hibernate_flushes_total{"), "hibernate flushes");
+    }
+
+    private long timerCount(String name, String method, String outcome) {
+        return meterRegistry.get(name).tag("method", method).tag("outcome", outcome).timer().count();
+    }
+}
@@ -0,0 +1,135 @@
+package com.estonnaicker.tasks.integration.task;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.estonnaicker.tasks.task.Task;
+import com.estonnaicker.tasks.task.TaskCache;
+import com.estonnaicker.tasks.task.TaskRepository;
+import com.estonnaicker.tasks.task.TaskStats;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+// Own database so the create-drop schema of this context doesn't touch the other tests' one
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:tracingdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "tasks.tracing.sample-rate=1.0"
+    }
+)
+public class TaskTracingIT {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_ID = "00f067aa0ba902b7";
+
+    @TestConfiguration
+    static class InMemoryExporterConfig {
+        @Bean
+        public InMemorySpanExporter spanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TaskCache taskCache;
+    @Autowired
+    private TaskStats taskStats;
+
+    @AfterEach
+    public void cleanup() {
+        taskRepository.deleteAll();
+        taskCache.invalidateAll();
+        taskStats.reconcile();
+        spanExporter.reset();
+    }
+
+    @Test
+    public void testContinuesIncomingTrace() {
+        Task task = taskRepository.save(new Task(null, false, "Task 1", "Desc", LocalDate.now().plusDays(1), TaskStatus.TODO, 0L));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("traceparent", "00-" + TRACE_ID + "-" + PARENT_ID + "-01");
+
+        ResponseEntity<String> response = restTemplate.exchange(
+            "/api/v1/tasks/{id}", HttpMethod.GET, new HttpEntity<>(headers), String.class, task.getId()
+        );
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        Map<String, SpanData> spans = awaitTrace();
+        spans.values().forEach(span -> assertEquals(TRACE_ID, span.getTraceId()));
+
+        SpanData server = spans.get("GET /api/v1/tasks/{id}");
+        assertEquals(SpanKind.SERVER, server.getKind());
+        assertEquals(PARENT_ID, server.getParentSpanId());
+        assertParent(server, spans.get("TaskController.getTask"));
+        assertParent(spans.get("TaskController.getTask"), spans.get("TaskService.getTaskById"));
+        assertParent(spans.get("TaskService.getTaskById"), spans.get("SELECT"));
+    }
+
+    @Test
+    public void testTracesMapperAndStatements() {
+        ResponseEntity<String> response = restTemplate.postForEntity(
+            "/api/v1/tasks",
+            Map.of("title", "Task 1", "description", "Desc", "dueDate", LocalDate.now().plusDays(1).toString(), "status", "TODO"),
+            String.class
+        );
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+
+        Map<String, SpanData> spans = awaitTrace();
+        SpanData service = spans.get("TaskService.createTask");
+        assertParent(spans.get("TaskController.createTask"), service);
+        assertParent(service, spans.get("TaskMapper.toEntity"));
+        assertParent(service, spans.get("TaskMapper.toDto"));
+        assertParent(service, spans.get("INSERT"));
+        assertTrue(spans.get("INSERT").getAttributes().toString().contains("insert into task"));
+    }
+
+    // The server span ends after the response is sent, so it may not be exported yet
+    private Map<String, SpanData> awaitTrace() {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+            List<SpanData> spans = spanExporter.getFinishedSpanItems();
+            if (spans.stream().anyMatch(span -> span.getKind() == SpanKind.SERVER)) {
+                return spans.stream().collect(Collectors.toMap(SpanData::getName, span -> span, (first, second) -> first));
+            }
+        }
+        fail("No server span exported");
+        return null;
+    }
+
+    private void assertParent(SpanData parent, SpanData child) {
+        assertNotNull(parent);
+        assertNotNull(child);
+        assertEquals(parent.getSpanId(), child.getParentSpanId(), child.getName() + " under " + parent.getName());
+    }
+}
@@ -0,0 +1,106 @@
+package com.estonnaicker.tasks.unit.admin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.estonnaicker.tasks.admin.FlightRecorder;
+import com.estonnaicker.tasks.admin.FlightRecordingDto;
+import com.estonnaicker.tasks.exception.GlobalExceptionHandler;
+import com.estonnaicker.tasks.exception.InvalidTaskFieldException;
+import com.estonnaicker.tasks.exception.ResourceNotFoundException;
+import com.estonnaicker.tasks.task.TaskController;
+import com.estonnaicker.tasks.task.TaskOperationEvent;
+import com.estonnaicker.tasks.task.TaskService;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class FlightRecorderTest {
+
+    private final FlightRecorder flightRecorder = new FlightRecorder(Duration.ofMinutes(1));
+
+    @AfterEach
+    public void tearDown() {
+        this.flightRecorder.destroy();
+    }
+
+    @Test
+    public void testRecordsTaskOperationsAndApiErrors() throws Exception {
+        FlightRecordingDto recording = this.flightRecorder.start("default", Duration.ofSeconds(30));
+        assertEquals("RUNNING", recording.getState());
+
+        TaskOperationEvent event = TaskOperationEvent.begin("getTaskById", 42L);
+        event.succeeded(1);
+        event.commit();
+        new GlobalExceptionHandler().handleResourceNotFoundException(new ResourceNotFoundException("Task", "id", 7L));
+
+        Path file = this.flightRecorder.stop(recording.getId());
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            Set<String> names = events.stream().map(e -> e.getEventType().getName()).collect(Collectors.toSet());
+            assertTrue(names.contains("com.estonnaicker.tasks.TaskOperation"));
+            assertTrue(names.contains("com.estonnaicker.tasks.ApiError"));
+
+            RecordedEvent operation = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.estonnaicker.tasks.TaskOperation"))
+                .findFirst()
+                .get();
+            assertEquals(42L, operation.getLong("taskId"));
+            assertTrue(operation.getBoolean("succeeded"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        assertTrue(this.flightRecorder.list().isEmpty());
+    }
+
+    @Test
+    public void testRecordsControllerLocalErrors() throws Exception {
+        FlightRecordingDto recording = this.flightRecorder.start("default", Duration.ofSeconds(30));
+
+        new TaskController(mock(TaskService.class)).handleInvalidTaskFieldException(
+            new InvalidTaskFieldException("status", "status cannot be empty")
+        );
+
+        Path file = this.flightRecorder.stop(recording.getId());
+        try {
+            RecordedEvent error = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("com.estonnaicker.tasks.ApiError"))
+                .findFirst()
+                .get();
+            assertEquals(400, error.getInt("status"));
+            assertEquals(InvalidTaskFieldException.class.getName(), error.getString("exception"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testRejectsASecondRunningRecording() throws Exception {
+        this.flightRecorder.start("default", Duration.ofSeconds(30));
+
+        assertThrows(IllegalArgumentException.class, () -> this.flightRecorder.start("default", Duration.ofSeconds(30)));
+    }
+
+    @Test
+    public void testRejectsUnknownProfileAndLongDuration() {
+        assertThrows(IllegalArgumentException.class, () -> this.flightRecorder.start("nosuch", Duration.ofSeconds(30)));
+        assertThrows(IllegalArgumentException.class, () -> this.flightRecorder.start("default", Duration.ofMinutes(5)));
+    }
+
+    @Test
+    public void testStopUnknownRecording() {
+        assertThrows(ResourceNotFoundException.class, () -> this.flightRecorder.stop(-1));
+    }
+}
@@ -0,0 +1,88 @@
+package com.estonnaicker.tasks.unit.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.estonnaicker.tasks.config.MethodTimers;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MethodTimersTest {
+
+    public interface Greeter {
+        String greet(String name);
+    }
+
+    public static class SimpleGreeter implements Greeter {
+        @Override
+        public String greet(String name) {
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("No name");
+            }
+            return "Hello " + name;
+        }
+    }
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final MethodTimers methodTimers = new MethodTimers(
+        new StaticListableBeanFactory(Map.of("registry", registry)).getBeanProvider(MeterRegistry.class),
+        Map.of(Greeter.class, "greeter")
+    );
+
+    @Test
+    public void testTimesEachOutcome() {
+        Greeter greeter = (Greeter) methodTimers.postProcessAfterInitialization(new SimpleGreeter(), "greeter");
+        methodTimers.afterSingletonsInstantiated();
+
+        assertTrue(AopUtils.isCglibProxy(greeter));
+        assertEquals("Hello Ann", greeter.greet("Ann"));
+        assertEquals("Hello Bob", greeter.greet("Bob"));
+        assertThrows(IllegalArgumentException.class, () -> greeter.greet(""));
+
+        assertEquals(2, timer("success").count());
+        assertEquals(1, timer("error").count());
+    }
+
+    @Test
+    public void testAddsAdviceToExistingProxy() {
+        ProxyFactory proxyFactory = new ProxyFactory(new SimpleGreeter());
+        proxyFactory.addInterface(Greeter.class);
+        Object proxy = proxyFactory.getProxy();
+
+        Greeter greeter = (Greeter) methodTimers.postProcessAfterInitialization(proxy, "greeter");
+        methodTimers.afterSingletonsInstantiated();
+        greeter.greet("Ann");
+
+        assertSame(proxy, greeter);
+        assertEquals(1, ((Advised) proxy).getAdvisors().length);
+        assertEquals(1, timer("success").count());
+    }
+
+    @Test
+    public void testSkipsOtherBeansAndCallsBeforeBinding() {
+        Object other = new Object();
+        assertSame(other, methodTimers.postProcessAfterInitialization(other, "other"));
+
+        Greeter greeter = (Greeter) methodTimers.postProcessAfterInitialization(new SimpleGreeter(), "greeter");
+        greeter.greet("Ann");
+
+        assertNull(registry.find("greeter").timer());
+    }
+
+    private Timer timer(String outcome) {
+        return registry.get("greeter").tag("method", "greet").tag("outcome", outcome).timer();
+    }
+}
@@ -0,0 +1,67 @@
+package com.estonnaicker.tasks.unit.config;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.estonnaicker.tasks.config.SqlLogListener;
+import com.estonnaicker.tasks.utils.AsyncLog;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+
+public class SqlLogListenerTest {
+
+    private final AsyncLog sqlLog = mock(AsyncLog.class);
+    private final List<QueryInfo> queries = List.of(new QueryInfo("select * from task where id = ?"));
+
+    @BeforeEach
+    public void setUp() {
+        when(sqlLog.isEnabled()).thenReturn(true);
+    }
+
+    @Test
+    public void testLogsSlowStatementsWithoutSampling() {
+        SqlLogListener listener = new SqlLogListener(sqlLog, 0, 200);
+
+        listener.afterQuery(execution(5), queries);
+        listener.afterQuery(execution(250), queries);
+
+        verify(sqlLog, times(1)).log(any());
+    }
+
+    @Test
+    public void testSamplesEveryStatementAtFullRate() {
+        SqlLogListener listener = new SqlLogListener(sqlLog, 1.0, 200);
+
+        listener.afterQuery(execution(1), queries);
+        listener.afterQuery(execution(2), queries);
+
+        verify(sqlLog, times(2)).log(any());
+    }
+
+    @Test
+    public void testSkipsWhenLoggerIsOff() {
+        when(sqlLog.isEnabled()).thenReturn(false);
+        SqlLogListener listener = new SqlLogListener(sqlLog, 1.0, 200);
+
+        listener.afterQuery(execution(250), queries);
+
+        verify(sqlLog, never()).log(any());
+    }
+
+    private ExecutionInfo execution(long elapsedMillis) {
+        ExecutionInfo execution = new ExecutionInfo();
+        execution.setElapsedTime(elapsedMillis);
+        execution.setSuccess(true);
+        return execution;
+    }
+}
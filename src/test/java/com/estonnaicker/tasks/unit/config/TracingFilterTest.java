@@ -0,0 +1,70 @@
+package com.estonnaicker.tasks.unit.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.estonnaicker.tasks.config.TracingFilter;
+
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+
+public class TracingFilterTest {
+
+    private final InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+
+    @Test
+    public void testSamplesNoNewTracesAtZeroRate() throws Exception {
+        filter(0).doFilter(request("/api/v1/tasks", null), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertTrue(spanExporter.getFinishedSpanItems().isEmpty());
+    }
+
+    @Test
+    public void testFollowsSampledParentAtZeroRate() throws Exception {
+        String traceparent = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+        filter(0).doFilter(request("/api/v1/tasks", traceparent), new MockHttpServletResponse(), new MockFilterChain());
+
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        assertEquals(1, spans.size());
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", spans.get(0).getTraceId());
+        assertEquals("00f067aa0ba902b7", spans.get(0).getParentSpanId());
+    }
+
+    @Test
+    public void testSkipsRequestsOutsideApi() throws Exception {
+        filter(1.0).doFilter(request("/actuator/prometheus", null), new MockHttpServletResponse(), new MockFilterChain());
+        filter(1.0).doFilter(request("/api/v1/tasks", null), new MockHttpServletResponse(), new MockFilterChain());
+
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        assertEquals(1, spans.size());
+        assertEquals("GET", spans.get(0).getName());
+    }
+
+    private TracingFilter filter(double sampleRate) {
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+            .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(sampleRate)))
+            .addSpanProcessor(SimpleSpanProcessor.create(spanExporter))
+            .build();
+        return new TracingFilter(tracerProvider.get("test"), W3CTraceContextPropagator.getInstance());
+    }
+
+    private MockHttpServletRequest request(String uri, String traceparent) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (traceparent != null) {
+            request.addHeader("traceparent", traceparent);
+        }
+        return request;
+    }
+}
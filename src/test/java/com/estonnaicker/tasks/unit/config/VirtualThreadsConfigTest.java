@@ -0,0 +1,32 @@
+package com.estonnaicker.tasks.unit.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+
+import org.junit.jupiter.api.Test;
+
+import com.estonnaicker.tasks.config.VirtualThreadsConfig;
+
+public class VirtualThreadsConfigTest {
+
+    // Holds for whichever JVM runs the tests, the build itself targets 11
+    @Test
+    public void testExecutorNeedsJava21() throws Exception {
+        if (Runtime.version().feature() < 21) {
+            IllegalStateException ex = assertThrows(IllegalStateException.class, VirtualThreadsConfig::newVirtualThreadPerTaskExecutor);
+            assertTrue(ex.getMessage().startsWith("tasks.threads.virtual needs Java 21 or newer"));
+            return;
+        }
+
+        ExecutorService executor = VirtualThreadsConfig.newVirtualThreadPerTaskExecutor();
+        try {
+            Object virtual = executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread())).get();
+            assertEquals(Boolean.TRUE, virtual);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.estonnaicker.tasks.unit.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.estonnaicker.tasks.exception.GlobalExceptionHandler;
+import com.estonnaicker.tasks.exception.ResourceNotFoundException;
+import com.estonnaicker.tasks.task.AsyncTaskController;
+import com.estonnaicker.tasks.task.TaskBulkheads;
+import com.estonnaicker.tasks.task.TaskFilter;
+import com.estonnaicker.tasks.task.TaskService;
+import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.utils.BulkheadStatsDto;
+import com.estonnaicker.tasks.utils.enums.ExportFormat;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+
+@ExtendWith(MockitoExtension.class)
+public class AsyncTaskControllerTest {
+
+    @Mock
+    private TaskService taskService;
+
+    private TaskBulkheads bulkheads;
+    private MockMvc mockMvc;
+    private TaskDto taskDto;
+
+    @BeforeEach
+    public void setUp() {
+        // One heavy thread with room for one more in the queue, reads time out quickly
+        bulkheads = new TaskBulkheads(2, 10, Duration.ofMillis(200), 1, 1, Duration.ofSeconds(5));
+        mockMvc = MockMvcBuilders.standaloneSetup(new AsyncTaskController(taskService, bulkheads))
+                                 .setControllerAdvice(new GlobalExceptionHandler())
+                                 .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                                 .build();
+        taskDto = new TaskDto(1L, "Test Task", "Test Desc", LocalDate.now(), TaskStatus.TODO.toString(), 3L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bulkheads.destroy();
+    }
+
+    @Test
+    public void getTask_Runs_On_Reads_Bulkhead() throws Exception {
+        when(taskService.getTaskById(1L)).thenAnswer(invocation -> {
+            assertEquals(true, Thread.currentThread().getName().startsWith("bulkhead-reads-"));
+            return taskDto;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/v1/async/tasks/1"))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isOk())
+               .andExpect(header().string("ETag", "\"3\""))
+               .andExpect(jsonPath("$.data.id").value(1))
+               .andExpect(jsonPath("$.data.title").value("Test Task"));
+    }
+
+    @Test
+    public void getTask_Returns_Not_Modified() throws Exception {
+        when(taskService.getTaskById(1L)).thenReturn(taskDto);
+
+        MvcResult result = mockMvc.perform(get("/api/v1/async/tasks/1").header("If-None-Match", "\"3\""))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isNotModified())
+               .andExpect(content().string(""));
+    }
+
+    @Test
+    public void getTask_Throws_NotFound() throws Exception {
+        when(taskService.getTaskById(2L)).thenThrow(new ResourceNotFoundException("Task", "id", 2L));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/async/tasks/2"))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isNotFound())
+               .andExpect(jsonPath("$.message").value("Task not found with id : 2"));
+    }
+
+    @Test
+    public void getTask_Times_Out() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskService.getTaskById(1L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return taskDto;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/v1/async/tasks/1"))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isServiceUnavailable())
+               .andExpect(jsonPath("$.message").value("Request timed out, try again later"));
+        release.countDown();
+        assertEquals(1, readsStats().getTimedOut());
+    }
+
+    @Test
+    public void getTasks_Runs_On_Heavy_Bulkhead() throws Exception {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(taskService.getAllTasks(eq(new TaskFilter(TaskStatus.TODO, null, null, null, false, null)), any(Pageable.class))).thenAnswer(invocation -> {
+            assertEquals(true, Thread.currentThread().getName().startsWith("bulkhead-heavy-"));
+            return new PageImpl<>(List.of(taskDto), pageable, 1);
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/v1/async/tasks").param("status", "TODO"))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isOk())
+               .andExpect(header().exists("ETag"))
+               .andExpect(jsonPath("$.data[0].id").value(1))
+               .andExpect(jsonPath("$.metadata.totalElements").value(1));
+    }
+
+    @Test
+    public void getTasks_Rejected_When_Heavy_Bulkhead_Is_Full() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskService.getAllTasks(any(TaskFilter.class), any(Pageable.class))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new PageImpl<>(List.of(taskDto));
+        });
+
+        // One listing runs and one waits in the queue, the third is turned away
+        mockMvc.perform(get("/api/v1/async/tasks")).andExpect(request().asyncStarted());
+        started.await(5, TimeUnit.SECONDS);
+        mockMvc.perform(get("/api/v1/async/tasks")).andExpect(request().asyncStarted());
+        MvcResult rejected = mockMvc.perform(get("/api/v1/async/tasks")).andReturn();
+
+        mockMvc.perform(asyncDispatch(rejected))
+               .andExpect(status().isServiceUnavailable())
+               .andExpect(jsonPath("$.message").value("Too many heavy requests in progress, try again later"));
+
+        BulkheadStatsDto heavy = bulkheads.heavy().stats();
+        assertEquals(1, heavy.getQueueDepth());
+        assertEquals(1, heavy.getRejected());
+
+        // Lookups still have threads of their own
+        when(taskService.getTaskById(1L)).thenReturn(taskDto);
+        MvcResult lookup = mockMvc.perform(get("/api/v1/async/tasks/1")).andReturn();
+        mockMvc.perform(asyncDispatch(lookup)).andExpect(status().isOk());
+        release.countDown();
+    }
+
+    @Test
+    public void exportTasks_Streams_Csv() throws Exception {
+        doAnswer(invocation -> {
+            assertEquals(true, Thread.currentThread().getName().startsWith("bulkhead-heavy-"));
+            OutputStream out = invocation.getArgument(3);
+            out.write("id,title\n1,Test\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(taskService).exportTasks(eq(TaskStatus.TODO), isNull(), eq(ExportFormat.CSV), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/async/tasks/export")
+                .param("status", TaskStatus.TODO.toString())
+                .param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // The body is a StreamingResponseBody, written once more asynchronously on the heavy bulkhead
+        MvcResult streamed = mockMvc.perform(asyncDispatch(result))
+                                    .andExpect(request().asyncStarted())
+                                    .andReturn();
+        streamed.getAsyncResult(5000);
+
+        assertEquals(200, streamed.getResponse().getStatus());
+        assertEquals("text/csv", streamed.getResponse().getContentType());
+        assertEquals("attachment; filename=tasks.csv", streamed.getResponse().getHeader("Content-Disposition"));
+        assertEquals("id,title\n1,Test\n", streamed.getResponse().getContentAsString());
+        verify(taskService).exportTasks(eq(TaskStatus.TODO), isNull(), eq(ExportFormat.CSV), any(OutputStream.class));
+    }
+
+    @Test
+    public void getTask_Invalid_Task_Id_Throws_Error() throws Exception {
+        mockMvc.perform(get("/api/v1/async/tasks/gbhjn"))
+               .andExpect(status().isBadRequest())
+               .andExpect(jsonPath("$.message").value("Invalid Input Type"))
+               .andExpect(jsonPath("$.errors.id").value("Expected a number"));
+    }
+
+    private BulkheadStatsDto readsStats() {
+        return bulkheads.stats().get(0);
+    }
+}
@@ -0,0 +1,85 @@
+package com.estonnaicker.tasks.unit.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.estonnaicker.tasks.task.TaskCache;
+import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.task.dto.TaskCacheStatsDto;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+
+public class TaskCacheTest {
+
+    private TaskCache taskCache;
+    private TaskDto taskDto;
+
+    @BeforeEach
+    public void setup() {
+        taskCache = new TaskCache(100, Duration.ofMinutes(1));
+        taskDto = new TaskDto(1L, "Test Task", "Test Desc", LocalDate.now(), TaskStatus.TODO.toString(), 0L);
+    }
+
+    @Test
+    public void testLoadsOnceAndRecordsStats() {
+        AtomicInteger loads = new AtomicInteger();
+
+        taskCache.get(1L, id -> { loads.incrementAndGet(); return taskDto; });
+        TaskDto cached = taskCache.get(1L, id -> { loads.incrementAndGet(); return taskDto; });
+
+        TaskCacheStatsDto stats = taskCache.stats();
+        assertSame(taskDto, cached);
+        assertEquals(1, loads.get());
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    public void testInvalidateForcesReload() {
+        AtomicInteger loads = new AtomicInteger();
+
+        taskCache.get(1L, id -> { loads.incrementAndGet(); return taskDto; });
+        taskCache.invalidate(1L);
+        taskCache.get(1L, id -> { loads.incrementAndGet(); return taskDto; });
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testLoadRacingAnInvalidateIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        // The task gets archived while the first read is still in flight
+        TaskDto stale = taskCache.get(1L, id -> {
+            loads.incrementAndGet();
+            taskCache.invalidate(1L);
+            return taskDto;
+        });
+        taskCache.get(1L, id -> { loads.incrementAndGet(); return taskDto; });
+
+        assertSame(taskDto, stale);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testInvalidatingAnotherTaskDoesNotStopTheStore() {
+        AtomicInteger loads = new AtomicInteger();
+
+        // Another task gets updated while the first read is still in flight
+        taskCache.get(1L, id -> {
+            loads.incrementAndGet();
+            taskCache.invalidate(2L);
+            return taskDto;
+        });
+        TaskDto cached = taskCache.get(1L, id -> { loads.incrementAndGet(); return taskDto; });
+
+        assertSame(taskDto, cached);
+        assertEquals(1, loads.get());
+    }
+}
@@ -1,8 +1,10 @@
 package com.estonnaicker.tasks.unit.task;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -11,9 +13,14 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.hasSize;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -28,19 +35,35 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import com.estonnaicker.tasks.config.SqlStatementsAdvice;
+import com.estonnaicker.tasks.config.SqlStatementsFilter;
 import com.estonnaicker.tasks.exception.GlobalExceptionHandler;
+import com.estonnaicker.tasks.exception.PreconditionFailedException;
 import com.estonnaicker.tasks.exception.ResourceNotFoundException;
+import com.estonnaicker.tasks.task.TaskBulkJob;
 import com.estonnaicker.tasks.task.TaskController;
+import com.estonnaicker.tasks.task.TaskFilter;
 import com.estonnaicker.tasks.task.TaskService;
+import com.estonnaicker.tasks.task.dto.TaskBatchErrorDto;
+import com.estonnaicker.tasks.task.dto.TaskBatchResultDto;
+import com.estonnaicker.tasks.task.dto.TaskBulkActionDto;
 import com.estonnaicker.tasks.task.dto.TaskCreateDto;
 import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.task.dto.TaskImportResultDto;
+import com.estonnaicker.tasks.task.dto.TaskStatsDto;
 import com.estonnaicker.tasks.task.dto.TaskUpdateDto;
+import com.estonnaicker.tasks.utils.CursorPage;
+import com.estonnaicker.tasks.utils.EstimatedPage;
+import com.estonnaicker.tasks.utils.SqlStatements;
+import com.estonnaicker.tasks.utils.enums.ExportFormat;
 import com.estonnaicker.tasks.utils.enums.TaskStatus;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -62,9 +85,11 @@ public class TaskControllerTest {
 
     @BeforeEach
     public void setUp() {
+        // SqlStatementsAdvice is registered here as if tasks.sql.response-headers were on
         mockMvc = MockMvcBuilders.standaloneSetup(taskController)
-                                 .setControllerAdvice(new GlobalExceptionHandler())
+                                 .setControllerAdvice(new GlobalExceptionHandler(), new SqlStatementsAdvice())
                                  .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                                 .addFilters(new SqlStatementsFilter(20, 5))
                                  .build();
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
@@ -108,6 +133,27 @@ public class TaskControllerTest {
                     .andExpect(status().isNotFound())
                     .andExpect(jsonPath("$.message").value("Task not found with id : 2"));
         }
+
+        @Test
+        public void getTask_Returns_Version_As_ETag() throws Exception {
+            TaskDto taskDto = new TaskDto(1L, "Test Task", null, LocalDate.now(), TaskStatus.TODO.toString(), 3L);
+            when(taskService.getTaskById(1L)).thenReturn(taskDto);
+
+            mockMvc.perform(get("/api/v1/tasks/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"3\""))
+                    .andExpect(jsonPath("$.data.version").value(3));
+        }
+
+        @Test
+        public void getTask_Returns_NotModified_For_Matching_ETag() throws Exception {
+            TaskDto taskDto = new TaskDto(1L, "Test Task", null, LocalDate.now(), TaskStatus.TODO.toString(), 3L);
+            when(taskService.getTaskById(1L)).thenReturn(taskDto);
+
+            mockMvc.perform(get("/api/v1/tasks/1").header("If-None-Match", "\"3\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
     }
 
     @Nested
@@ -120,9 +166,9 @@ public class TaskControllerTest {
 
         @BeforeEach
         public void setup() {
-            todoTask = new TaskDto(1L, "Test 1", "Test 1 Description", LocalDate.now(), TaskStatus.TODO.toString());
-            inProgressTask = new TaskDto(2L, "Test 2", "Test 2 Description", LocalDate.now(), TaskStatus.IN_PROGRESS.toString());
-            doneTask = new TaskDto(3L, "Test 3", "Test 3 Description", LocalDate.now(), TaskStatus.DONE.toString());
+            todoTask = new TaskDto(1L, "Test 1", "Test 1 Description", LocalDate.now(), TaskStatus.TODO.toString(), 0L);
+            inProgressTask = new TaskDto(2L, "Test 2", "Test 2 Description", LocalDate.now(), TaskStatus.IN_PROGRESS.toString(), 0L);
+            doneTask = new TaskDto(3L, "Test 3", "Test 3 Description", LocalDate.now(), TaskStatus.DONE.toString(), 0L);
             tasks = List.of(todoTask, inProgressTask, doneTask);
         }
         
@@ -133,7 +179,7 @@ public class TaskControllerTest {
                 PageRequest.of(0, 10, Sort.by("id").ascending()),
                 tasks.size()
             );
-            when(taskService.getAllTasks(isNull(), isNull(), any(Pageable.class))).thenReturn(page);
+            when(taskService.getAllTasks(eq(TaskFilter.of(null, null)), any(Pageable.class))).thenReturn(page);
 
             mockMvc.perform(get("/api/v1/tasks")
                     .contentType(MediaType.APPLICATION_JSON))
@@ -144,6 +190,24 @@ public class TaskControllerTest {
                     .andExpect(jsonPath("$.metadata.totalPages").value(1));
         }
 
+        @Test
+        public void getTasks_Returns_NotModified_Until_A_Task_Changes() throws Exception {
+            when(taskService.getAllTasks(eq(TaskFilter.of(null, null)), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(tasks, invocation.getArgument(1), tasks.size()));
+
+            String etag = mockMvc.perform(get("/api/v1/tasks"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("ETag");
+
+            mockMvc.perform(get("/api/v1/tasks").header("If-None-Match", etag))
+                    .andExpect(status().isNotModified());
+
+            doneTask.setVersion(1L);
+            mockMvc.perform(get("/api/v1/tasks").header("If-None-Match", etag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data[2].version").value(1));
+        }
+
         @Test
         public void getTasks_Calls_With_Status_Correctly() throws Exception {
             Page<TaskDto> page = new PageImpl<>(
@@ -151,7 +215,7 @@ public class TaskControllerTest {
                 PageRequest.of(0, 10, Sort.by("id").ascending()),
                 1
             );
-            when(taskService.getAllTasks(eq(TaskStatus.IN_PROGRESS), isNull(), any(Pageable.class))).thenReturn(page);
+            when(taskService.getAllTasks(eq(TaskFilter.of(TaskStatus.IN_PROGRESS, null)), any(Pageable.class))).thenReturn(page);
             mockMvc.perform(get("/api/v1/tasks")
                     .param("status", TaskStatus.IN_PROGRESS.toString())
                     .contentType(MediaType.APPLICATION_JSON))
@@ -162,7 +226,7 @@ public class TaskControllerTest {
                     .andExpect(jsonPath("$.metadata.totalPages").value(1));
                     
             ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-            verify(taskService, times(1)).getAllTasks(eq(TaskStatus.IN_PROGRESS), isNull(), pageableCaptor.capture());
+            verify(taskService, times(1)).getAllTasks(eq(TaskFilter.of(TaskStatus.IN_PROGRESS, null)), pageableCaptor.capture());
         }
 
         @Test
@@ -178,14 +242,14 @@ public class TaskControllerTest {
         @Test
         public void getTasks_Calls_With_DueDate_Correctly() throws Exception {
             LocalDate now = LocalDate.now();
-            TaskDto nowTask = new TaskDto(1L, "Date Test", "Date Test Desc", now, TaskStatus.IN_PROGRESS.toString());
+            TaskDto nowTask = new TaskDto(1L, "Date Test", "Date Test Desc", now, TaskStatus.IN_PROGRESS.toString(), 0L);
 
             Page<TaskDto> page = new PageImpl<>(
                 List.of(nowTask),
                 PageRequest.of(0, 10, Sort.by("id").ascending()),
                 tasks.size()
             );
-            when(taskService.getAllTasks(isNull(), eq(now), any(Pageable.class))).thenReturn(page);
+            when(taskService.getAllTasks(eq(TaskFilter.of(null, now)), any(Pageable.class))).thenReturn(page);
 
             mockMvc.perform(get("/api/v1/tasks")
                     .param("dueDate", String.valueOf(now))
@@ -197,7 +261,39 @@ public class TaskControllerTest {
                     .andExpect(jsonPath("$.metadata.totalPages").value(1));
 
             ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-            verify(taskService, times(1)).getAllTasks(isNull(), eq(now), pageableCaptor.capture());
+            verify(taskService, times(1)).getAllTasks(eq(TaskFilter.of(null, now)), pageableCaptor.capture());
+        }
+
+        @Test
+        public void getTasks_Calls_With_DueDate_Range_And_Overdue() throws Exception {
+            LocalDate from = LocalDate.of(2026, 1, 1);
+            LocalDate to = LocalDate.of(2026, 1, 31);
+            TaskFilter filter = new TaskFilter(null, null, from, to, true, null);
+            when(taskService.getAllTasks(eq(filter), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(todoTask), PageRequest.of(0, 10), 1));
+
+            mockMvc.perform(get("/api/v1/tasks")
+                    .param("dueFrom", "2026-01-01")
+                    .param("dueTo", "2026-01-31")
+                    .param("overdue", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data", hasSize(1)));
+
+            verify(taskService, times(1)).getAllTasks(eq(filter), any(Pageable.class));
+        }
+
+        @Test
+        public void getTasks_Calls_With_Trimmed_Search() throws Exception {
+            TaskFilter filter = new TaskFilter(null, null, null, null, false, "send invoice");
+            when(taskService.getAllTasks(eq(filter), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(todoTask), PageRequest.of(0, 10), 1));
+
+            mockMvc.perform(get("/api/v1/tasks")
+                    .param("q", "  send invoice "))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data", hasSize(1)));
+
+            verify(taskService, times(1)).getAllTasks(eq(filter), any(Pageable.class));
         }
 
         @Test
@@ -220,7 +316,7 @@ public class TaskControllerTest {
                 PageRequest.of(pageNo, size, Sort.by("id").ascending()),
                 tasks.size()
             );
-            when(taskService.getAllTasks(isNull(), isNull(), any(Pageable.class))).thenReturn(page);
+            when(taskService.getAllTasks(eq(TaskFilter.of(null, null)), any(Pageable.class))).thenReturn(page);
 
             mockMvc.perform(get("/api/v1/tasks")
                     .param("page", String.valueOf(pageNo))
@@ -233,7 +329,7 @@ public class TaskControllerTest {
                     .andExpect(jsonPath("$.metadata.totalPages").value(2));
             
             ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-            verify(taskService, times(1)).getAllTasks(isNull(), isNull(), pageableCaptor.capture());
+            verify(taskService, times(1)).getAllTasks(eq(TaskFilter.of(null, null)), pageableCaptor.capture());
         }
 
         @Test
@@ -246,7 +342,7 @@ public class TaskControllerTest {
                 PageRequest.of(0, 10, Sort.by(sortColumn).ascending()),
                 tasks.size()
             );
-            when(taskService.getAllTasks(isNull(), isNull(), any(Pageable.class))).thenReturn(page);
+            when(taskService.getAllTasks(eq(TaskFilter.of(null, null)), any(Pageable.class))).thenReturn(page);
             
             mockMvc.perform(get("/api/v1/tasks")
                     .param("sort", sortColumn + "," + sortDir)
@@ -258,15 +354,84 @@ public class TaskControllerTest {
                     .andExpect(jsonPath("$.metadata.totalPages").value(1));
             
             ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-            verify(taskService, times(1)).getAllTasks(isNull(), isNull(), pageableCaptor.capture());
+            verify(taskService, times(1)).getAllTasks(eq(TaskFilter.of(null, null)), pageableCaptor.capture());
         }
         
+        @Test
+        public void getTasks_Approximate_Totals_Are_Flagged() throws Exception {
+            EstimatedPage<TaskDto> page = new EstimatedPage<>(tasks, PageRequest.of(0, 10), 500, true);
+            when(taskService.getAllTasksWithApproximateTotal(eq(TaskFilter.of(null, null)), any(Pageable.class))).thenReturn(page);
+
+            mockMvc.perform(get("/api/v1/tasks")
+                    .param("totals", "APPROXIMATE")
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data", hasSize(tasks.size())))
+                    .andExpect(jsonPath("$.metadata.totalElements").value(500))
+                    .andExpect(jsonPath("$.metadata.totalPages").value(50))
+                    .andExpect(jsonPath("$.metadata.totalEstimated").value(true));
+
+            verify(taskService, never()).getAllTasks(any(), any(Pageable.class));
+        }
+
+        @Test
+        public void getTasks_Slice_Returns_HasNext_Without_Totals() throws Exception {
+            SliceImpl<TaskDto> slice = new SliceImpl<>(tasks, PageRequest.of(0, 3), true);
+            when(taskService.getAllTasksSlice(eq(TaskFilter.of(null, null)), any(Pageable.class))).thenReturn(slice);
+
+            mockMvc.perform(get("/api/v1/tasks")
+                    .param("paging", "SLICE")
+                    .param("size", "3")
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data", hasSize(tasks.size())))
+                    .andExpect(jsonPath("$.metadata.pageNumber").value(0))
+                    .andExpect(jsonPath("$.metadata.hasNext").value(true))
+                    .andExpect(jsonPath("$.metadata.totalElements").doesNotExist())
+                    .andExpect(jsonPath("$.metadata.totalPages").doesNotExist());
+
+            verify(taskService, never()).getAllTasks(any(), any(Pageable.class));
+        }
+
+        @Test
+        public void getTasks_Keyset_Returns_Next_Cursor() throws Exception {
+            CursorPage<TaskDto> page = new CursorPage<>(tasks, 3, "next");
+            when(taskService.getAllTasksAfter(eq(TaskFilter.of(null, null)), isNull(), any(Pageable.class))).thenReturn(page);
+
+            mockMvc.perform(get("/api/v1/tasks")
+                    .param("paging", "KEYSET")
+                    .param("size", "3")
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data", hasSize(tasks.size())))
+                    .andExpect(jsonPath("$.metadata.nextCursor").value("next"))
+                    .andExpect(jsonPath("$.metadata.last").value(false))
+                    .andExpect(jsonPath("$.metadata.totalElements").doesNotExist());
+
+            verify(taskService, never()).getAllTasks(any(), any(Pageable.class));
+        }
+
+        @Test
+        public void getTasks_Cursor_Implies_Keyset() throws Exception {
+            CursorPage<TaskDto> page = new CursorPage<>(List.of(doneTask), 10, null);
+            when(taskService.getAllTasksAfter(eq(TaskFilter.of(TaskStatus.DONE, null)), eq("abc"), any(Pageable.class))).thenReturn(page);
+
+            mockMvc.perform(get("/api/v1/tasks")
+                    .param("status", TaskStatus.DONE.toString())
+                    .param("cursor", "abc")
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data", hasSize(1)))
+                    .andExpect(jsonPath("$.metadata.nextCursor").isEmpty())
+                    .andExpect(jsonPath("$.metadata.last").value(true));
+        }
+
         @Test
         public void getTasks_Can_Handle_All_Params() throws Exception {
             TaskStatus status = TaskStatus.IN_PROGRESS;
             // dueDate Filter Prep
             LocalDate now = LocalDate.now();
-            TaskDto nowTask = new TaskDto(4L, "Date Test", "Date Test Desc", now, TaskStatus.IN_PROGRESS.toString());
+            TaskDto nowTask = new TaskDto(4L, "Date Test", "Date Test Desc", now, TaskStatus.IN_PROGRESS.toString(), 0L);
             List<TaskDto>  allParamsTasks = new ArrayList<>(tasks);
             allParamsTasks.add(nowTask);
 
@@ -282,7 +447,7 @@ public class TaskControllerTest {
                 PageRequest.of(pageNo, size, Sort.by(sortColumn).ascending()),
                 allParamsTasks.size()
             );
-            when(taskService.getAllTasks(eq(status), eq(now), any(Pageable.class))).thenReturn(page);
+            when(taskService.getAllTasks(eq(TaskFilter.of(status, now)), any(Pageable.class))).thenReturn(page);
 
             mockMvc.perform(get("/api/v1/tasks")
                     .param("status", status.toString())
@@ -297,7 +462,7 @@ public class TaskControllerTest {
                     .andExpect(jsonPath("$.metadata.totalPages").value(2)); // 2 because we said size is 2 and total elements is 4
 
             ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-            verify(taskService, times(1)).getAllTasks(eq(status), eq(now), pageableCaptor.capture());
+            verify(taskService, times(1)).getAllTasks(eq(TaskFilter.of(status, now)), pageableCaptor.capture());
         }
     }
 
@@ -355,6 +520,50 @@ public class TaskControllerTest {
         }
     }
 
+    @Nested
+    class CreateTasks {
+        private TaskCreateDto createTaskDto;
+        private TaskDto taskDto;
+
+        @BeforeEach
+        public void setup() {
+            LocalDate now = LocalDate.now().plusDays(1);
+            createTaskDto = new TaskCreateDto("Test Task", "Test Task Desc", now, TaskStatus.TODO.toString());
+            taskDto = new TaskDto(1L, "Test Task", "Test Task Desc", now, TaskStatus.TODO.toString(), 0L);
+        }
+
+        @Test
+        public void createTasks_Returns_Created_When_All_Valid() throws Exception {
+            TaskBatchResultDto result = new TaskBatchResultDto(List.of(taskDto), new ArrayList<>());
+            when(taskService.createTasks(any())).thenReturn(result);
+
+            mockMvc.perform(
+                post("/api/v1/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(createTaskDto)))
+            ).andExpect(status().isCreated())
+            .andExpect(jsonPath("$.data.created", hasSize(1)))
+            .andExpect(jsonPath("$.data.created[0].id").value(taskDto.getId()))
+            .andExpect(jsonPath("$.data.errors", hasSize(0)));
+        }
+
+        @Test
+        public void createTasks_Returns_MultiStatus_With_Item_Errors() throws Exception {
+            TaskBatchErrorDto error = new TaskBatchErrorDto(1, Map.of("title", "Title cannot be empty"));
+            TaskBatchResultDto result = new TaskBatchResultDto(List.of(taskDto), List.of(error));
+            when(taskService.createTasks(any())).thenReturn(result);
+
+            mockMvc.perform(
+                post("/api/v1/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(createTaskDto, new TaskCreateDto())))
+            ).andExpect(status().isMultiStatus())
+            .andExpect(jsonPath("$.data.created", hasSize(1)))
+            .andExpect(jsonPath("$.data.errors[0].index").value(1))
+            .andExpect(jsonPath("$.data.errors[0].errors.title").value("Title cannot be empty"));
+        }
+    }
+
     @Nested
     class UpdateTask {
         private TaskUpdateDto updateTask;
@@ -379,7 +588,7 @@ public class TaskControllerTest {
         @Test
         public void Can_UpdateTask() throws Exception {
             Long id = taskDto.getId();
-            when(taskService.updateTask(eq(id), any(TaskUpdateDto.class))).thenReturn(taskDto);
+            when(taskService.updateTask(eq(id), any(TaskUpdateDto.class), isNull())).thenReturn(taskDto);
             
             mockMvc.perform(
                 patch("/api/v1/tasks/" + id)
@@ -390,7 +599,37 @@ public class TaskControllerTest {
             .andExpect(jsonPath("$.data.description").value(updateTask.getDescription()))
             .andExpect(jsonPath("$.data.status").value(updateTask.getStatus()));
     
-            verify(taskService, times(1)).updateTask(eq(taskDto.getId()), any(TaskUpdateDto.class));
+            verify(taskService, times(1)).updateTask(eq(taskDto.getId()), any(TaskUpdateDto.class), isNull());
+        }
+
+        @Test
+        public void updateTask_Passes_IfMatch_Version() throws Exception {
+            Long id = taskDto.getId();
+            taskDto.setVersion(4L);
+            when(taskService.updateTask(eq(id), any(TaskUpdateDto.class), eq(3L))).thenReturn(taskDto);
+
+            mockMvc.perform(
+                patch("/api/v1/tasks/" + id)
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateTask))
+            ).andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"4\""));
+        }
+
+        @Test
+        public void updateTask_Returns_PreconditionFailed_For_Stale_Version() throws Exception {
+            Long id = taskDto.getId();
+            when(taskService.updateTask(eq(id), any(TaskUpdateDto.class), eq(3L)))
+                .thenThrow(new PreconditionFailedException("Task", id, 3L));
+
+            mockMvc.perform(
+                patch("/api/v1/tasks/" + id)
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateTask))
+            ).andExpect(status().isPreconditionFailed())
+            .andExpect(jsonPath("$.message").value("Task with id : 1 is no longer at version 3"));
         }
 
         @Test
@@ -406,7 +645,133 @@ public class TaskControllerTest {
             .andExpect(jsonPath("$.message").value("Invalid arguments provided"))
             .andExpect(jsonPath("$.errors.title").value("Title must be at least 5 characters"));
 
-            verify(taskService, never()).updateTask(eq(id), any(TaskUpdateDto.class));
+            verify(taskService, never()).updateTask(eq(id), any(TaskUpdateDto.class), any());
+        }
+    }
+
+    @Nested
+    class ExportTasks {
+
+        @Test
+        public void exportTasks_Streams_Csv() throws Exception {
+            doAnswer(invocation -> {
+                OutputStream out = invocation.getArgument(3);
+                out.write("id,title\n1,Test\n".getBytes(StandardCharsets.UTF_8));
+                return null;
+            }).when(taskService).exportTasks(eq(TaskStatus.TODO), isNull(), eq(ExportFormat.CSV), any(OutputStream.class));
+
+            MvcResult result = mockMvc.perform(get("/api/v1/tasks/export")
+                    .param("status", TaskStatus.TODO.toString())
+                    .param("format", "CSV"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Type", "text/csv"))
+                    .andExpect(header().string("Content-Disposition", "attachment; filename=tasks.csv"))
+                    .andExpect(content().string("id,title\n1,Test\n"));
+        }
+
+        @Test
+        public void exportTasks_Defaults_To_Ndjson() throws Exception {
+            MvcResult result = mockMvc.perform(get("/api/v1/tasks/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Type", "application/x-ndjson"));
+
+            verify(taskService, times(1)).exportTasks(isNull(), isNull(), eq(ExportFormat.NDJSON), any(OutputStream.class));
+        }
+    }
+
+    @Nested
+    class ImportTasks {
+
+        @Test
+        public void importTasks_Returns_Created() throws Exception {
+            when(taskService.importTasks(any(InputStream.class))).thenReturn(new TaskImportResultDto(2, 0, new ArrayList<>()));
+
+            mockMvc.perform(
+                post("/api/v1/tasks/import")
+                .contentType("text/csv")
+                .content("title,dueDate,status\nTask one,2026-01-01,TODO\nTask two,2026-01-01,DONE\n")
+            ).andExpect(status().isCreated())
+            .andExpect(jsonPath("$.data.imported").value(2))
+            .andExpect(jsonPath("$.data.rejected").value(0));
+        }
+
+        @Test
+        public void importTasks_Returns_MultiStatus_With_Rejects() throws Exception {
+            TaskBatchErrorDto reject = new TaskBatchErrorDto(3, Map.of("dueDate", "Invalid date format supplied, expected yyyy-MM-dd"));
+            when(taskService.importTasks(any(InputStream.class))).thenReturn(new TaskImportResultDto(1, 1, List.of(reject)));
+
+            mockMvc.perform(
+                post("/api/v1/tasks/import")
+                .contentType("text/csv")
+                .content("title,dueDate,status\nTask one,2026-01-01,TODO\nTask two,soon,DONE\n")
+            ).andExpect(status().isMultiStatus())
+            .andExpect(jsonPath("$.data.rejects[0].index").value(3))
+            .andExpect(jsonPath("$.data.rejects[0].errors.dueDate").exists());
+        }
+    }
+
+    @Nested
+    class BulkTasks {
+
+        @Test
+        public void archiveTasks_Returns_Job() throws Exception {
+            TaskBulkJob job = new TaskBulkJob(7L, "archive");
+            when(taskService.archiveTasks(any(TaskBulkActionDto.class))).thenReturn(job);
+
+            mockMvc.perform(
+                post("/api/v1/tasks/bulk/archive")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\": \"IN_PROGRESS\", \"dueBefore\": \"2026-01-01\"}")
+            ).andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.id").value(7))
+            .andExpect(jsonPath("$.data.operation").value("archive"))
+            .andExpect(jsonPath("$.data.state").value("RUNNING"));
+
+            ArgumentCaptor<TaskBulkActionDto> bulkCaptor = ArgumentCaptor.forClass(TaskBulkActionDto.class);
+            verify(taskService, times(1)).archiveTasks(bulkCaptor.capture());
+            assertEquals(LocalDate.of(2026, 1, 1), bulkCaptor.getValue().getDueBefore());
+        }
+
+        @Test
+        public void updateTasksStatus_Without_Filter_Is_Bad_Request() throws Exception {
+            when(taskService.updateTasksStatus(any(TaskBulkActionDto.class)))
+                .thenThrow(new IllegalArgumentException("At least one of status, dueDate or dueBefore is required"));
+
+            mockMvc.perform(
+                post("/api/v1/tasks/bulk/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"newStatus\": \"DONE\"}")
+            ).andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("At least one of status, dueDate or dueBefore is required"));
+        }
+    }
+
+    @Nested
+    class GetTaskStats {
+
+        @Test
+        public void getTaskStats_Returns_Counters() throws Exception {
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            byStatus.put("TODO", 2L);
+            byStatus.put("IN_PROGRESS", 0L);
+            byStatus.put("DONE", 1L);
+            TaskStatsDto stats = new TaskStatsDto(3, byStatus, 1, Map.of("2026-01-05", 3L), 1000L);
+            when(taskService.getTaskStats()).thenReturn(stats);
+
+            mockMvc.perform(get("/api/v1/tasks/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.total").value(3))
+            .andExpect(jsonPath("$.data.byStatus.TODO").value(2))
+            .andExpect(jsonPath("$.data.overdue").value(1))
+            .andExpect(jsonPath("$.data.byDueWeek['2026-01-05']").value(3));
         }
     }
 
@@ -422,6 +787,18 @@ public class TaskControllerTest {
                 .contentType(MediaType.APPLICATION_JSON)
             ).andExpect(status().isOk())
             .andExpect(jsonPath("$.data").value(id));
+
+            verify(taskService, times(1)).deleteTask(id, null);
+        }
+
+        @Test
+        public void deleteTask_Rejects_Weak_IfMatch() throws Exception {
+            mockMvc.perform(
+                delete("/api/v1/tasks/1")
+                .header("If-Match", "W/\"3\"")
+            ).andExpect(status().isBadRequest());
+
+            verify(taskService, never()).deleteTask(any(), any());
         }
 
         @Test
@@ -435,4 +812,45 @@ public class TaskControllerTest {
             .andExpect(jsonPath("$.errors.id").value("Expected a number"));
         }
     }
+
+    // The service is mocked, so it records the statements a real one would have run
+    @Nested
+    class SqlStatementHeaders {
+        @Test
+        public void getTask_Reports_Statements() throws Exception {
+            TaskDto taskDto = new TaskDto();
+            taskDto.setId(1L);
+            when(taskService.getTaskById(1L)).thenAnswer(invocation -> {
+                runStatement("select * from task where id=?", 1);
+                runStatement("select * from task where id=?", 1);
+                return taskDto;
+            });
+
+            mockMvc.perform(get("/api/v1/tasks/1"))
+                   .andExpect(status().isOk())
+                   .andExpect(header().string(SqlStatementsAdvice.STATEMENTS_HEADER, "2"))
+                   .andExpect(header().string(SqlStatementsAdvice.ROWS_HEADER, "2"))
+                   .andExpect(header().exists(SqlStatementsAdvice.TIME_HEADER));
+            assertEquals(2, SqlStatements.current().getMostRepeatedCount());
+            assertEquals(false, SqlStatements.current().isActive());
+        }
+
+        @Test
+        public void errors_Report_Statements() throws Exception {
+            when(taskService.getTaskById(1L)).thenAnswer(invocation -> {
+                runStatement("select * from task where id=?", 0);
+                throw new ResourceNotFoundException("Task", "id", 1L);
+            });
+
+            mockMvc.perform(get("/api/v1/tasks/1"))
+                   .andExpect(status().isNotFound())
+                   .andExpect(header().string(SqlStatementsAdvice.STATEMENTS_HEADER, "1"))
+                   .andExpect(header().string(SqlStatementsAdvice.ROWS_HEADER, "0"));
+        }
+
+        private void runStatement(String sql, long rows) {
+            SqlStatements.current().beforeStatement();
+            SqlStatements.current().afterStatement(sql, rows);
+        }
+    }
 }
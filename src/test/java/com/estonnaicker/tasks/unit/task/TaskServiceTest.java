@@ -5,20 +5,31 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Path;
+import javax.validation.Validator;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
@@ -29,10 +40,16 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import com.estonnaicker.tasks.exception.GlobalExceptionHandler;
+import com.estonnaicker.tasks.exception.PreconditionFailedException;
 import com.estonnaicker.tasks.exception.ResourceNotFoundException;
 import com.estonnaicker.tasks.task.Task;
+import com.estonnaicker.tasks.task.TaskBatchWriter;
+import com.estonnaicker.tasks.task.TaskCache;
+import com.estonnaicker.tasks.task.TaskFilter;
 import com.estonnaicker.tasks.task.TaskMapper;
 import com.estonnaicker.tasks.task.TaskRepository;
+import com.estonnaicker.tasks.task.TaskStats;
+import com.estonnaicker.tasks.task.dto.TaskBatchResultDto;
 import com.estonnaicker.tasks.task.dto.TaskCreateDto;
 import com.estonnaicker.tasks.task.dto.TaskDto;
 import com.estonnaicker.tasks.task.dto.TaskUpdateDto;
@@ -52,6 +69,18 @@ public class TaskServiceTest {
     @Mock
     private TaskMapper taskMapper;
 
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private TaskStats taskStats;
+
+    @Mock
+    private TaskBatchWriter taskBatchWriter;
+
+    @Spy
+    private TaskCache taskCache = new TaskCache(100, Duration.ofMinutes(1));
+
     private Task task;
     private TaskDto taskDto;
     private TaskCreateDto taskCreateDto;
@@ -111,11 +140,47 @@ public class TaskServiceTest {
         verify(taskMapper, times(1)).toDto(task);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCreateTasksReportsInvalidTasksPerItem() {
+        TaskCreateDto invalidDto = new TaskCreateDto();
+        ConstraintViolation<TaskCreateDto> violation = mock(ConstraintViolation.class);
+        Path path = mock(Path.class);
+        when(path.toString()).thenReturn("title");
+        when(violation.getPropertyPath()).thenReturn(path);
+        when(violation.getMessage()).thenReturn("Title cannot be empty");
+
+        when(validator.validate(taskCreateDto)).thenReturn(Collections.emptySet());
+        when(validator.validate(invalidDto)).thenReturn(Set.of(violation));
+        when(taskMapper.toEntity(taskCreateDto)).thenReturn(task);
+        when(taskMapper.toDtoList(List.of(task))).thenReturn(List.of(taskDto));
+
+        TaskBatchResultDto result = taskService.createTasks(List.of(taskCreateDto, invalidDto));
+
+        assertEquals(1, result.getCreated().size());
+        assertEquals(taskDto.getId(), result.getCreated().get(0).getId());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+        assertEquals("Title cannot be empty", result.getErrors().get(0).getErrors().get("title"));
+
+        verify(taskBatchWriter, times(1)).insert(List.of(task));
+        verify(taskMapper, never()).toEntity(invalidDto);
+    }
+
+    @Test
+    public void testCreateTasksRejectsOversizedBatch() {
+        doThrow(new IllegalArgumentException("A batch can hold at most 1 tasks, got 2")).when(taskBatchWriter).checkSize(2);
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.createTasks(List.of(taskCreateDto, taskCreateDto)));
+
+        verify(taskBatchWriter, never()).insert(any());
+        verify(validator, never()).validate(any());
+    }
+
     @Test
     public void testGetTaskByIdReturnsCorrectly() {
         Long id = 1L;
-        when(taskRepository.findByIdAndArchivedFalse(id)).thenReturn(Optional.of(task));
-        when(taskMapper.toDto(task)).thenReturn(taskDto);
+        when(taskRepository.findDtoById(id)).thenReturn(Optional.of(taskDto));
 
         TaskDto returnedDto = taskService.getTaskById(id);
         assertEquals(returnedDto.getId(), task.getId());
@@ -123,37 +188,62 @@ public class TaskServiceTest {
         assertEquals(returnedDto.getStatus(), task.getStatus().toString());
         assertEquals(returnedDto.getDescription(), task.getDescription());
 
-        verify(taskRepository, times(1)).findByIdAndArchivedFalse(id);
-        verify(taskMapper, times(1)).toDto(task);
+        verify(taskRepository, times(1)).findDtoById(id);
+        verify(taskMapper, never()).toDto(any());
+    }
+
+    @Test
+    public void testGetTaskByIdServesRepeatReadsFromCache() {
+        Long id = 1L;
+        when(taskRepository.findDtoById(id)).thenReturn(Optional.of(taskDto));
+
+        taskService.getTaskById(id);
+        TaskDto returnedDto = taskService.getTaskById(id);
+
+        assertEquals(returnedDto.getId(), task.getId());
+        verify(taskRepository, times(1)).findDtoById(id);
+        assertEquals(1, taskCache.stats().getHits());
+    }
+
+    @Test
+    public void testDeleteTaskEvictsCachedTask() {
+        Long id = 1L;
+        when(taskRepository.findDtoById(id)).thenReturn(Optional.of(taskDto));
+        when(taskRepository.archiveById(id)).thenReturn(1);
+
+        taskService.getTaskById(id);
+        taskService.deleteTask(id, null);
+
+        when(taskRepository.findDtoById(id)).thenReturn(Optional.empty());
+        assertThrows(ResourceNotFoundException.class, () -> taskService.getTaskById(id));
+        verify(taskCache, times(1)).invalidate(id);
     }
 
     @Test
     public void testGetTaskByIdThrowsErrorWhenNotFound() {
         Long id = 1L;
-        when(taskRepository.findByIdAndArchivedFalse(id)).thenReturn(Optional.empty());
+        when(taskRepository.findDtoById(id)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> taskService.getTaskById(id));
-        verify(taskRepository, times(1)).findByIdAndArchivedFalse(1L);
+        verify(taskRepository, times(1)).findDtoById(1L);
         verify(taskMapper, never()).toDto(any());
     }
 
     @Test
     public void testGetAllTasksReturnsCorrectly() {
         Pageable pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
-        Page<Task> taskPage = new PageImpl<>(List.of(task));
 
-        when(taskRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(taskPage);
-        when(taskMapper.toDtoPaged(taskPage)).thenReturn(new PageImpl<>(List.of(taskDto)));
+        when(taskRepository.findDtoPage(any(Specification.class), eq(pageable))).thenReturn(new PageImpl<>(List.of(taskDto)));
 
-        Page<TaskDto> result = taskService.getAllTasks(TaskStatus.TODO, LocalDate.now(), pageable);
+        Page<TaskDto> result = taskService.getAllTasks(TaskFilter.of(TaskStatus.TODO, LocalDate.now()), pageable);
         
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
         assertEquals(1, result.getTotalPages());
         assertEquals(taskDto.getId(), result.getContent().get(0).getId());
 
-        verify(taskRepository, times(1)).findAll(any(Specification.class), eq(pageable));
-        verify(taskMapper, times(1)).toDtoPaged(taskPage);
+        verify(taskRepository, times(1)).findDtoPage(any(Specification.class), eq(pageable));
+        verify(taskMapper, never()).toDtoPaged(any());
     }
 
     @Test
@@ -161,61 +251,155 @@ public class TaskServiceTest {
         Pageable pageable = PageRequest.of(0, 10, Sort.by("invalidSortColumn").ascending());
         IllegalArgumentException exception = assertThrows(
             IllegalArgumentException.class, 
-            () -> taskService.getAllTasks(TaskStatus.TODO, LocalDate.now(), pageable)
+            () -> taskService.getAllTasks(TaskFilter.of(TaskStatus.TODO, LocalDate.now()), pageable)
         );
         assertEquals("Invalid sort property: 'invalidSortColumn'. Valid properties are: [id, title, dueDate, status]", exception.getMessage());
         
-        verify(taskRepository, never()).findAll();
-        verify(taskMapper, never()).toDtoPaged(any());
+        verify(taskRepository, never()).findDtoPage(any(), any());
     }
     
     @Test
     public void testUpdateTaskReturnsCorrectly() {
         Long id = 1L;
-        when(taskRepository.findByIdAndArchivedFalse(id)).thenReturn(Optional.of(task));
-        when(taskMapper.toDto(task)).thenReturn(taskDto);
-        when(taskMapper.toEntity(taskDto)).thenReturn(task);
-        when(this.taskRepository.save(task)).thenReturn(task);
+        Map<String, Object> changes = Map.of("title", taskUpdateDto.getTitle());
+        when(taskMapper.toChanges(taskUpdateDto)).thenReturn(changes);
+        when(taskRepository.updateNotArchived(id, changes, null)).thenReturn(1);
+        when(taskRepository.findDtoById(id)).thenReturn(Optional.of(taskDto));
 
-        TaskDto returnedDto = taskService.updateTask(id, taskUpdateDto);
+        TaskDto returnedDto = taskService.updateTask(id, taskUpdateDto, null);
         assertEquals(returnedDto.getId(), task.getId());
         assertEquals(returnedDto.getTitle(), taskUpdateDto.getTitle());
         assertEquals(returnedDto.getStatus(), taskUpdateDto.getStatus().toString());
         assertEquals(returnedDto.getDescription(), taskUpdateDto.getDescription());
 
-        verify(taskRepository, times(1)).findByIdAndArchivedFalse(id);
-        verify(taskRepository, times(1)).save(task);
-        verify(taskMapper, times(2)).toDto(task); // 2 -> 1 from getTaskById and the return
-        verify(taskMapper, times(1)).toEntity(taskDto);
+        verify(taskRepository, times(1)).updateNotArchived(id, changes, null);
+        verify(taskRepository, times(1)).findDtoById(id);
+        verify(taskRepository, never()).save(any());
+        verify(taskCache, times(1)).invalidate(id);
+    }
+
+    @Test
+    public void testUpdateTaskWithNoChangesSkipsUpdate() {
+        Long id = 1L;
+        when(taskMapper.toChanges(taskUpdateDto)).thenReturn(Map.of());
+        when(taskRepository.findDtoById(id)).thenReturn(Optional.of(taskDto));
+
+        taskService.updateTask(id, taskUpdateDto, null);
+
+        verify(taskRepository, never()).updateNotArchived(any(), any(), any());
+        verify(taskRepository, times(1)).findDtoById(id);
     }
 
     @Test
     public void testUpdateTaskErrorsWhenTaskNotFound() {
         Long id = 111L;
-        when(taskRepository.findByIdAndArchivedFalse(id)).thenReturn(Optional.empty());
+        Map<String, Object> changes = Map.of("title", taskUpdateDto.getTitle());
+        when(taskMapper.toChanges(taskUpdateDto)).thenReturn(changes);
+        when(taskRepository.updateNotArchived(id, changes, null)).thenReturn(0);
 
         ResourceNotFoundException exception = assertThrows(
             ResourceNotFoundException.class, 
-            () -> taskService.updateTask(id, taskUpdateDto)
+            () -> taskService.updateTask(id, taskUpdateDto, null)
         );
         assertEquals("Task not found with id : " + id, exception.getMessage());
 
-        verify(taskRepository, times(1)).findByIdAndArchivedFalse(id);
+        verify(taskRepository, never()).findDtoById(id);
         verify(taskMapper, never()).toDto(any());
     }
 
+    @Test
+    public void testUpdateTaskWithStaleVersionFailsPrecondition() {
+        Long id = 1L;
+        Map<String, Object> changes = Map.of("title", taskUpdateDto.getTitle());
+        when(taskMapper.toChanges(taskUpdateDto)).thenReturn(changes);
+        when(taskRepository.updateNotArchived(id, changes, 2L)).thenReturn(0);
+        when(taskRepository.existsByIdAndArchivedFalse(id)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class, () -> taskService.updateTask(id, taskUpdateDto, 2L));
+        verify(taskCache, never()).invalidate(id);
+    }
+
+    @Test
+    public void testDeleteTaskWithVersionUsesConditionalArchive() {
+        Long id = 1L;
+        when(taskRepository.archiveByIdAndVersion(id, 2L)).thenReturn(0);
+        when(taskRepository.existsByIdAndArchivedFalse(id)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> taskService.deleteTask(id, 2L));
+        verify(taskRepository, never()).archiveById(id);
+    }
+
+    @Test
+    public void testDeleteCachedTaskArchivesWithOneStatement() {
+        Long id = 1L;
+        when(taskRepository.findDtoById(id)).thenReturn(Optional.of(taskDto));
+        when(taskRepository.archiveById(id)).thenReturn(1);
+        taskService.getTaskById(id);
+
+        taskService.deleteTask(id, null);
+
+        verify(taskRepository, times(1)).archiveById(id);
+        // Only the read that filled the cache, the stats use the cached dto
+        verify(taskRepository, times(1)).findDtoById(id);
+        verify(taskRepository, never()).save(any());
+        verify(taskStats, times(1)).archived(TaskStatus.valueOf(taskDto.getStatus()), taskDto.getDueDate());
+    }
+
+    @Test
+    public void testDeleteUncachedTaskMarksStatsStale() {
+        Long id = 1L;
+        when(taskRepository.archiveById(id)).thenReturn(1);
+
+        taskService.deleteTask(id, null);
+
+        verify(taskRepository, never()).findDtoById(id);
+        verify(taskStats, never()).archived(any(), any());
+        verify(taskStats, times(1)).markStale();
+    }
+
+    @Test
+    public void testUpdateTaskStatusReportsChangeToStats() {
+        Long id = 1L;
+        TaskDto done = new TaskDto(id, taskDto.getTitle(), taskDto.getDescription(), taskDto.getDueDate(), TaskStatus.DONE.toString(), 1L);
+        Map<String, Object> changes = Map.of("status", TaskStatus.DONE);
+        when(taskMapper.toChanges(taskUpdateDto)).thenReturn(changes);
+        when(taskRepository.updateNotArchived(id, changes, null)).thenReturn(1);
+        when(taskRepository.findDtoById(id)).thenReturn(Optional.of(taskDto), Optional.of(done));
+        taskService.getTaskById(id);
+
+        taskService.updateTask(id, taskUpdateDto, null);
+
+        verify(taskStats, never()).markStale();
+        verify(taskStats, times(1)).changed(
+            TaskStatus.valueOf(taskDto.getStatus()), taskDto.getDueDate(), TaskStatus.DONE, taskDto.getDueDate()
+        );
+    }
+
+    @Test
+    public void testUpdateTaskTitleLeavesStatsAlone() {
+        Long id = 1L;
+        Map<String, Object> changes = Map.of("title", taskUpdateDto.getTitle());
+        when(taskMapper.toChanges(taskUpdateDto)).thenReturn(changes);
+        when(taskRepository.updateNotArchived(id, changes, null)).thenReturn(1);
+        when(taskRepository.findDtoById(id)).thenReturn(Optional.of(taskDto));
+
+        taskService.updateTask(id, taskUpdateDto, null);
+
+        verify(taskStats, never()).changed(any(), any(), any(), any());
+    }
+
     @Test
     public void testDeleteTaskErrorsWhenTaskNotFound() {
         Long id = 111L;
-        when(taskRepository.findByIdAndArchivedFalse(id)).thenReturn(Optional.empty());
+        when(taskRepository.archiveById(id)).thenReturn(0);
 
         ResourceNotFoundException exception = assertThrows(
             ResourceNotFoundException.class, 
-            () -> taskService.deleteTask(id)
+            () -> taskService.deleteTask(id, null)
         );
         assertEquals("Task not found with id : " + id, exception.getMessage());
 
-        verify(taskRepository, times(1)).findByIdAndArchivedFalse(id);
+        verify(taskRepository, times(1)).archiveById(id);
         verify(taskMapper, never()).toDto(any());
     }
 }
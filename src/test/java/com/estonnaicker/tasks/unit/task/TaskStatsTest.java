@@ -0,0 +1,126 @@
+package com.estonnaicker.tasks.unit.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.estonnaicker.tasks.task.Task;
+import com.estonnaicker.tasks.task.TaskStats;
+import com.estonnaicker.tasks.task.dto.TaskStatsDto;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+
+public class TaskStatsTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TaskStats taskStats;
+    private LocalDate today;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        taskStats = new TaskStats(jdbcTemplate);
+        today = LocalDate.now();
+    }
+
+    @Test
+    public void testCountsCreatedTasksPerStatusAndWeek() {
+        taskStats.created(List.of(
+            task(TaskStatus.TODO, today),
+            task(TaskStatus.TODO, today),
+            task(TaskStatus.DONE, today.plusWeeks(1))
+        ));
+
+        TaskStatsDto stats = taskStats.snapshot();
+        assertEquals(3, stats.getTotal());
+        assertEquals(Map.of("TODO", 2L, "IN_PROGRESS", 0L, "DONE", 1L), stats.getByStatus());
+        assertEquals(2L, stats.getByDueWeek().get(today.with(DayOfWeek.MONDAY).toString()));
+        assertEquals(1L, stats.getByDueWeek().get(today.plusWeeks(1).with(DayOfWeek.MONDAY).toString()));
+    }
+
+    @Test
+    public void testOverdueOnlyCountsOpenTasksDueBeforeToday() {
+        taskStats.created(List.of(
+            task(TaskStatus.TODO, today.minusDays(3)),
+            task(TaskStatus.IN_PROGRESS, today.minusDays(1)),
+            task(TaskStatus.DONE, today.minusDays(2)),
+            task(TaskStatus.TODO, today)
+        ));
+
+        assertEquals(2, taskStats.snapshot().getOverdue());
+    }
+
+    @Test
+    public void testChangeMovesTaskBetweenCounters() {
+        LocalDate yesterday = today.minusDays(1);
+        taskStats.created(List.of(task(TaskStatus.TODO, yesterday)));
+
+        taskStats.changed(TaskStatus.TODO, yesterday, TaskStatus.DONE, yesterday);
+
+        TaskStatsDto stats = taskStats.snapshot();
+        assertEquals(0L, stats.getByStatus().get("TODO"));
+        assertEquals(1L, stats.getByStatus().get("DONE"));
+        assertEquals(0, stats.getOverdue());
+    }
+
+    @Test
+    public void testArchiveDropsEmptyWeeks() {
+        LocalDate nextMonth = today.plusMonths(1);
+        taskStats.created(List.of(task(TaskStatus.TODO, nextMonth)));
+
+        taskStats.archived(TaskStatus.TODO, nextMonth);
+
+        TaskStatsDto stats = taskStats.snapshot();
+        assertEquals(0, stats.getTotal());
+        assertEquals(Map.of(), stats.getByDueWeek());
+    }
+
+    @Test
+    public void testWriteDuringReconcileLeavesStatsStale() throws Exception {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getString(1)).thenReturn(TaskStatus.TODO.name());
+        when(row.getDate(2)).thenReturn(Date.valueOf(today));
+        when(row.getLong(3)).thenReturn(1L);
+        doAnswer(invocation -> {
+            // The task commits after the COUNT read the table, its delta lands on the counters being replaced
+            taskStats.created(List.of(task(TaskStatus.TODO, today)));
+            return null;
+        }).doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        taskStats.reconcile();
+        assertEquals(0, taskStats.snapshot().getTotal());
+
+        taskStats.reconcileIfStale();
+        assertEquals(1, taskStats.snapshot().getTotal());
+
+        taskStats.reconcileIfStale();
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    private Task task(TaskStatus status, LocalDate dueDate) {
+        Task task = new Task();
+        task.setTitle("Task");
+        task.setStatus(status);
+        task.setDueDate(dueDate);
+        return task;
+    }
+}
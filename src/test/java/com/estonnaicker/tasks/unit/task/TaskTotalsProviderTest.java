@@ -0,0 +1,141 @@
+package com.estonnaicker.tasks.unit.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.estonnaicker.tasks.config.DatabasePlatform;
+import com.estonnaicker.tasks.task.TaskFilter;
+import com.estonnaicker.tasks.task.TaskTotal;
+import com.estonnaicker.tasks.task.impl.CachingTaskTotalsProvider;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskTotalsProviderTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DatabasePlatform databasePlatform;
+
+    @Test
+    public void testFirstTotalIsExactThenCached() {
+        CachingTaskTotalsProvider provider = new CachingTaskTotalsProvider(jdbcTemplate, databasePlatform, Duration.ofMinutes(1), 10, false);
+        AtomicInteger counts = new AtomicInteger();
+
+        TaskTotal first = provider.getTotal(TaskFilter.of(TaskStatus.TODO, null), () -> counts.incrementAndGet() * 10L);
+        TaskTotal second = provider.getTotal(TaskFilter.of(TaskStatus.TODO, null), () -> counts.incrementAndGet() * 10L);
+
+        assertEquals(10L, first.getCount());
+        assertFalse(first.isEstimated());
+        assertEquals(10L, second.getCount());
+        assertTrue(second.isEstimated());
+        assertEquals(1, counts.get());
+    }
+
+    @Test
+    public void testTotalsAreCachedPerFilter() {
+        CachingTaskTotalsProvider provider = new CachingTaskTotalsProvider(jdbcTemplate, databasePlatform, Duration.ofMinutes(1), 10, false);
+
+        provider.getTotal(TaskFilter.of(TaskStatus.TODO, null), () -> 1L);
+        TaskTotal other = provider.getTotal(TaskFilter.of(TaskStatus.TODO, LocalDate.now()), () -> 2L);
+
+        assertEquals(2L, other.getCount());
+        assertFalse(other.isEstimated());
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneCount() throws Exception {
+        CachingTaskTotalsProvider provider = new CachingTaskTotalsProvider(jdbcTemplate, databasePlatform, Duration.ofMinutes(1), 10, false);
+        AtomicInteger counts = new AtomicInteger();
+        CountDownLatch counting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LongSupplier slowCount = () -> {
+            counts.incrementAndGet();
+            counting.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 3L;
+        };
+
+        CompletableFuture<TaskTotal> first = new CompletableFuture<>();
+        new Thread(() -> first.complete(provider.getTotal(TaskFilter.of(TaskStatus.TODO, null), slowCount))).start();
+        counting.await(5, TimeUnit.SECONDS);
+
+        // An equal filter built separately, it has to wait for the count already running
+        CompletableFuture<TaskTotal> second = new CompletableFuture<>();
+        Thread waiting = new Thread(() -> second.complete(provider.getTotal(TaskFilter.of(TaskStatus.TODO, null), slowCount)));
+        waiting.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (waiting.getState() != Thread.State.BLOCKED && waiting.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        assertEquals(3L, first.get(5, TimeUnit.SECONDS).getCount());
+        assertEquals(3L, second.get(5, TimeUnit.SECONDS).getCount());
+        assertTrue(second.get().isEstimated());
+        assertEquals(1, counts.get());
+    }
+
+    @Test
+    public void testStaleTotalsAreRecounted() {
+        CachingTaskTotalsProvider provider = new CachingTaskTotalsProvider(jdbcTemplate, databasePlatform, Duration.ZERO, 10, false);
+        AtomicInteger counts = new AtomicInteger();
+
+        provider.getTotal(TaskFilter.of(null, null), counts::incrementAndGet);
+        TaskTotal second = provider.getTotal(TaskFilter.of(null, null), counts::incrementAndGet);
+
+        assertEquals(2L, second.getCount());
+        assertFalse(second.isEstimated());
+    }
+
+    @Test
+    public void testUnfilteredTotalUsesPlannerEstimateOnPostgres() {
+        when(databasePlatform.isPostgres()).thenReturn(true);
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class))).thenReturn("[{\"Plan\": {\"Plan Rows\": 1234}}]");
+        CachingTaskTotalsProvider provider = new CachingTaskTotalsProvider(jdbcTemplate, databasePlatform, Duration.ofMinutes(1), 10, true);
+
+        TaskTotal total = provider.getTotal(TaskFilter.of(null, null), () -> {
+            throw new AssertionError("Exact count should not run");
+        });
+
+        assertEquals(1234L, total.getCount());
+        assertTrue(total.isEstimated());
+    }
+
+    @Test
+    public void testUnfilteredTotalFallsBackToCountOffPostgres() {
+        when(databasePlatform.isPostgres()).thenReturn(false);
+        CachingTaskTotalsProvider provider = new CachingTaskTotalsProvider(jdbcTemplate, databasePlatform, Duration.ofMinutes(1), 10, true);
+
+        TaskTotal total = provider.getTotal(TaskFilter.of(null, null), () -> 5L);
+
+        assertEquals(5L, total.getCount());
+        assertFalse(total.isEstimated());
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(String.class));
+    }
+}
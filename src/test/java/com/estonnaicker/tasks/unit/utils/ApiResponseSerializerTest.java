@@ -0,0 +1,79 @@
+package com.estonnaicker.tasks.unit.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import com.estonnaicker.tasks.task.dto.TaskDto;
+import com.estonnaicker.tasks.utils.ApiResponse;
+import com.estonnaicker.tasks.utils.CursorPage;
+import com.estonnaicker.tasks.utils.EstimatedPage;
+import com.estonnaicker.tasks.utils.PagedApiResponse;
+import com.estonnaicker.tasks.utils.enums.TaskStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class ApiResponseSerializerTest {
+    private static final String TASK_JSON =
+        "{\"id\":1,\"title\":\"Test Task\",\"description\":null,\"dueDate\":\"2026-01-01\",\"status\":\"TODO\",\"version\":2}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TaskDto task = new TaskDto(1L, "Test Task", null, LocalDate.of(2026, 1, 1), TaskStatus.TODO.toString(), 2L);
+
+    @Test
+    public void testWritesApiResponse() throws JsonProcessingException {
+        assertEquals(
+            "{\"status\":\"success\",\"data\":" + TASK_JSON + "}",
+            objectMapper.writeValueAsString(new ApiResponse<TaskDto>(task))
+        );
+        assertEquals(
+            "{\"status\":\"success\",\"data\":null}",
+            objectMapper.writeValueAsString(new ApiResponse<Long>(null))
+        );
+    }
+
+    @Test
+    public void testWritesPageMetadata() throws JsonProcessingException {
+        PageImpl<TaskDto> page = new PageImpl<>(List.of(task), PageRequest.of(0, 10), 11);
+
+        assertEquals(
+            "{\"status\":\"success\",\"data\":[" + TASK_JSON + "],"
+                + "\"metadata\":{\"pageNumber\":0,\"pageSize\":10,\"totalElements\":11,\"totalPages\":2,\"last\":false}}",
+            objectMapper.writeValueAsString(new PagedApiResponse<TaskDto>(page.getContent(), page))
+        );
+    }
+
+    @Test
+    public void testWritesEstimatedPageMetadata() throws JsonProcessingException {
+        EstimatedPage<TaskDto> page = new EstimatedPage<>(new ArrayList<>(), PageRequest.of(1, 5), 5, true);
+
+        assertEquals(
+            "{\"status\":\"success\",\"data\":[],"
+                + "\"metadata\":{\"pageNumber\":1,\"pageSize\":5,\"totalElements\":5,\"totalPages\":1,\"last\":true,\"totalEstimated\":true}}",
+            objectMapper.writeValueAsString(new PagedApiResponse<TaskDto>(page))
+        );
+    }
+
+    @Test
+    public void testWritesSliceAndCursorMetadata() throws JsonProcessingException {
+        SliceImpl<TaskDto> slice = new SliceImpl<>(List.of(task), PageRequest.of(0, 1), true);
+        CursorPage<TaskDto> cursorPage = new CursorPage<>(Arrays.asList(task, null), 2, null);
+
+        assertEquals(
+            "{\"status\":\"success\",\"data\":[" + TASK_JSON + "],\"metadata\":{\"pageNumber\":0,\"pageSize\":1,\"hasNext\":true}}",
+            objectMapper.writeValueAsString(new PagedApiResponse<TaskDto>(slice))
+        );
+        assertEquals(
+            "{\"status\":\"success\",\"data\":[" + TASK_JSON + ",null],\"metadata\":{\"pageSize\":2,\"nextCursor\":null,\"last\":true}}",
+            objectMapper.writeValueAsString(new PagedApiResponse<TaskDto>(cursorPage))
+        );
+    }
+}
@@ -0,0 +1,69 @@
+package com.estonnaicker.tasks.unit.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.estonnaicker.tasks.utils.AsyncLog;
+import com.estonnaicker.tasks.utils.AsyncLogStatsDto;
+
+public class AsyncLogTest {
+
+    private final List<String> formatted = new CopyOnWriteArrayList<>();
+    private final CountDownLatch writerBusy = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    public void testDropsNewestWhenFull() throws Exception {
+        AsyncLog log = new AsyncLog("test", 1, AsyncLog.DropPolicy.NEWEST);
+        fillBehindBusyWriter(log);
+
+        log.log(entry("dropped"));
+        AsyncLogStatsDto stats = log.stats();
+        assertEquals(1, stats.getBufferDepth());
+        assertEquals(1, stats.getDropped());
+
+        release.countDown();
+        log.close();
+        assertEquals(List.of("blocking", "buffered"), formatted);
+        assertEquals(2, log.stats().getWritten());
+    }
+
+    @Test
+    public void testDropsOldestWhenFull() throws Exception {
+        AsyncLog log = new AsyncLog("test", 1, AsyncLog.DropPolicy.OLDEST);
+        fillBehindBusyWriter(log);
+
+        log.log(entry("newest"));
+        assertEquals(1, log.stats().getDropped());
+
+        release.countDown();
+        log.close();
+        assertEquals(List.of("blocking", "newest"), formatted);
+    }
+
+    // The writer holds the first entry while the second fills the buffer of one
+    private void fillBehindBusyWriter(AsyncLog log) throws InterruptedException {
+        log.log(line -> {
+            writerBusy.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            formatted.add("blocking");
+        });
+        assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+        log.log(entry("buffered"));
+    }
+
+    private AsyncLog.Entry entry(String text) {
+        return line -> formatted.add(text);
+    }
+}
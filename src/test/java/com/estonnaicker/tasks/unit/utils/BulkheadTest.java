@@ -0,0 +1,114 @@
+package com.estonnaicker.tasks.unit.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.estonnaicker.tasks.exception.BulkheadFullException;
+import com.estonnaicker.tasks.utils.Bulkhead;
+import com.estonnaicker.tasks.utils.BulkheadStatsDto;
+
+public class BulkheadTest {
+
+    private final Bulkhead bulkhead = new Bulkhead("test", 1, 1, Duration.ofMillis(200));
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        bulkhead.shutdown();
+    }
+
+    @Test
+    public void testRejectsOnceThreadsAndQueueAreTaken() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        bulkhead.submit(() -> { started.countDown(); return await(); }, null);
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Boolean> queued = bulkhead.submit(this::await, null);
+        CompletableFuture<Boolean> rejected = bulkhead.submit(this::await, null);
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertTrue(ex.getCause() instanceof BulkheadFullException);
+
+        BulkheadStatsDto stats = bulkhead.stats();
+        assertEquals(1, stats.getActive());
+        assertEquals(1, stats.getQueueDepth());
+        assertEquals(1, stats.getRejected());
+
+        release.countDown();
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTimesOutAndInterruptsWork() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<Boolean> slow = bulkhead.submit(() -> {
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                return false;
+            }
+        });
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> slow.get(5, TimeUnit.SECONDS));
+        assertTrue(ex.getCause() instanceof TimeoutException);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, bulkhead.stats().getTimedOut());
+    }
+
+    @Test
+    public void testPassesFailuresThrough() {
+        CompletableFuture<Object> failed = bulkhead.submit(() -> { throw new IllegalArgumentException("bad"); });
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertTrue(ex.getCause() instanceof IllegalArgumentException);
+        assertEquals(0, bulkhead.stats().getTimedOut());
+    }
+
+    @Test
+    public void testStreamsOnTheBulkheadIntoTheCallersOutput() throws Exception {
+        CompletableFuture<StreamingResponseBody> admitted = bulkhead.stream(out -> {
+            out.write(Thread.currentThread().getName().getBytes(StandardCharsets.UTF_8));
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        admitted.get(5, TimeUnit.SECONDS).writeTo(out);
+
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("bulkhead-test-"));
+    }
+
+    @Test
+    public void testRejectsStreamBeforeItStarts() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        bulkhead.submit(() -> { started.countDown(); return await(); }, null);
+        started.await(5, TimeUnit.SECONDS);
+        bulkhead.submit(this::await, null);
+
+        CompletableFuture<StreamingResponseBody> rejected = bulkhead.stream(out -> out.write(1));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertTrue(ex.getCause() instanceof BulkheadFullException);
+    }
+
+    private boolean await() {
+        try {
+            return release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+}